@@ -0,0 +1,49 @@
+package com.contestpredictor.benchmarks;
+
+import com.contestpredictor.model.Participant;
+import com.contestpredictor.model.ParticipantBatch;
+import com.contestpredictor.util.CodeforcesRatingEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CodeforcesRatingEngine end to end, including the 30k-participant round size it is tuned for
+ * The batch variant reruns on a prebuilt ParticipantBatch and allocates nothing per participant
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CodeforcesRatingEngineBenchmark {
+
+    @Param({"1000", "10000", "30000", "100000", "1000000"})
+    public int participants;
+
+    private final CodeforcesRatingEngine engine = new CodeforcesRatingEngine();
+    private List<Participant> template;
+    private ParticipantBatch batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        template = ContestFixtures.participants(participants, 42L);
+        batch = ParticipantBatch.fromParticipants(template);
+    }
+
+    @Benchmark
+    public List<Participant> calculateRatings() {
+        List<Participant> copy = new ArrayList<>(template);
+        engine.calculateRatings(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public ParticipantBatch calculateRatingsBatch() {
+        engine.calculateRatings(batch);
+        return batch;
+    }
+}
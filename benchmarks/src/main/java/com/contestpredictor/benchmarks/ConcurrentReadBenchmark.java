@@ -0,0 +1,120 @@
+package com.contestpredictor.benchmarks;
+
+import com.contestpredictor.data.DatabaseManager;
+import com.contestpredictor.data.LeaderboardDatabase;
+import com.contestpredictor.model.LeaderboardEntry;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reading a leaderboard contest's standings while a background thread keeps rewriting the
+ * entries of another, large contest in one transaction after another (a stand-in for a
+ * recomputation), on a pooled read connection against the shared writer connection every DAO
+ * read through before. Sample mode, as the waits show up in the tail rather than the mean.
+ * Writes contest_predictor.db in the working directory under throwaway contest ids.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ConcurrentReadBenchmark {
+
+    private static final String READ_ID = "BENCH-READ";
+    private static final String WRITE_ID = "BENCH-READ-BG";
+    private static final String STANDINGS_SQL = "SELECT * FROM leaderboard_entries WHERE contest_id = ? ORDER BY rank ASC";
+
+    @Param({"2000"})
+    public int entries;
+
+    @Param({"0", "100000"})
+    public int backgroundEntries;
+
+    @Param({"reader", "writer"})
+    public String connection;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private Thread background;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        LeaderboardDatabase leaderboard = LeaderboardDatabase.getInstance();
+        try (Statement stmt = DatabaseManager.getInstance().getConnection().createStatement()) {
+            for (String id : new String[] {READ_ID, WRITE_ID}) {
+                stmt.execute("INSERT OR REPLACE INTO leaderboard_contests (contest_id, contest_name, description, "
+                        + "start_date, end_date, max_problems, created_by_admin, created_at) VALUES ('" + id
+                        + "', 'Concurrent read benchmark', '', '2024-01-01 10:00:00', '2024-01-01 15:00:00', 10, "
+                        + "'admin', '2024-01-01 09:00:00')");
+            }
+        }
+        leaderboard.saveLeaderboardEntries(entries(READ_ID, entries));
+        List<LeaderboardEntry> rewritten = entries(WRITE_ID, backgroundEntries);
+        running.set(backgroundEntries > 0);
+        background = new Thread(() -> {
+            int round = 0;
+            while (running.get()) {
+                for (LeaderboardEntry entry : rewritten) {
+                    entry.setTotalPenalty(entry.getTotalPenalty() + (++round & 1));
+                }
+                leaderboard.saveLeaderboardEntries(rewritten);
+            }
+        }, "background-writer");
+        background.start();
+    }
+
+    private static List<LeaderboardEntry> entries(String contestId, int size) {
+        List<LeaderboardEntry> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            rows.add(new LeaderboardEntry("bench_user_" + i, contestId, i + 1, 10 - i % 10, i % 600, i * 60L));
+        }
+        return rows;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        running.set(false);
+        background.join();
+        try (Statement stmt = DatabaseManager.getInstance().getConnection().createStatement()) {
+            for (String id : new String[] {READ_ID, WRITE_ID}) {
+                stmt.execute("DELETE FROM leaderboard_entries WHERE contest_id = '" + id + "'");
+                stmt.execute("DELETE FROM leaderboard_contests WHERE contest_id = '" + id + "'");
+            }
+        }
+    }
+
+    @Benchmark
+    public List<LeaderboardEntry> standings() throws Exception {
+        DatabaseManager db = DatabaseManager.getInstance();
+        if (connection.equals("reader")) {
+            try (Connection reader = db.getReadConnection()) {
+                return read(reader);
+            }
+        }
+        return read(db.getConnection());
+    }
+
+    private static List<LeaderboardEntry> read(Connection connection) throws Exception {
+        List<LeaderboardEntry> standings = new ArrayList<>();
+        try (PreparedStatement pstmt = connection.prepareStatement(STANDINGS_SQL)) {
+            pstmt.setString(1, READ_ID);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    LeaderboardEntry entry = new LeaderboardEntry(rs.getString("username"), rs.getString("contest_id"),
+                        rs.getInt("rank"), rs.getInt("solve_count"), rs.getInt("total_penalty"), rs.getLong("total_time"));
+                    entry.setStatus(rs.getString("status"));
+                    standings.add(entry);
+                }
+            }
+        }
+        return standings;
+    }
+}
@@ -0,0 +1,154 @@
+package com.contestpredictor.benchmarks;
+
+import com.contestpredictor.data.DatabaseManager;
+import com.contestpredictor.data.ParticipantCache;
+import com.contestpredictor.data.QueryPlan;
+import com.contestpredictor.data.UnitOfWork;
+import com.contestpredictor.model.Contest;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading the contest catalogue at start-up: {@link DatabaseManager#loadContestCatalogue}, which
+ * leaves participants to a {@link ParticipantCache}, against {@link DatabaseManager#loadAllContests}'s
+ * single join and the old shape of one query for the ids and one per contest, warmed up and
+ * as the first call in a fresh JVM (which is how the application calls it). Run with
+ * {@code -prof gc} to compare the memory each allocates. Uses a scratch
+ * catalogue of {@code contests} contests with {@code participants} rows each, written to
+ * contest_predictor.db in the working directory and removed afterwards.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ContestCatalogueBenchmark {
+
+    private static final String PREFIX = "BENCH-CAT-";
+
+    @Param({"100", "2000"})
+    public int contests;
+
+    @Param({"100"})
+    public int participants;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        try (UnitOfWork work = UnitOfWork.begin()) {
+            PreparedStatement contest = work.batch("INSERT OR REPLACE INTO contests (contest_id, contest_name, date_time, "
+                    + "duration, is_past) VALUES (?, ?, '2024-01-01T10:00', 120, 1)");
+            PreparedStatement participant = work.batch("INSERT INTO participants (contest_id, username, current_rating, "
+                    + "problems_solved, total_penalty, rank, predicted_rating, rating_change) VALUES (?, ?, 1500, ?, ?, ?, 1500, 0)");
+            for (int c = 0; c < contests; c++) {
+                contest.setString(1, PREFIX + c);
+                contest.setString(2, "Catalogue benchmark " + c);
+                contest.addBatch();
+                work.added(contest);
+                for (int i = 0; i < participants; i++) {
+                    participant.setString(1, PREFIX + c);
+                    participant.setString(2, "bench_user_" + i);
+                    participant.setInt(3, i % 8);
+                    participant.setInt(4, i % 600);
+                    participant.setInt(5, i + 1);
+                    participant.addBatch();
+                    work.added(participant);
+                }
+            }
+            work.commit();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void checkPlan() throws Exception {
+        try (Connection reader = DatabaseManager.getInstance().getReadConnection()) {
+            QueryPlan plan = QueryPlan.explain(reader, "SELECT COUNT(*) FROM participants p WHERE p.contest_id = ?");
+            if (!plan.isCovering()) {
+                throw new IllegalStateException("Participant count does not use a covering index: " + plan);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try (UnitOfWork work = UnitOfWork.begin()) {
+            work.execute("DELETE FROM participants WHERE contest_id LIKE '" + PREFIX + "%'");
+            work.execute("DELETE FROM contests WHERE contest_id LIKE '" + PREFIX + "%'");
+            work.commit();
+        }
+    }
+
+    /** Contests and participant counts only; standings are read when a contest is opened */
+    @Benchmark
+    public List<Contest> lazy() {
+        return loadLazy();
+    }
+
+    @Benchmark
+    public List<Contest> singleQuery() {
+        return DatabaseManager.getInstance().loadAllContests();
+    }
+
+    /** 2N+1 queries: the ids, then each contest and its participants */
+    @Benchmark
+    public List<Contest> perContest() throws Exception {
+        return loadPerContest();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(value = 5, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+    public List<Contest> coldLazy() {
+        return loadLazy();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(value = 5, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+    public List<Contest> coldSingleQuery() {
+        return DatabaseManager.getInstance().loadAllContests();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(value = 5, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+    public List<Contest> coldPerContest() throws Exception {
+        return loadPerContest();
+    }
+
+    private static List<Contest> loadLazy() {
+        DatabaseManager db = DatabaseManager.getInstance();
+        ParticipantCache cache = new ParticipantCache(ParticipantCache.DEFAULT_MAX_ROWS, db::getParticipantsByContest);
+        return db.loadContestCatalogue(cache);
+    }
+
+    private static List<Contest> loadPerContest() throws Exception {
+        DatabaseManager db = DatabaseManager.getInstance();
+        List<String> ids = new ArrayList<>();
+        try (Connection reader = db.getReadConnection();
+             Statement stmt = reader.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT contest_id FROM contests")) {
+            while (rs.next()) {
+                ids.add(rs.getString(1));
+            }
+        }
+        List<Contest> loaded = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            loaded.add(db.loadContest(id));
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,62 @@
+package com.contestpredictor.benchmarks;
+
+import com.contestpredictor.model.RatingChange;
+import com.contestpredictor.util.CodeforcesDataSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Official rating changes of {@code contests} contests from the local stand-in server with a
+ * fixed round trip: one request after another against the data source's batch fetch
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ContestDataSourceBenchmark {
+
+    @Param({"20"})
+    public int contests;
+
+    /** Simulated round trip per request */
+    @Param({"20"})
+    public long latencyMillis;
+
+    private RatedListServer server;
+    private CodeforcesDataSource source;
+    private List<String> contestIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        server = new RatedListServer(ContestFixtures.ratedListJson(10, 42L), latencyMillis);
+        source = new CodeforcesDataSource(server.getBaseUrl());
+        contestIds = new ArrayList<>(contests);
+        for (int i = 0; i < contests; i++) {
+            contestIds.add(String.valueOf(1900 + i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public List<List<RatingChange>> sequential() {
+        List<List<RatingChange>> all = new ArrayList<>(contests);
+        for (String contestId : contestIds) {
+            all.add(source.fetchRatingChanges(contestId).join());
+        }
+        return all;
+    }
+
+    @Benchmark
+    public List<List<RatingChange>> scheduled() {
+        return source.fetchRatingChanges(contestIds).join();
+    }
+}
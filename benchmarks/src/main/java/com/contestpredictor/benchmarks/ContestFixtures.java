@@ -0,0 +1,150 @@
+package com.contestpredictor.benchmarks;
+
+import com.contestpredictor.model.Contestant;
+import com.contestpredictor.model.Participant;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic contests for the benchmarks
+ * Uses the same tiered rating distribution as ContestDatabase's seeded past contests,
+ * scaled up to arbitrary participant counts
+ */
+public final class ContestFixtures {
+
+    /** Problems available in a synthetic contest */
+    public static final int MAX_PROBLEMS = 7;
+
+    private ContestFixtures() {
+    }
+
+    /**
+     * Draw a rating from the realistic distribution (more people in middle ranges)
+     */
+    public static int randomRating(Random random) {
+        double r = random.nextDouble();
+        if (r < 0.05) { // 5% high rated (2000+)
+            return 2000 + random.nextInt(800);
+        } else if (r < 0.20) { // 15% expert level (1600-2000)
+            return 1600 + random.nextInt(400);
+        } else if (r < 0.45) { // 25% specialist/expert (1200-1600)
+            return 1200 + random.nextInt(400);
+        } else if (r < 0.75) { // 30% pupil/specialist (800-1200)
+            return 800 + random.nextInt(400);
+        } else { // 25% newbie (400-800)
+            return 400 + random.nextInt(400);
+        }
+    }
+
+    /**
+     * Problems solved correlates with rating but has variance
+     */
+    public static int randomSolved(Random random, int rating) {
+        int baseSolve = (int) (MAX_PROBLEMS * (rating / 3000.0));
+        return Math.max(0, Math.min(MAX_PROBLEMS, baseSolve + random.nextInt(3) - 1));
+    }
+
+    /**
+     * Penalty correlates with problems solved (more problems = more time)
+     */
+    public static int randomPenalty(Random random, int solved) {
+        if (solved == 0) return 0;
+        int baseTime = 15 + (solved - 1) * 20;
+        return baseTime + random.nextInt(60);
+    }
+
+    /**
+     * Build an unranked participant list in arrival order
+     */
+    public static List<Participant> participants(int count, long seed) {
+        Random random = new Random(seed);
+        List<Participant> participants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int rating = randomRating(random);
+            int solved = randomSolved(random, rating);
+            participants.add(new Participant(String.format("user%07d", i), rating, solved,
+                randomPenalty(random, solved)));
+        }
+        return participants;
+    }
+
+    /**
+     * Build an unranked contestant list in arrival order
+     */
+    public static List<Contestant> contestants(int count, long seed) {
+        Random random = new Random(seed);
+        List<Contestant> contestants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int rating = randomRating(random);
+            int solved = randomSolved(random, rating);
+            contestants.add(new Contestant(String.format("handle%07d", i), rating, 0, solved,
+                randomPenalty(random, solved)));
+        }
+        return contestants;
+    }
+
+    /**
+     * A user.ratedList response body with every field Codeforces sends per user
+     */
+    public static byte[] ratedListJson(int users, long seed) {
+        Random random = new Random(seed);
+        StringBuilder json = new StringBuilder("{\"status\":\"OK\",\"result\":[");
+        for (int i = 0; i < users; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"lastName\":\"Doe\",\"country\":\"Bangladesh\",\"handle\":\"user").append(i)
+                .append("\",\"friendOfCount\":").append(random.nextInt(1000))
+                .append(",\"titlePhoto\":\"https://userpic.codeforces.org/no-title.jpg\",\"rating\":")
+                .append(randomRating(random))
+                .append(",\"organization\":\"KUET\",\"contribution\":0,\"rank\":\"specialist\",\"maxRating\":1600,")
+                .append("\"lastOnlineTimeSeconds\":1700000000,\"registrationTimeSeconds\":1500000000,\"maxRank\":\"expert\"}");
+        }
+        json.append("]}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Rows {@code from} to {@code to} (1-based) of a contest.standings response for a contest of
+     * {@code total} rows, shaped like Codeforces: party members, points, penalty and problemResults
+     */
+    public static byte[] standingsJson(int from, int to, int total) {
+        StringWriter json = new StringWriter();
+        try {
+            writeStandings(json, from, to, total);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * {@link #standingsJson} written to a stream, for dumps too large to hold in memory
+     */
+    public static void writeStandings(Writer json, int from, int to, int total) throws IOException {
+        json.append("{\"status\":\"OK\",\"result\":{\"contest\":{\"id\":1915,")
+            .append("\"name\":\"Codeforces Round 918 (Div. 4)\",\"type\":\"ICPC\",\"phase\":\"FINISHED\"},")
+            .append("\"problems\":[],\"rows\":[");
+        for (int rank = from; rank <= Math.min(to, total); rank++) {
+            if (rank > from) json.append(',');
+            int solved = MAX_PROBLEMS * (total - rank + 1) / total;
+            json.append("{\"party\":{\"contestId\":1915,\"members\":[{\"handle\":\"user").append(String.valueOf(rank))
+                .append("\"}],\"participantType\":\"CONTESTANT\",\"ghost\":false,\"startTimeSeconds\":1703774100},")
+                .append("\"rank\":").append(String.valueOf(rank)).append(",\"points\":").append(String.valueOf(solved))
+                .append(".0,\"penalty\":").append(String.valueOf(rank % 600)).append(",\"successfulHackCount\":0,")
+                .append("\"unsuccessfulHackCount\":0,\"problemResults\":[");
+            for (int p = 0; p < MAX_PROBLEMS; p++) {
+                if (p > 0) json.append(',');
+                json.append("{\"points\":").append(p < solved ? "1.0" : "0.0")
+                    .append(",\"rejectedAttemptCount\":0,\"type\":\"FINAL\"}");
+            }
+            json.append("]}");
+        }
+        json.append("]}}");
+    }
+}
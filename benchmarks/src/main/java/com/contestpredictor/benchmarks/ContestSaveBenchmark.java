@@ -0,0 +1,72 @@
+package com.contestpredictor.benchmarks;
+
+import com.contestpredictor.data.DatabaseManager;
+import com.contestpredictor.model.Contest;
+import com.contestpredictor.model.Participant;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saving a contest with all its participants: the unit-of-work path of
+ * {@link DatabaseManager#saveContest} against the old shape of one auto-committed INSERT per
+ * participant. Writes contest_predictor.db in the working directory under a throwaway contest id.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ContestSaveBenchmark {
+
+    private static final String CONTEST_ID = "BENCH-SAVE";
+
+    @Param({"10000"})
+    public int participants;
+
+    private Contest contest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Participant> rows = new ArrayList<>(participants);
+        for (int i = 0; i < participants; i++) {
+            Participant participant = new Participant("bench_user_" + i, 1200 + i % 1500, i % 8, i % 600);
+            participant.setRank(i + 1);
+            rows.add(participant);
+        }
+        contest = new Contest(CONTEST_ID, "Contest save benchmark", LocalDateTime.of(2024, 1, 1, 10, 0), 120, true);
+        contest.setParticipants(rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try (Statement stmt = DatabaseManager.getInstance().getConnection().createStatement()) {
+            stmt.execute("DELETE FROM participants WHERE contest_id = '" + CONTEST_ID + "'");
+            stmt.execute("DELETE FROM contests WHERE contest_id = '" + CONTEST_ID + "'");
+        }
+    }
+
+    @Benchmark
+    public void unitOfWork() {
+        DatabaseManager.getInstance().saveContest(contest);
+    }
+
+    /** One transaction, and one journal sync, per participant */
+    @Benchmark
+    public void perRow() throws Exception {
+        DatabaseManager db = DatabaseManager.getInstance();
+        try (PreparedStatement delete = db.getConnection().prepareStatement("DELETE FROM participants WHERE contest_id = ?")) {
+            delete.setString(1, CONTEST_ID);
+            delete.executeUpdate();
+        }
+        for (Participant participant : contest.getParticipants()) {
+            db.saveParticipant(CONTEST_ID, participant);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.contestpredictor.benchmarks;
+
+import com.contestpredictor.model.Participant;
+import com.contestpredictor.model.ParticipantBatch;
+import com.contestpredictor.util.AtCoderRatingEngine;
+import com.contestpredictor.util.RatingEngine;
+import com.contestpredictor.util.RatingEngines;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Re-rating a whole past contest as the contest search screen does on the first cell edit:
+ * participants into a batch, the screen's engine, and the results back onto the list
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ContestSearchBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int participants;
+
+    private List<Participant> template;
+    private RatingEngine engine;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        template = ContestFixtures.participants(participants, 42L);
+        engine = RatingEngines.forScreen(RatingEngines.SCREEN_CONTEST_SEARCH, AtCoderRatingEngine.NAME);
+    }
+
+    @Benchmark
+    public List<Participant> recalculateContestStandings() {
+        List<Participant> standings = new ArrayList<>(template);
+        ParticipantBatch batch = ParticipantBatch.fromParticipants(standings);
+        engine.calculateRatings(batch);
+        batch.applyTo(standings);
+        return standings;
+    }
+}
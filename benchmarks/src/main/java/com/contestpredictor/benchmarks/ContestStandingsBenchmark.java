@@ -0,0 +1,40 @@
+package com.contestpredictor.benchmarks;
+
+import com.contestpredictor.controller.ContestStandingsController;
+import com.contestpredictor.model.Participant;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Baseline for the expected-rank/rating pass behind ContestStandingsController's "Generate Contest"
+ * Expected ranks come from EloSeedTable; ExpectedRankBenchmark keeps the old pairwise loop for comparison
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class ContestStandingsBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int participants;
+
+    private List<Participant> ranked;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ranked = ContestFixtures.participants(participants, 42L);
+        for (int i = 0; i < ranked.size(); i++) {
+            ranked.get(i).setRank(i + 1);
+        }
+    }
+
+    @Benchmark
+    public List<Participant> calculateRatingChanges() {
+        ContestStandingsController.calculateRatingChanges(ranked);
+        return ranked;
+    }
+}
@@ -0,0 +1,48 @@
+package com.contestpredictor.benchmarks;
+
+import com.contestpredictor.model.Contestant;
+import com.contestpredictor.model.ParticipantBatch;
+import com.contestpredictor.util.ContestantRatingPredictor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Baseline for ContestantRatingPredictor.predictRatings (assign ranks, compute deltas, update ratings)
+ * The batch variant reruns on a prebuilt ParticipantBatch and allocates nothing per participant
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ContestantRatingPredictorBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int participants;
+
+    private List<Contestant> template;
+    private ParticipantBatch batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        template = ContestFixtures.contestants(participants, 42L);
+        batch = ParticipantBatch.fromContestants(template);
+    }
+
+    @Benchmark
+    public List<Contestant> predictRatings() {
+        List<Contestant> copy = new ArrayList<>(template);
+        ContestantRatingPredictor.predictRatings(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public ParticipantBatch predictRatingsBatch() {
+        ContestantRatingPredictor.predictRatings(batch);
+        return batch;
+    }
+}
@@ -0,0 +1,64 @@
+package com.contestpredictor.benchmarks;
+
+import com.contestpredictor.util.EloWinProbability;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inner-loop cost of an Elo win probability: Math.pow against the EloWinProbability lookup table
+ * Rating differences are drawn from pairs of fixture ratings, as in the expected-rank loops
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EloWinProbabilityBenchmark {
+
+    @Param({"100000"})
+    public int pairs;
+
+    private int[] diffs;
+    private double[] fractionalDiffs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42L);
+        diffs = new int[pairs];
+        fractionalDiffs = new double[pairs];
+        for (int i = 0; i < pairs; i++) {
+            diffs[i] = ContestFixtures.randomRating(random) - ContestFixtures.randomRating(random);
+            fractionalDiffs[i] = diffs[i] + random.nextDouble();
+        }
+    }
+
+    @Benchmark
+    public double mathPow() {
+        double sum = 0;
+        for (int diff : diffs) {
+            sum += 1.0 / (1.0 + Math.pow(10, diff / 400.0));
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double tableLookup() {
+        double sum = 0;
+        for (int diff : diffs) {
+            sum += EloWinProbability.of(diff);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double tableInterpolated() {
+        double sum = 0;
+        for (double diff : fractionalDiffs) {
+            sum += EloWinProbability.of(diff);
+        }
+        return sum;
+    }
+}
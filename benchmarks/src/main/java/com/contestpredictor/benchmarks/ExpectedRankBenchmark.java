@@ -0,0 +1,76 @@
+package com.contestpredictor.benchmarks;
+
+import com.contestpredictor.model.Participant;
+import com.contestpredictor.util.EloSeedTable;
+import com.contestpredictor.util.EloWinProbability;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expected rank of every participant: the original pairwise Elo loop against the EloSeedTable histogram pass
+ * The pairwise loop is O(n^2), so the 100k and 1M points take hours; pick sizes with -p participants=1000,10000
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class ExpectedRankBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int participants;
+
+    private int[] ratings;
+    private double[] expectedRanks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Participant> field = ContestFixtures.participants(participants, 42L);
+        ratings = new int[field.size()];
+        for (int i = 0; i < ratings.length; i++) {
+            ratings[i] = field.get(i).getCurrentRating();
+        }
+        expectedRanks = new double[ratings.length];
+    }
+
+    @Benchmark
+    public double[] pairwise() {
+        for (int i = 0; i < ratings.length; i++) {
+            double expectedRank = 1.0;
+            for (int j = 0; j < ratings.length; j++) {
+                if (j != i) {
+                    double probability = 1.0 / (1.0 + Math.pow(10, (ratings[j] - ratings[i]) / 400.0));
+                    expectedRank += (1.0 - probability);
+                }
+            }
+            expectedRanks[i] = expectedRank;
+        }
+        return expectedRanks;
+    }
+
+    @Benchmark
+    public double[] pairwiseLookupTable() {
+        for (int i = 0; i < ratings.length; i++) {
+            double expectedRank = 1.0;
+            for (int j = 0; j < ratings.length; j++) {
+                if (j != i) {
+                    expectedRank += EloWinProbability.of(ratings[i] - ratings[j]);
+                }
+            }
+            expectedRanks[i] = expectedRank;
+        }
+        return expectedRanks;
+    }
+
+    @Benchmark
+    public double[] seedTable() {
+        EloSeedTable table = EloSeedTable.build(ratings, ratings.length);
+        for (int i = 0; i < ratings.length; i++) {
+            expectedRanks[i] = table.expectedRank(ratings[i]);
+        }
+        return expectedRanks;
+    }
+}
@@ -0,0 +1,64 @@
+package com.contestpredictor.benchmarks;
+
+import com.contestpredictor.model.ParticipantBatch;
+import com.contestpredictor.util.CodeforcesRatingEngine;
+import com.contestpredictor.util.ContestantRatingPredictor;
+import com.contestpredictor.util.ParallelRatings;
+import com.contestpredictor.util.RatingPredictor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequential vs fork/join execution of the batch rating passes on large contests
+ * "sequential" disables the parallel mode, "parallel" uses the default threshold
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ParallelRatingsBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int participants;
+
+    @Param({"sequential", "parallel"})
+    public String mode;
+
+    private ParticipantBatch participantBatch;
+    private ParticipantBatch contestantBatch;
+    private CodeforcesRatingEngine codeforces;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ParallelRatings.setThreshold("parallel".equals(mode) ? ParallelRatings.DEFAULT_THRESHOLD : Integer.MAX_VALUE);
+        participantBatch = ParticipantBatch.fromParticipants(ContestFixtures.participants(participants, 42L));
+        contestantBatch = ParticipantBatch.fromContestants(ContestFixtures.contestants(participants, 42L));
+        codeforces = new CodeforcesRatingEngine();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ParallelRatings.setThreshold(ParallelRatings.DEFAULT_THRESHOLD);
+    }
+
+    @Benchmark
+    public ParticipantBatch ratingPredictor() {
+        RatingPredictor.calculateRatings(participantBatch);
+        return participantBatch;
+    }
+
+    @Benchmark
+    public ParticipantBatch contestantRatingPredictor() {
+        ContestantRatingPredictor.predictRatings(contestantBatch);
+        return contestantBatch;
+    }
+
+    @Benchmark
+    public ParticipantBatch codeforcesEngine() {
+        codeforces.calculateRatings(participantBatch);
+        return participantBatch;
+    }
+}
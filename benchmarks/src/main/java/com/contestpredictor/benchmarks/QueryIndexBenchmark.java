@@ -0,0 +1,125 @@
+package com.contestpredictor.benchmarks;
+
+import com.contestpredictor.data.DatabaseManager;
+import com.contestpredictor.data.QueryPlan;
+import com.contestpredictor.data.UnitOfWork;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The hot reads with the indexes from the V3 migration against the same queries with
+ * {@code NOT INDEXED}, i.e. a table scan and a sort. Setup fails if a query does not use the
+ * index meant for it. Writes {@code contests} throwaway contests of {@code participants} rows
+ * each to contest_predictor.db in the working directory and reads one of them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class QueryIndexBenchmark {
+
+    private static final String PREFIX = "BENCH-INDEX-";
+    private static final String STANDINGS_SQL = "SELECT * FROM participants%s WHERE contest_id = ? ORDER BY rank ASC";
+    private static final String PARTICIPANT_SQL = "SELECT 1 FROM participants%s WHERE contest_id = ? AND username = ?";
+    private static final String REGISTERED_SQL = "SELECT username FROM contest_registrations%s WHERE contest_id = ? ORDER BY registered_at";
+
+    @Param({"200"})
+    public int contests;
+
+    @Param({"1000"})
+    public int participants;
+
+    @Param({"true", "false"})
+    public boolean indexed;
+
+    private String contestId;
+    private String hint;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        DatabaseManager db = DatabaseManager.getInstance();
+        try (UnitOfWork work = UnitOfWork.begin()) {
+            PreparedStatement participant = work.batch("INSERT INTO participants (contest_id, username, current_rating, "
+                    + "problems_solved, total_penalty, rank, predicted_rating, rating_change) VALUES (?, ?, 1500, ?, ?, ?, 1500, 0)");
+            PreparedStatement registration = work.batch("INSERT OR IGNORE INTO contest_registrations "
+                    + "(contest_id, username, registered_at) VALUES (?, ?, ?)");
+            for (int c = 0; c < contests; c++) {
+                for (int i = 0; i < participants; i++) {
+                    // Rows of each contest are spread across the table, as when contests run side by side
+                    int rank = (i * 7919) % participants + 1;
+                    participant.setString(1, PREFIX + c);
+                    participant.setString(2, "bench_user_" + rank);
+                    participant.setInt(3, rank % 8);
+                    participant.setInt(4, rank % 600);
+                    participant.setInt(5, rank);
+                    participant.addBatch();
+                    work.added(participant);
+                    registration.setString(1, PREFIX + c);
+                    registration.setString(2, "bench_user_" + rank);
+                    registration.setString(3, String.format("2024-01-01T10:%02d:%02d.%03d", rank / 6000 % 60, rank / 100 % 60, rank % 1000));
+                    registration.addBatch();
+                    work.added(registration);
+                }
+            }
+            work.commit();
+        }
+        contestId = PREFIX + (contests / 2);
+        hint = indexed ? "" : " NOT INDEXED";
+        Connection connection = db.getConnection();
+        require(QueryPlan.explain(connection, String.format(STANDINGS_SQL, ""), contestId), "idx_participants_contest_rank");
+        require(QueryPlan.explain(connection, String.format(PARTICIPANT_SQL, ""), contestId, "bench_user_1"), "idx_participants_contest_user");
+        require(QueryPlan.explain(connection, String.format(REGISTERED_SQL, ""), contestId), "idx_contest_registrations_contest_time");
+    }
+
+    private static void require(QueryPlan plan, String index) {
+        if (!plan.usesIndex(index) || plan.sorts()) {
+            throw new IllegalStateException("Expected a search on " + index + " without a sort:\n" + plan);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try (UnitOfWork work = UnitOfWork.begin()) {
+            work.execute("DELETE FROM participants WHERE contest_id LIKE '" + PREFIX + "%'");
+            work.execute("DELETE FROM contest_registrations WHERE contest_id LIKE '" + PREFIX + "%'");
+            work.commit();
+        }
+    }
+
+    @Benchmark
+    public int standings() throws Exception {
+        return count(String.format(STANDINGS_SQL, hint), contestId);
+    }
+
+    @Benchmark
+    public int participant() throws Exception {
+        return count(String.format(PARTICIPANT_SQL, hint), contestId, "bench_user_" + (participants / 2));
+    }
+
+    @Benchmark
+    public int registeredUsers() throws Exception {
+        return count(String.format(REGISTERED_SQL, hint), contestId);
+    }
+
+    private static int count(String sql, String... parameters) throws Exception {
+        try (Connection reader = DatabaseManager.getInstance().getReadConnection();
+             PreparedStatement pstmt = reader.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                pstmt.setString(i + 1, parameters[i]);
+            }
+            int rows = 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows++;
+                }
+            }
+            return rows;
+        }
+    }
+}
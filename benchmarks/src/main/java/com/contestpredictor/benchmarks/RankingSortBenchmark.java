@@ -0,0 +1,65 @@
+package com.contestpredictor.benchmarks;
+
+import com.contestpredictor.util.IndexSort;
+import com.contestpredictor.util.RankingSort;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ranking rows by (solved desc, penalty asc): comparator merge sort vs packed-key radix sort
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RankingSortBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int participants;
+
+    private int[] solved;
+    private int[] penalties;
+    private int[] order;
+    private int[] ranks;
+    private int[] scratch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42L);
+        solved = new int[participants];
+        penalties = new int[participants];
+        for (int i = 0; i < participants; i++) {
+            solved[i] = ContestFixtures.randomSolved(random, ContestFixtures.randomRating(random));
+            penalties[i] = ContestFixtures.randomPenalty(random, solved[i]);
+        }
+        order = new int[participants];
+        ranks = new int[participants];
+        scratch = new int[participants];
+    }
+
+    @Benchmark
+    public int[] comparatorMergeSort() {
+        for (int i = 0; i < participants; i++) {
+            order[i] = i;
+        }
+        IndexSort.stableSort(order, participants, (a, b) -> {
+            if (solved[a] != solved[b]) {
+                return Integer.compare(solved[b], solved[a]);
+            }
+            return Integer.compare(penalties[a], penalties[b]);
+        }, scratch);
+        RankingSort.assignSequentialRanks(order, participants, ranks);
+        return ranks;
+    }
+
+    @Benchmark
+    public int[] radixSort() {
+        RankingSort.sortByStanding(solved, penalties, participants, order);
+        RankingSort.assignSequentialRanks(order, participants, ranks);
+        return ranks;
+    }
+}
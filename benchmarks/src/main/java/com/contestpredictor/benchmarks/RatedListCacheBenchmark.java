@@ -0,0 +1,74 @@
+package com.contestpredictor.benchmarks;
+
+import com.contestpredictor.model.Contestant;
+import com.contestpredictor.util.ContestantRatingPredictor;
+import com.contestpredictor.util.RatedListCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Fetching the first {@code limit} of {@code users} rated users: downloading from a local
+ * stand-in server every time, against the disk snapshot of {@link RatedListCache}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RatedListCacheBenchmark {
+
+    @Param({"30000"})
+    public int users;
+
+    @Param({"100", "10000"})
+    public int limit;
+
+    private RatedListServer server;
+    private Path directory;
+    private RatedListCache.Source source;
+    private RatedListCache warm;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        server = new RatedListServer(ContestFixtures.ratedListJson(users, 42L));
+        String url = server.getRatedListUrl();
+        source = n -> ContestantRatingPredictor.downloadContestants(url, n);
+        directory = Files.createTempDirectory("rated-list-cache");
+        warm = new RatedListCache(directory, Duration.ofDays(1), false, source);
+        warm.refresh();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        server.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public List<Contestant> download() throws Exception {
+        return source.fetch(limit).join();
+    }
+
+    /** First read after start-up: the snapshot is loaded from disk */
+    @Benchmark
+    public List<Contestant> diskSnapshot() throws Exception {
+        return new RatedListCache(directory, Duration.ofDays(1), true, source).get(limit);
+    }
+
+    /** Later reads in the same session */
+    @Benchmark
+    public List<Contestant> memorySnapshot() throws Exception {
+        return warm.get(limit);
+    }
+}
@@ -0,0 +1,78 @@
+package com.contestpredictor.benchmarks;
+
+import com.contestpredictor.model.Contestant;
+import com.contestpredictor.util.RatedListDelta;
+import com.contestpredictor.util.RatedUserSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A refresh of {@code users} rated users, sorted by rating like user.ratedList, where one in
+ * {@code changeEvery} has a new rating and moves to its new place: diffing against the cached snapshot, rewriting the whole snapshot, and touching only the
+ * fetch time as a refresh that found no changes does
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RatedListDeltaBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int users;
+
+    @Param({"100"})
+    public int changeEvery;
+
+    private RatedUserSnapshot previous;
+    private RatedUserSnapshot.Builder current;
+    private Path file;
+    private Path rewritten;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        List<Contestant> contestants = ContestFixtures.contestants(users, 42L);
+        contestants.sort(Comparator.comparingInt(Contestant::getOldRating).reversed());
+        file = Files.createTempFile("rated-users", ".bin");
+        rewritten = Files.createTempFile("rated-users", ".bin");
+        RatedUserSnapshot.Builder.of(contestants).write(file, System.currentTimeMillis());
+        previous = RatedUserSnapshot.open(file);
+        List<Contestant> refreshed = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            Contestant contestant = contestants.get(i);
+            int rating = contestant.getOldRating();
+            refreshed.add(new Contestant(contestant.getHandle(), i % changeEvery == 0 ? rating + 25 : rating));
+        }
+        refreshed.sort(Comparator.comparingInt(Contestant::getOldRating).reversed());
+        current = RatedUserSnapshot.Builder.of(refreshed);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(rewritten);
+    }
+
+    @Benchmark
+    public RatedListDelta diff() {
+        return RatedListDelta.diff(previous, current);
+    }
+
+    @Benchmark
+    public Path rewriteSnapshot() throws Exception {
+        current.write(rewritten, System.currentTimeMillis());
+        return rewritten;
+    }
+
+    @Benchmark
+    public RatedUserSnapshot touchSnapshot() throws Exception {
+        return previous.touch(System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,65 @@
+package com.contestpredictor.benchmarks;
+
+import com.contestpredictor.model.Contestant;
+import com.contestpredictor.util.ContestantRatingPredictor;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a user.ratedList response of {@code users} entries for the first {@code limit}:
+ * the old read-everything Gson tree against the streaming parser
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RatedListParserBenchmark {
+
+    @Param({"100000"})
+    public int users;
+
+    @Param({"100", "10000"})
+    public int limit;
+
+    private byte[] response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        response = ContestFixtures.ratedListJson(users, 42L);
+    }
+
+    @Benchmark
+    public List<Contestant> tree() throws Exception {
+        BufferedReader br = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(response), StandardCharsets.UTF_8));
+        StringBuilder json = new StringBuilder();
+        String line;
+        while ((line = br.readLine()) != null) {
+            json.append(line);
+        }
+        JsonArray result = new Gson().fromJson(json.toString(), JsonObject.class).getAsJsonArray("result");
+        List<Contestant> list = new ArrayList<>();
+        for (int i = 0; i < Math.min(limit, result.size()); i++) {
+            JsonObject u = result.get(i).getAsJsonObject();
+            list.add(new Contestant(u.get("handle").getAsString(), u.get("rating").getAsInt()));
+        }
+        return list;
+    }
+
+    @Benchmark
+    public List<Contestant> streaming() throws Exception {
+        return ContestantRatingPredictor.parseRatedList(
+            new InputStreamReader(new ByteArrayInputStream(response), StandardCharsets.UTF_8), limit);
+    }
+}
@@ -0,0 +1,173 @@
+package com.contestpredictor.benchmarks;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local stand-in for the Codeforces API, so network-path benchmarks run offline and repeatably
+ * Serves a fixed user.ratedList response, a synthetic user.rating history per handle
+ * (one rating change per character of the handle) and the same contest.ratingChanges list
+ * of 1000 rows for every contest, plus contest.standings pages (honouring from and count) of a
+ * contest of {@link #setStandingsRows} rows, gzip-compressed when the client accepts it, after
+ * an optional delay that mimics the round trip
+ */
+public final class RatedListServer implements AutoCloseable {
+
+    static {
+        // Without TCP_NODELAY small keep-alive responses stall on delayed ACKs (~40 ms each)
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final byte[] ratedList;
+    private final byte[] gzippedRatedList;
+    private final byte[] ratingChanges;
+    private final byte[] gzippedRatingChanges;
+    private final long latencyMillis;
+    private volatile int standingsRows = 40_000;
+
+    public RatedListServer(byte[] ratedList) throws IOException {
+        this(ratedList, 0);
+    }
+
+    public RatedListServer(byte[] ratedList, long latencyMillis) throws IOException {
+        this.ratedList = ratedList;
+        this.gzippedRatedList = gzip(ratedList);
+        this.ratingChanges = ratingChanges(1000);
+        this.gzippedRatingChanges = gzip(ratingChanges);
+        this.latencyMillis = latencyMillis;
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "rated-list-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/api/user.ratedList", exchange -> send(exchange, ratedList, gzippedRatedList));
+        server.createContext("/api/user.rating", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            String handle = query == null ? "" : query.substring(query.indexOf('=') + 1);
+            byte[] body = userRating(handle);
+            send(exchange, body, gzip(body));
+        });
+        server.createContext("/api/contest.ratingChanges", exchange -> send(exchange, ratingChanges, gzippedRatingChanges));
+        server.createContext("/api/contest.standings", exchange -> {
+            int from = queryInt(exchange, "from", 1);
+            int count = queryInt(exchange, "count", standingsRows);
+            byte[] body = ContestFixtures.standingsJson(from, from + count - 1, standingsRows);
+            send(exchange, body, gzip(body));
+        });
+        server.start();
+    }
+
+    /**
+     * Base URL to use in place of https://codeforces.com
+     */
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public String getRatedListUrl() {
+        return getBaseUrl() + "/api/user.ratedList?activeOnly=true";
+    }
+
+    public String getUserRatingUrl(String handle) {
+        return getBaseUrl() + "/api/user.rating?handle=" + handle;
+    }
+
+    /**
+     * Rows in the contest served by contest.standings
+     */
+    public void setStandingsRows(int rows) {
+        this.standingsRows = rows;
+    }
+
+    private static int queryInt(HttpExchange exchange, String name, int fallback) {
+        String query = exchange.getRequestURI().getQuery();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                if (pair.startsWith(name + "=")) {
+                    return Integer.parseInt(pair.substring(name.length() + 1));
+                }
+            }
+        }
+        return fallback;
+    }
+
+    private void send(HttpExchange exchange, byte[] plain, byte[] gzipped) throws IOException {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        String accept = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        boolean gzip = accept != null && accept.contains("gzip");
+        byte[] body = gzip ? gzipped : plain;
+        exchange.getResponseHeaders().set("Content-Type", "application/json;charset=UTF-8");
+        if (gzip) {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        } catch (IOException e) {
+            // Client stopped reading once it had enough users
+        }
+    }
+
+    private static byte[] userRating(String handle) {
+        StringBuilder json = new StringBuilder("{\"status\":\"OK\",\"result\":[");
+        int rating = 1500;
+        for (int i = 0; i < handle.length(); i++) {
+            if (i > 0) json.append(',');
+            int next = rating + handle.charAt(i) % 50 - 25;
+            json.append("{\"contestId\":").append(1000 + i).append(",\"contestName\":\"Round ").append(i)
+                .append("\",\"handle\":\"").append(handle).append("\",\"rank\":").append(100 + i)
+                .append(",\"ratingUpdateTimeSeconds\":").append(1600000000L + i * 86400L)
+                .append(",\"oldRating\":").append(rating).append(",\"newRating\":").append(next).append('}');
+            rating = next;
+        }
+        json.append("]}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] ratingChanges(int rows) {
+        StringBuilder json = new StringBuilder("{\"status\":\"OK\",\"result\":[");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) json.append(',');
+            int oldRating = 3000 - i * 2;
+            json.append("{\"contestId\":1,\"contestName\":\"Round\",\"handle\":\"handle").append(i)
+                .append("\",\"rank\":").append(i + 1).append(",\"ratingUpdateTimeSeconds\":1700000000,\"oldRating\":")
+                .append(oldRating).append(",\"newRating\":").append(oldRating + 50 - i / 10).append('}');
+        }
+        json.append("]}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(body);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
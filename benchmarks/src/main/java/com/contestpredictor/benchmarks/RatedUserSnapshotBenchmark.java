@@ -0,0 +1,62 @@
+package com.contestpredictor.benchmarks;
+
+import com.contestpredictor.model.Contestant;
+import com.contestpredictor.util.ContestantRatingPredictor;
+import com.contestpredictor.util.RatedUserSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Making {@code users} rated users available at start-up: parsing the saved JSON response
+ * against mapping the binary snapshot, then materialising the first {@code limit}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RatedUserSnapshotBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int users;
+
+    @Param({"1000", "100000"})
+    public int limit;
+
+    private byte[] json;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        json = ContestFixtures.ratedListJson(users, 42L);
+        file = Files.createTempFile("rated-users", ".bin");
+        RatedUserSnapshot.Builder.fromRatedList(new StringReader(new String(json, StandardCharsets.UTF_8)))
+            .write(file, System.currentTimeMillis());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public List<Contestant> parseJson() throws Exception {
+        return ContestantRatingPredictor.parseRatedList(
+            new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8), limit);
+    }
+
+    @Benchmark
+    public List<Contestant> mapSnapshot() throws Exception {
+        return new ArrayList<>(RatedUserSnapshot.open(file).contestants(limit));
+    }
+}
@@ -0,0 +1,52 @@
+package com.contestpredictor.benchmarks;
+
+import com.contestpredictor.util.RatingEngine;
+import com.contestpredictor.util.RatingEngines;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole rank-to-delta curve for one participant: one predictDelta call per rank
+ * against the engine's single-pass predictDeltas
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RatingCurveBenchmark {
+
+    private static final int RATING = 1650;
+    private static final int CONTESTS = 12;
+
+    @Param({"classic", "atcoder", "elo", "percentile", "codeforces"})
+    public String engine;
+
+    @Param({"1000", "100000"})
+    public int participants;
+
+    private RatingEngine ratingEngine;
+    private int[] deltas;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ratingEngine = RatingEngines.get(engine);
+        deltas = new int[participants];
+    }
+
+    @Benchmark
+    public int[] perRank() {
+        for (int rank = 1; rank <= participants; rank++) {
+            deltas[rank - 1] = ratingEngine.predictDelta(RATING, CONTESTS, rank, participants);
+        }
+        return deltas;
+    }
+
+    @Benchmark
+    public int[] curve() {
+        ratingEngine.predictDeltas(RATING, CONTESTS, participants, deltas);
+        return deltas;
+    }
+}
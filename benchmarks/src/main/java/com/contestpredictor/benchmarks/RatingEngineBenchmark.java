@@ -0,0 +1,41 @@
+package com.contestpredictor.benchmarks;
+
+import com.contestpredictor.model.ParticipantBatch;
+import com.contestpredictor.util.RatingEngine;
+import com.contestpredictor.util.RatingEngines;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every registered rating engine on the same batch: rank and rate the whole contest
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RatingEngineBenchmark {
+
+    @Param({"classic", "atcoder", "elo", "percentile", "codeforces"})
+    public String engine;
+
+    @Param({"1000", "10000", "100000"})
+    public int participants;
+
+    private RatingEngine ratingEngine;
+    private ParticipantBatch batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ratingEngine = RatingEngines.get(engine);
+        batch = ParticipantBatch.fromParticipants(ContestFixtures.participants(participants, 42L));
+    }
+
+    @Benchmark
+    public ParticipantBatch calculateRatings() {
+        ratingEngine.calculateRatings(batch);
+        return batch;
+    }
+}
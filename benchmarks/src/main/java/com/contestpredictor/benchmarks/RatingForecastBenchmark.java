@@ -0,0 +1,50 @@
+package com.contestpredictor.benchmarks;
+
+import com.contestpredictor.model.Participant;
+import com.contestpredictor.util.RatingEngines;
+import com.contestpredictor.util.RatingForecast;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Monte Carlo forecast of an upcoming contest: simulate and rate every trial, then summarise
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RatingForecastBenchmark {
+
+    @Param({"atcoder", "codeforces"})
+    public String engine;
+
+    @Param({"100", "1000"})
+    public int participants;
+
+    @Param({"1000"})
+    public int trials;
+
+    private List<String> usernames;
+    private int[] ratings;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Participant> field = ContestFixtures.participants(participants, 42L);
+        usernames = new ArrayList<>(participants);
+        ratings = new int[participants];
+        for (int i = 0; i < participants; i++) {
+            usernames.add(field.get(i).getUsername());
+            ratings[i] = field.get(i).getCurrentRating();
+        }
+    }
+
+    @Benchmark
+    public List<RatingForecast.Outcome> forecast() {
+        return new RatingForecast(RatingEngines.get(engine), trials, 42L).run(usernames, ratings);
+    }
+}
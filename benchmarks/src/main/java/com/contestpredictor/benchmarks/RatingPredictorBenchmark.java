@@ -0,0 +1,49 @@
+package com.contestpredictor.benchmarks;
+
+import com.contestpredictor.model.Participant;
+import com.contestpredictor.model.ParticipantBatch;
+import com.contestpredictor.util.RatingPredictor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Baseline for RatingPredictor.calculateRatings (sort, rank, average, per-participant rating)
+ * Each list invocation sorts a fresh copy of the same arrival-order list, so the copy is part of the measurement;
+ * the batch variant reruns on a prebuilt ParticipantBatch and allocates nothing per participant
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RatingPredictorBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int participants;
+
+    private List<Participant> template;
+    private ParticipantBatch batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        template = ContestFixtures.participants(participants, 42L);
+        batch = ParticipantBatch.fromParticipants(template);
+    }
+
+    @Benchmark
+    public List<Participant> calculateRatings() {
+        List<Participant> copy = new ArrayList<>(template);
+        RatingPredictor.calculateRatings(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public ParticipantBatch calculateRatingsBatch() {
+        RatingPredictor.calculateRatings(batch);
+        return batch;
+    }
+}
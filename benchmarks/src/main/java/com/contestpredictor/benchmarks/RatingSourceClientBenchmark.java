@@ -0,0 +1,58 @@
+package com.contestpredictor.benchmarks;
+
+import com.contestpredictor.util.ContestantRatingPredictor;
+import com.contestpredictor.util.RatingSourceClient;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-handle user.rating lookups against the local stand-in server with a fixed round trip,
+ * {@code inFlight} requests at a time over the shared client's kept-alive connections
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RatingSourceClientBenchmark {
+
+    @Param({"100"})
+    public int handles;
+
+    @Param({"1", "4", "16"})
+    public int inFlight;
+
+    /** Simulated round trip per request */
+    @Param({"5"})
+    public long latencyMillis;
+
+    private RatedListServer server;
+    private RatingSourceClient client;
+    private List<String> urls;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        server = new RatedListServer(ContestFixtures.ratedListJson(10, 42L), latencyMillis);
+        client = new RatingSourceClient(RatingSourceClient.DEFAULT_MAX_ATTEMPTS, Duration.ofMillis(50),
+            RatingSourceClient.DEFAULT_TIMEOUT);
+        urls = new ArrayList<>(handles);
+        for (int i = 0; i < handles; i++) {
+            urls.add(server.getUserRatingUrl(String.format("handle%07d", i)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public List<Integer> contestCounts() {
+        return client.getAll(urls, ContestantRatingPredictor::parseContestCount, inFlight).join();
+    }
+}
@@ -0,0 +1,82 @@
+package com.contestpredictor.benchmarks;
+
+import com.contestpredictor.data.DatabaseManager;
+import com.contestpredictor.data.StandingsImporter;
+import com.contestpredictor.util.CodeforcesDataSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full import of a contest's standings into the participants table, from a dump on disk and
+ * page by page from the local stand-in server. Writes contest_predictor.db in the working
+ * directory under a throwaway contest id. The heap is kept small on purpose: the importer
+ * holds one page of rows at a time, so it must not need more as {@code rows} grows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms64m", "-Xmx64m"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class StandingsImportBenchmark {
+
+    private static final String CONTEST_ID = "BENCH-STANDINGS";
+
+    @Param({"40000"})
+    public int rows;
+
+    @Param({"2000"})
+    public int pageSize;
+
+    private RatedListServer server;
+    private CodeforcesDataSource source;
+    private StandingsImporter importer;
+    private Path dump;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Connection connection = DatabaseManager.getInstance().getConnection();
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("INSERT OR REPLACE INTO contests (contest_id, contest_name, date_time, duration, is_past) "
+                    + "VALUES ('" + CONTEST_ID + "', 'Standings import benchmark', '2024-01-01T10:00', 120, 1)");
+        }
+        server = new RatedListServer(ContestFixtures.ratedListJson(10, 42L));
+        server.setStandingsRows(rows);
+        source = new CodeforcesDataSource(server.getBaseUrl());
+        importer = new StandingsImporter(pageSize);
+        dump = Files.createTempFile("standings", ".json");
+        try (Writer json = Files.newBufferedWriter(dump, StandardCharsets.UTF_8)) {
+            ContestFixtures.writeStandings(json, 1, rows, rows);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        server.close();
+        Files.deleteIfExists(dump);
+        try (Statement stmt = DatabaseManager.getInstance().getConnection().createStatement()) {
+            stmt.execute("DELETE FROM participants WHERE contest_id = '" + CONTEST_ID + "'");
+            stmt.execute("DELETE FROM contests WHERE contest_id = '" + CONTEST_ID + "'");
+        }
+    }
+
+    @Benchmark
+    public StandingsImporter.Result dump() throws Exception {
+        try (Reader json = Files.newBufferedReader(dump, StandardCharsets.UTF_8)) {
+            return importer.importDump(CONTEST_ID, json);
+        }
+    }
+
+    @Benchmark
+    public StandingsImporter.Result paged() throws Exception {
+        return importer.importFrom(source, "1915", CONTEST_ID);
+    }
+}
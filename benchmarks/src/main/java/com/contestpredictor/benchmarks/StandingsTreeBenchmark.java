@@ -0,0 +1,56 @@
+package com.contestpredictor.benchmarks;
+
+import com.contestpredictor.model.ParticipantBatch;
+import com.contestpredictor.util.ContestantRatingPredictor;
+import com.contestpredictor.util.StandingsTree;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One solve-count/penalty edit: full re-rank and recompute vs moving the row in a StandingsTree
+ * and recomputing only the rows whose rank changed
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class StandingsTreeBenchmark {
+
+    @Param({"1000", "20000", "100000"})
+    public int participants;
+
+    private ParticipantBatch batch;
+    private StandingsTree tree;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        batch = ParticipantBatch.fromContestants(ContestFixtures.contestants(participants, 42L));
+        ContestantRatingPredictor.predictRatings(batch);
+        tree = new StandingsTree(batch);
+        random = new Random(7L);
+    }
+
+    @Benchmark
+    public ParticipantBatch fullRecalculation() {
+        int row = random.nextInt(participants);
+        int solved = ContestFixtures.randomSolved(random, batch.getRatings()[row]);
+        batch.getSolved()[row] = solved;
+        batch.getPenalties()[row] = ContestFixtures.randomPenalty(random, solved);
+        ContestantRatingPredictor.predictRatings(batch);
+        return batch;
+    }
+
+    @Benchmark
+    public StandingsTree.Change incrementalUpdate() {
+        int row = random.nextInt(participants);
+        int solved = ContestFixtures.randomSolved(random, batch.getRatings()[row]);
+        StandingsTree.Change change = tree.update(row, solved, ContestFixtures.randomPenalty(random, solved));
+        ContestantRatingPredictor.computeRatingChanges(batch, change.getRows());
+        return change;
+    }
+}
@@ -1,6 +1,7 @@
 package com.contestpredictor;
 
 import com.contestpredictor.data.DatabaseManager;
+import com.contestpredictor.util.RatedListCache;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -19,6 +20,9 @@ public class Main extends Application {
             DatabaseManager.getInstance();
             System.out.println("Database initialized successfully!");
             
+            // Map the cached Codeforces rated list in the background so the first fetch is instant
+            RatedListCache.getInstance().preload();
+            
             System.out.println("Loading FXML file: /fxml/Login.fxml");
             
             // Check if FXML file exists
@@ -60,6 +64,12 @@ public class Main extends Application {
         }
     }
     
+    @Override
+    public void stop() {
+        // Closing the last connection checkpoints the WAL back into the database file
+        DatabaseManager.getInstance().close();
+    }
+
     private void showErrorDialog(String message) {
         try {
             javafx.scene.control.Alert alert = new javafx.scene.control.Alert(
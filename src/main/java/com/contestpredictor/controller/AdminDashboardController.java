@@ -2,11 +2,15 @@ package com.contestpredictor.controller;
 
 import com.contestpredictor.data.ContestDatabase;
 import com.contestpredictor.data.DatabaseManager;
+import com.contestpredictor.data.RatingReplay;
+import com.contestpredictor.data.StandingsImporter;
 import com.contestpredictor.data.UserDatabase;
 import com.contestpredictor.model.Admin;
 import com.contestpredictor.model.Contest;
 import com.contestpredictor.model.Participant;
 import com.contestpredictor.model.User;
+import com.contestpredictor.util.ContestDataSource;
+import com.contestpredictor.util.ContestDataSources;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -22,6 +26,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,6 +38,8 @@ public class AdminDashboardController {
     // Header Elements
     @FXML private Label adminNameLabel;
     @FXML private Button logoutButton;
+    @FXML private Button replayRatingsButton;
+    @FXML private Button importStandingsButton;
     
     // Create Contest Section
     @FXML private TextField contestIdField;
@@ -305,6 +312,8 @@ public class AdminDashboardController {
             dbManager.registerUserForContest(contestId, username);
             dbManager.saveParticipant(contestId, participant);
         }
+        // The statistics and screens count participants off the loaded contest
+        ContestDatabase.getInstance().reloadParticipants(contestId);
         
         System.out.println("Auto-registered 30 default users for contest: " + contestId);
     }
@@ -385,6 +394,7 @@ public class AdminDashboardController {
             boolean success = dbManager.saveParticipant(selectedContestId, participant);
             
             if (success) {
+                ContestDatabase.getInstance().reloadParticipants(selectedContestId);
                 addParticipantStatusLabel.setText("✓ Participant added successfully!");
                 addParticipantStatusLabel.setStyle("-fx-text-fill: #4CAF50;");
                 addParticipantUsernameField.clear();
@@ -413,6 +423,7 @@ public class AdminDashboardController {
                 boolean success = dbManager.removeParticipant(selectedContestId, participant.getUsername());
                 
                 if (success) {
+                    ContestDatabase.getInstance().reloadParticipants(selectedContestId);
                     showInfo("Success", "Participant removed successfully");
                     handleLoadParticipants();
                     updateStatistics();
@@ -459,6 +470,94 @@ public class AdminDashboardController {
         showInfo("Refreshed", "Statistics updated successfully");
     }
     
+    /**
+     * Rebuild users' ratings from all past contests, resuming from the last replay checkpoint
+     */
+    @FXML
+    private void handleReplayRatings() {
+        replayRatingsButton.setDisable(true);
+        new Thread(() -> {
+            try {
+                RatingReplay.Result result = new RatingReplay().resume();
+                Platform.runLater(() -> {
+                    // The screens read the loaded users on this thread, so they are refreshed here
+                    UserDatabase.getInstance().refreshRatings();
+                    replayRatingsButton.setDisable(false);
+                    updateStatistics();
+                    showInfo("Replay Complete", "Replayed " + result.getContestsReplayed() + " contests"
+                            + (result.getResumedAfter() != null ? " after checkpoint " + result.getResumedAfter() : "")
+                            + ", wrote " + result.getHistoryRows() + " rating history rows and updated "
+                            + result.getUsersUpdated() + " users");
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> {
+                    replayRatingsButton.setDisable(false);
+                    showAlert("Error", "Failed to replay rating history: " + e.getMessage());
+                });
+            }
+        }).start();
+    }
+    
+    /**
+     * Replace a past contest's participants with its full standings from the contest's platform
+     */
+    @FXML
+    private void handleImportStandings() {
+        ContestDatabase contestDB = ContestDatabase.getInstance();
+        List<String> contestIds = new ArrayList<>();
+        for (Contest contest : contestDB.getPastContests()) {
+            contestIds.add(contest.getContestId());
+        }
+        if (contestIds.isEmpty()) {
+            showAlert("Error", "There are no past contests to import standings into");
+            return;
+        }
+
+        ChoiceDialog<String> contestDialog = new ChoiceDialog<>(contestIds.get(0), contestIds);
+        contestDialog.setTitle("Import Standings");
+        contestDialog.setHeaderText("Contest to import standings into");
+        contestDialog.setContentText("Contest:");
+        Optional<String> contestId = contestDialog.showAndWait();
+        if (!contestId.isPresent()) {
+            return;
+        }
+
+        ContestDataSource source = ContestDataSources.forContest(contestId.get());
+        TextInputDialog sourceDialog = new TextInputDialog(contestId.get().replaceFirst("^CF", ""));
+        sourceDialog.setTitle("Import Standings");
+        sourceDialog.setHeaderText("Contest id on " + source.getName());
+        sourceDialog.setContentText("Contest id:");
+        Optional<String> sourceContestId = sourceDialog.showAndWait();
+        if (!sourceContestId.isPresent() || sourceContestId.get().trim().isEmpty()) {
+            return;
+        }
+
+        importStandingsButton.setDisable(true);
+        new Thread(() -> {
+            try {
+                StandingsImporter.Result result = new StandingsImporter()
+                        .importFrom(source, sourceContestId.get().trim(), contestId.get());
+                Platform.runLater(() -> {
+                    // Screens read the contest and the loaded users on this thread
+                    contestDB.reloadParticipants(contestId.get());
+                    if (result.getUsersUpdated() > 0) {
+                        UserDatabase.getInstance().refreshRatings();
+                    }
+                    importStandingsButton.setDisable(false);
+                    updateStatistics();
+                    showInfo("Import Complete", "Imported " + result.getRows() + " participants into "
+                            + result.getContestId() + " in " + result.getPages() + " pages ("
+                            + result.getElapsedMillis() + " ms)");
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> {
+                    importStandingsButton.setDisable(false);
+                    showAlert("Error", "Failed to import standings: " + e.getMessage());
+                });
+            }
+        }).start();
+    }
+    
     @FXML
     private void handleManageStandings() {
         try {
@@ -571,7 +670,6 @@ public class AdminDashboardController {
             try {
                 ContestDatabase contestDB = ContestDatabase.getInstance();
                 UserDatabase userDB = UserDatabase.getInstance();
-                DatabaseManager dbManager = DatabaseManager.getInstance();
                 
                 List<Contest> allContests = contestDB.getAllContests();
                 
@@ -594,11 +692,12 @@ public class AdminDashboardController {
                     System.out.println("Updated Total Users to: " + userCount);
                 }
                 
-                // Count total participants across all contests
+                // Count total participants across all contests; the catalogue carries the counts,
+                // so lazily loaded contests are not read just to be counted
                 if (totalParticipantsLabel != null) {
                     int totalParticipants = 0;
                     for (Contest contest : allContests) {
-                        totalParticipants += dbManager.getParticipantsByContest(contest.getContestId()).size();
+                        totalParticipants += contest.getParticipantCount();
                     }
                     totalParticipantsLabel.setText(String.valueOf(totalParticipants));
                     System.out.println("Updated Total Participants to: " + totalParticipants);
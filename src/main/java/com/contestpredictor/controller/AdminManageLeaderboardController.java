@@ -3,6 +3,7 @@ package com.contestpredictor.controller;
 import com.contestpredictor.data.LeaderboardDatabase;
 import com.contestpredictor.model.LeaderboardContest;
 import com.contestpredictor.model.LeaderboardEntry;
+import com.contestpredictor.util.RankingSort;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -360,7 +361,7 @@ public class AdminManageLeaderboardController{
         confirm.setHeaderText("Delete Entry");
         confirm.setContentText("Are you sure you want to delete the entry for '" + selected.getUsername() + "'?");
         
-        if (confirm.showAndWait().orElse(Alert.AlertType.CANCEL.name().equals("CANCEL") ? ButtonType.CANCEL : ButtonType.OK) == ButtonType.OK) {
+        if (confirm.showAndWait().orElse(ButtonType.CANCEL) == ButtonType.OK) {
             if (leaderboardDB.deleteLeaderboardEntry(selectedContest.getContestId(), selected.getUsername())) {
                 showSuccess("Entry for '" + selected.getUsername() + "' deleted successfully");
                 clearFields();
@@ -573,17 +574,21 @@ public class AdminManageLeaderboardController{
         List<LeaderboardEntry> standings = leaderboardDB.getContestStandings(selectedContest.getContestId());
         
         // Sort by solves (descending) then by penalty (ascending)
-        standings.sort((a, b) -> {
-            int compareSolves = Integer.compare(b.getSolveCount(), a.getSolveCount());
-            if (compareSolves != 0) return compareSolves;
-            return Integer.compare(a.getTotalPenalty(), b.getTotalPenalty());
-        });
+        int count = standings.size();
+        int[] solves = new int[count];
+        int[] penalties = new int[count];
+        for (int i = 0; i < count; i++) {
+            solves[i] = standings.get(i).getSolveCount();
+            penalties[i] = standings.get(i).getTotalPenalty();
+        }
+        int[] order = new int[count];
+        RankingSort.sortByStanding(solves, penalties, count, order);
         
-        // Update ranks and save
-        for (int i = 0; i < standings.size(); i++) {
-            standings.get(i).setRank(i + 1);
-            leaderboardDB.addLeaderboardEntry(standings.get(i));
+        // Update ranks and save them in one batch
+        for (int i = 0; i < count; i++) {
+            standings.get(order[i]).setRank(i + 1);
         }
+        leaderboardDB.saveLeaderboardEntries(standings);
         
         loadContestStandings();
     }
@@ -4,8 +4,15 @@ import com.contestpredictor.data.ContestDatabase;
 import com.contestpredictor.data.UserDatabase;
 import com.contestpredictor.model.Contest;
 import com.contestpredictor.model.Participant;
+import com.contestpredictor.model.ParticipantBatch;
 import com.contestpredictor.model.User;
+import com.contestpredictor.util.AtCoderRatingEngine;
+import com.contestpredictor.util.RatingEngine;
+import com.contestpredictor.util.RatingEngines;
+import com.contestpredictor.util.RatingForecast;
+import com.contestpredictor.util.StandingsTree;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Insets;
@@ -17,7 +24,11 @@ import javafx.scene.layout.*;
 import javafx.stage.Stage;
 
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
 
 public class ContestSearchController {
 
@@ -183,7 +194,7 @@ public class ContestSearchController {
         durationLabel.setStyle("-fx-text-fill: #666; -fx-font-size: 13px;");
 
         // Participants
-        Label participantsLabel = new Label("👥 " + contest.getParticipants().size() + " participants");
+        Label participantsLabel = new Label("👥 " + contest.getParticipantCount() + " participants");
         participantsLabel.setStyle("-fx-text-fill: #666; -fx-font-size: 13px;");
 
         details.getChildren().addAll(dateLabel, durationLabel, participantsLabel);
@@ -245,7 +256,7 @@ public class ContestSearchController {
     private void showPastContestStandings(VBox mainContainer, Contest contest, Label titleLabel, 
                                           Label infoLabel, javafx.scene.control.Separator separator, Stage detailsStage) {
         // Rankings section
-        Label rankingsLabel = new Label("Contest Standings (" + contest.getParticipants().size() + " participants)");
+        Label rankingsLabel = new Label("Contest Standings (" + contest.getParticipantCount() + " participants)");
         rankingsLabel.setStyle("-fx-font-size: 18px; -fx-font-weight: bold; -fx-text-fill: #667eea;");
         
         // Create TableView for standings
@@ -253,6 +264,7 @@ public class ContestSearchController {
         table.setPrefHeight(450);
         table.setStyle("-fx-background-color: white; -fx-border-color: #e0e0e0; -fx-border-radius: 8;");
         table.setEditable(true); // Make table editable
+        PastContestStandings liveStandings = new PastContestStandings(contest);
         
         // Rank column
         javafx.scene.control.TableColumn<com.contestpredictor.model.Participant, Integer> rankCol = 
@@ -289,7 +301,7 @@ public class ContestSearchController {
         solvedCol.setOnEditCommit(event -> {
             Participant p = event.getRowValue();
             p.setProblemsSolved(event.getNewValue());
-            recalculateContestStandings(contest);
+            liveStandings.applyEdit(p, table.getItems());
             table.refresh();
         });
         
@@ -305,7 +317,7 @@ public class ContestSearchController {
         penaltyCol.setOnEditCommit(event -> {
             Participant p = event.getRowValue();
             p.setTotalPenalty(event.getNewValue());
-            recalculateContestStandings(contest);
+            liveStandings.applyEdit(p, table.getItems());
             table.refresh();
         });
         
@@ -357,8 +369,8 @@ public class ContestSearchController {
         table.getColumns().addAll(columns);
         
         // Add participants to table
-        if (!contest.getParticipants().isEmpty()) {
-            table.getItems().addAll(contest.getParticipants());
+        if (!liveStandings.getParticipants().isEmpty()) {
+            table.getItems().addAll(liveStandings.getParticipants());
         }
         
         // Info label for editing
@@ -440,8 +452,8 @@ public class ContestSearchController {
         detailsBox.setStyle("-fx-background-color: white; -fx-padding: 15; -fx-background-radius: 10;");
         detailsBox.getChildren().addAll(
             createDetailRow("Max Participants:", String.valueOf(contest.getMaxParticipants())),
-            createDetailRow("Current Registrations:", String.valueOf(contest.getParticipants().size())),
-            createDetailRow("Spots Available:", String.valueOf(contest.getMaxParticipants() - contest.getParticipants().size()))
+            createDetailRow("Current Registrations:", String.valueOf(contest.getParticipantCount())),
+            createDetailRow("Spots Available:", String.valueOf(contest.getMaxParticipants() - contest.getParticipantCount()))
         );
         
         // Close button
@@ -454,16 +466,139 @@ public class ContestSearchController {
         HBox buttonBox = new HBox(closeButton);
         buttonBox.setAlignment(Pos.CENTER);
         
+        VBox forecastBox = createForecastBox(contest, detailsStage);
+        
         // Add all to main container
-        mainContainer.getChildren().addAll(titleLabel, infoLabel, separator, upcomingLabel, regBox, detailsLabel, detailsBox, buttonBox);
+        mainContainer.getChildren().addAll(titleLabel, infoLabel, separator, upcomingLabel, regBox, detailsLabel, detailsBox, forecastBox, buttonBox);
         mainContainer.setAlignment(Pos.TOP_CENTER);
         
+        ScrollPane scrollPane = new ScrollPane(mainContainer);
+        scrollPane.setFitToWidth(true);
+        
         // Create scene and show
-        Scene scene = new Scene(mainContainer, 800, 650);
+        Scene scene = new Scene(scrollPane, 800, 650);
         detailsStage.setScene(scene);
         detailsStage.show();
     }
     
+    /**
+     * Monte Carlo forecast of the current user's rating change in an upcoming contest
+     * The simulation runs on a background thread; Cancel or closing the window stops it
+     */
+    private VBox createForecastBox(Contest contest, Stage detailsStage) {
+        VBox forecastBox = new VBox(10);
+        forecastBox.setStyle("-fx-background-color: white; -fx-padding: 20; -fx-background-radius: 10; -fx-border-color: #e0e0e0; -fx-border-radius: 10;");
+        forecastBox.setMaxWidth(500);
+        forecastBox.setAlignment(Pos.CENTER);
+        
+        Label forecastTitle = new Label("Rating Change Forecast");
+        forecastTitle.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
+        
+        Label forecastInfo = new Label("Simulates " + RatingForecast.DEFAULT_TRIALS + " outcomes of this contest against the registered field");
+        forecastInfo.setStyle("-fx-font-size: 12px; -fx-text-fill: #666;");
+        forecastInfo.setWrapText(true);
+        
+        Label resultLabel = new Label("");
+        resultLabel.setStyle("-fx-font-size: 14px;");
+        resultLabel.setWrapText(true);
+        
+        ProgressIndicator progress = new ProgressIndicator();
+        progress.setMaxSize(30, 30);
+        progress.setVisible(false);
+        
+        Button forecastButton = new Button("Forecast My Rating Change");
+        forecastButton.setStyle("-fx-background-color: #667eea; -fx-text-fill: white; -fx-font-size: 14px; -fx-padding: 10 30; -fx-background-radius: 8; -fx-cursor: hand;");
+        Button cancelButton = new Button("Cancel");
+        cancelButton.setStyle("-fx-background-color: #f44336; -fx-text-fill: white; -fx-font-size: 14px; -fx-padding: 10 30; -fx-background-radius: 8; -fx-cursor: hand;");
+        cancelButton.setDisable(true);
+        
+        RatingForecast[] running = new RatingForecast[1];
+        forecastButton.setOnAction(e -> {
+            if (currentUser == null) {
+                resultLabel.setText("❌ Please login to see a forecast");
+                return;
+            }
+            Map<String, Integer> field = forecastField(contest);
+            boolean registered = field.containsKey(currentUser.getUsername());
+            field.putIfAbsent(currentUser.getUsername(), currentUser.getCurrentRating());
+            List<String> usernames = new ArrayList<>(field.keySet());
+            int[] ratings = new int[usernames.size()];
+            for (int i = 0; i < ratings.length; i++) {
+                ratings[i] = field.get(usernames.get(i));
+            }
+            
+            // Seeded by the contest so the same field always gets the same forecast
+            RatingForecast forecast = new RatingForecast(ratingEngine(), RatingForecast.DEFAULT_TRIALS, contest.getContestId().hashCode());
+            running[0] = forecast;
+            forecastButton.setDisable(true);
+            cancelButton.setDisable(false);
+            progress.setVisible(true);
+            resultLabel.setText("Simulating " + usernames.size() + " participants...");
+            
+            Thread worker = new Thread(() -> {
+                String message;
+                try {
+                    List<RatingForecast.Outcome> outcomes = forecast.run(usernames, ratings);
+                    message = formatForecast(outcomes.get(usernames.indexOf(currentUser.getUsername())), usernames.size(), registered);
+                } catch (CancellationException ex) {
+                    message = "Forecast cancelled";
+                } catch (Exception ex) {
+                    System.err.println("Error running rating forecast: " + ex.getMessage());
+                    message = "❌ Forecast failed: " + ex.getMessage();
+                }
+                String text = message;
+                Platform.runLater(() -> {
+                    resultLabel.setText(text);
+                    forecastButton.setDisable(false);
+                    cancelButton.setDisable(true);
+                    progress.setVisible(false);
+                });
+            }, "rating-forecast");
+            worker.setDaemon(true);
+            worker.start();
+        });
+        cancelButton.setOnAction(e -> {
+            if (running[0] != null) {
+                running[0].cancel();
+            }
+        });
+        detailsStage.setOnHidden(e -> {
+            if (running[0] != null) {
+                running[0].cancel();
+            }
+        });
+        
+        HBox forecastButtons = new HBox(10, forecastButton, cancelButton, progress);
+        forecastButtons.setAlignment(Pos.CENTER);
+        forecastBox.getChildren().addAll(forecastTitle, forecastInfo, forecastButtons, resultLabel);
+        return forecastBox;
+    }
+    
+    /**
+     * Registered users and participants of an upcoming contest with their current ratings
+     */
+    private Map<String, Integer> forecastField(Contest contest) {
+        Map<String, Integer> field = new LinkedHashMap<>();
+        UserDatabase userDB = UserDatabase.getInstance();
+        for (String username : contest.getRegisteredUsers()) {
+            User user = userDB.getUser(username);
+            field.put(username, user != null ? user.getCurrentRating() : RatingEngine.DEFAULT_FIELD_AVERAGE);
+        }
+        for (Participant participant : contest.getParticipants()) {
+            field.putIfAbsent(participant.getUsername(), participant.getCurrentRating());
+        }
+        return field;
+    }
+    
+    private static String formatForecast(RatingForecast.Outcome outcome, int fieldSize, boolean registered) {
+        return String.format("%s%d participants: expected %+.1f, median %+d%n"
+                + "80%% range %+d to %+d (middle half %+d to %+d)%n"
+                + "Chance of gaining rating: %.0f%%",
+            registered ? "" : "If you register, ", fieldSize, outcome.getMean(), outcome.getMedian(),
+            outcome.getP10(), outcome.getP90(), outcome.getP25(), outcome.getP75(),
+            outcome.getProbabilityOfGain() * 100);
+    }
+    
     /**
      * Creates a detail row for contest information
      */
@@ -479,45 +614,101 @@ public class ContestSearchController {
     }
     
     /**
-     * Recalculates contest standings when participant data changes
-     * Uses AtCoder-style formula
+     * Rank and rate the participants, leaving the list in standing order
+     * @return The batch the participants were rated in; row i is the i-th participant before sorting
      */
-    private void recalculateContestStandings(Contest contest) {
-        List<Participant> participants = contest.getParticipants();
-        if (participants.isEmpty()) return;
-        
-        // Sort by problems solved (desc), then by penalty (asc)
-        participants.sort((a, b) -> {
-            if (a.getProblemsSolved() != b.getProblemsSolved()) {
-                return b.getProblemsSolved() - a.getProblemsSolved();
-            }
-            return a.getTotalPenalty() - b.getTotalPenalty();
-        });
-        
-        // Assign ranks
-        for (int i = 0; i < participants.size(); i++) {
-            participants.get(i).setRank(i + 1);
+    private static ParticipantBatch rateContest(List<Participant> participants) {
+        Participant[] rows = participants.toArray(new Participant[0]);
+        ParticipantBatch batch = ParticipantBatch.fromParticipants(participants);
+        ratingEngine().calculateRatings(batch);
+        batch.applyTo(participants);
+        for (int row = 0; row < rows.length; row++) {
+            writeBack(batch, row, rows[row]);
+        }
+        return batch;
+    }
+    
+    /**
+     * Copy one row's results to its participant; this screen shows the performance rating
+     * in the predicted rating column
+     */
+    private static void writeBack(ParticipantBatch batch, int row, Participant participant) {
+        participant.setRank(batch.getRanks()[row]);
+        participant.setRatingChange(batch.getDeltas()[row]);
+        participant.setPredictedRating(batch.getPerformances()[row]);
+    }
+    
+    private static RatingEngine ratingEngine() {
+        return RatingEngines.forScreen(RatingEngines.SCREEN_CONTEST_SEARCH, AtCoderRatingEngine.NAME);
+    }
+    
+    /**
+     * Live standings behind a past contest's details table
+     * The first edit re-ranks the whole contest; later edits move one participant through a
+     * StandingsTree and recompute only the participants whose rank changed, unless the engine
+     * shares tied ranks
+     */
+    private static final class PastContestStandings {
+        private final Contest contest;
+        private final List<Participant> participants;
+        private ParticipantBatch batch;
+        private StandingsTree tree;
+        private Participant[] rows;
+        
+        PastContestStandings(Contest contest) {
+            this.contest = contest;
+            this.participants = contest.getParticipants();
         }
         
-        // Calculate average rating
-        double avgRating = participants.stream()
-            .mapToInt(Participant::getCurrentRating)
-            .average()
-            .orElse(1500.0);
-        
-        int totalParticipants = participants.size();
+        /**
+         * The participants shown, which edits apply to
+         */
+        List<Participant> getParticipants() {
+            return participants;
+        }
         
-        // Calculate rating changes using AtCoder formula
-        for (Participant p : participants) {
-            // Performance = avgRating + 400 * log2(N / rank)
-            int performance = (int) Math.round(avgRating + 400.0 * (Math.log(totalParticipants / (double) p.getRank()) / Math.log(2)));
-            p.setPredictedRating(performance);
+        /**
+         * Re-rank after one participant's solve count or penalty changed
+         * @param participant The edited participant
+         * @param tableRows The table's items, kept in standing order
+         */
+        void applyEdit(Participant participant, List<Participant> tableRows) {
+            if (contest.isLazilyLoaded()) {
+                // Edits are not saved, so the contest holds the edited list rather than leave it to the cache
+                contest.setParticipants(participants);
+            }
+            int row = batch == null ? -1 : batch.indexOf(participant.getUsername());
+            if (row < 0 || rows[row] != participant || ratingEngine().sharesTiedRanks()) {
+                // Engines sharing tied ranks cannot use the tree's sequential ranks
+                rows = participants.toArray(new Participant[0]);
+                batch = rateContest(participants);
+                tree = new StandingsTree(batch);
+                tableRows.clear();
+                tableRows.addAll(participants);
+                return;
+            }
             
-            // Rating change with adjustment factor
-            int contestCount = 10; // Assume average
-            double adjustmentFactor = contestCount <= 10 ? 0.9 - (contestCount * 0.05) : 0.2;
-            int ratingChange = (int) Math.round((performance - p.getCurrentRating()) * adjustmentFactor);
-            p.setRatingChange(ratingChange);
+            StandingsTree.Change change = tree.update(row, participant.getProblemsSolved(), participant.getTotalPenalty());
+            for (int changedRow : ratingEngine().calculateRatingChanges(batch, change.getRows())) {
+                writeBack(batch, changedRow, rows[changedRow]);
+            }
+            move(participants, participant, change);
+            if (!move(tableRows, participant, change)) {
+                // The table was re-sorted by a column header
+                tableRows.clear();
+                tableRows.addAll(participants);
+            }
+        }
+        
+        private static boolean move(List<Participant> list, Participant participant, StandingsTree.Change change) {
+            if (list.size() <= change.getOldPosition() || list.get(change.getOldPosition()) != participant) {
+                return false;
+            }
+            if (change.getOldPosition() != change.getNewPosition()) {
+                list.remove(change.getOldPosition());
+                list.add(change.getNewPosition(), participant);
+            }
+            return true;
         }
     }
 
@@ -2,6 +2,7 @@ package com.contestpredictor.controller;
 
 import com.contestpredictor.data.ContestDatabase;
 import com.contestpredictor.data.DatabaseManager;
+import com.contestpredictor.data.UnitOfWork;
 import com.contestpredictor.data.UserDatabase;
 import com.contestpredictor.data.LeaderboardDatabase;
 import com.contestpredictor.model.Contest;
@@ -9,6 +10,9 @@ import com.contestpredictor.model.Participant;
 import com.contestpredictor.model.User;
 import com.contestpredictor.model.LeaderboardContest;
 import com.contestpredictor.model.LeaderboardEntry;
+import com.contestpredictor.util.EloRatingEngine;
+import com.contestpredictor.util.RatingEngine;
+import com.contestpredictor.util.RatingEngines;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -22,6 +26,7 @@ import javafx.scene.layout.HBox;
 import javafx.stage.Stage;
 import javafx.util.converter.IntegerStringConverter;
 
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
@@ -260,8 +265,21 @@ public class ContestStandingsController {
         standingsTable.setItems(observableParticipants);
     }
     
+    /**
+     * Register and save the default participants in one transaction
+     */
     private List<Participant> generateInitialParticipants(Contest contest) {
         List<Participant> participants = new ArrayList<>();
+        try (UnitOfWork work = UnitOfWork.begin()) {
+            addInitialParticipants(contest, participants);
+            work.commit();
+        } catch (SQLException e) {
+            System.err.println("Failed to save initial participants: " + e.getMessage());
+        }
+        return participants;
+    }
+    
+    private void addInitialParticipants(Contest contest, List<Participant> participants) {
         DatabaseManager dbManager = DatabaseManager.getInstance();
         UserDatabase userDB = UserDatabase.getInstance();
         
@@ -308,8 +326,6 @@ public class ContestStandingsController {
             // Save to database
             dbManager.saveParticipant(contest.getContestId(), p);
         }
-        
-        return participants;
     }
     
     @FXML
@@ -353,21 +369,22 @@ public class ContestStandingsController {
             return Integer.compare(p1.getTotalPenalty(), p2.getTotalPenalty());
         });
         
-        // Assign ranks and save to leaderboard database
+        // Assign ranks and save to leaderboard database in one batch
+        List<LeaderboardEntry> entries = new ArrayList<>(sortedList.size());
         for (int i = 0; i < sortedList.size(); i++) {
             Participant p = sortedList.get(i);
             p.setRank(i + 1);
             
-            LeaderboardEntry entry = new LeaderboardEntry(
+            entries.add(new LeaderboardEntry(
                 p.getUsername(),
                 currentContestId,
                 p.getRank(),
                 p.getProblemsSolved(),
                 p.getTotalPenalty(),
                 0
-            );
-            leaderboardDB.addLeaderboardEntry(entry);
+            ));
         }
+        leaderboardDB.saveLeaderboardEntries(entries);
         
         // Refresh table
         standingsTable.setItems(FXCollections.observableArrayList(sortedList));
@@ -377,58 +394,30 @@ public class ContestStandingsController {
     private void generateContestResults(String contestId) {
         ObservableList<Participant> participants = standingsTable.getItems();
         
-        // Sort by problems solved (desc), then by penalty (asc)
+        // Sort by problems solved (desc), then by penalty (asc), assign ranks and rating changes
         List<Participant> sortedList = new ArrayList<>(participants);
-        sortedList.sort((p1, p2) -> {
-            if (p1.getProblemsSolved() != p2.getProblemsSolved()) {
-                return Integer.compare(p2.getProblemsSolved(), p1.getProblemsSolved());
-            }
-            return Integer.compare(p1.getTotalPenalty(), p2.getTotalPenalty());
-        });
+        ratingEngine().calculateRatings(sortedList);
         
-        // Assign ranks
-        for (int i = 0; i < sortedList.size(); i++) {
-            sortedList.get(i).setRank(i + 1);
-        }
-        
-        // Calculate rating changes using a simple ELO-based system
-        for (Participant p : sortedList) {
-            int expectedRank = calculateExpectedRank(p, sortedList);
-            int actualRank = p.getRank();
-            
-            // Rating change based on performance
-            int ratingChange = (expectedRank - actualRank) * 20;
-            
-            // Cap rating change
-            ratingChange = Math.max(-150, Math.min(150, ratingChange));
-            
-            p.setRatingChange(ratingChange);
-            p.setPredictedRating(p.getCurrentRating() + ratingChange);
-        }
-        
-        // Save to database
-        DatabaseManager dbManager = DatabaseManager.getInstance();
-        for (Participant p : sortedList) {
-            dbManager.updateParticipantSolveCount(contestId, p.getUsername(), 
-                p.getProblemsSolved(), p.getTotalPenalty());
-        }
+        // Save to database in one transaction
+        DatabaseManager.getInstance().updateParticipantSolveCounts(contestId, sortedList);
         
         // Refresh table
         standingsTable.setItems(FXCollections.observableArrayList(sortedList));
         showAlert("Success", "Contest results generated successfully!");
     }
     
-    private int calculateExpectedRank(Participant participant, List<Participant> allParticipants) {
-        double expectedRank = 1.0;
-        
-        for (Participant other : allParticipants) {
-            if (other != participant) {
-                double probability = 1.0 / (1.0 + Math.pow(10, (other.getCurrentRating() - participant.getCurrentRating()) / 400.0));
-                expectedRank += (1.0 - probability);
-            }
-        }
-        
-        return (int) Math.round(expectedRank);
+    /**
+     * Calculate rating changes for ranked participants with this screen's engine
+     * (a simple Elo-based system unless configured otherwise)
+     * Public and static so the benchmarks module can drive it without a JavaFX stage
+     * @param rankedParticipants Participants with ranks already assigned
+     */
+    public static void calculateRatingChanges(List<Participant> rankedParticipants) {
+        ratingEngine().calculateRatingChanges(rankedParticipants);
+    }
+    
+    private static RatingEngine ratingEngine() {
+        return RatingEngines.forScreen(RatingEngines.SCREEN_STANDINGS, EloRatingEngine.NAME);
     }
     
     private void updateParticipantInDatabase(Participant participant) {
@@ -2,10 +2,17 @@ package com.contestpredictor.controller;
 
 import com.contestpredictor.data.UserDatabase;
 import com.contestpredictor.model.User;
+import com.contestpredictor.util.PercentileRatingEngine;
+import com.contestpredictor.util.RatingCurve;
+import com.contestpredictor.util.RatingEngine;
+import com.contestpredictor.util.RatingEngines;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
@@ -23,8 +30,16 @@ public class PredictorController {
     @FXML private Label newRatingLabel;
     @FXML private Label performanceLabel;
     @FXML private Label errorLabel;
+    @FXML private LineChart<Number, Number> deltaCurveChart;
+    @FXML private NumberAxis rankAxis;
+    @FXML private TextField targetDeltaField;
+    @FXML private Label targetRankLabel;
+
+    /** Points plotted per curve; larger contests are sampled evenly */
+    private static final int CURVE_POINTS = 400;
 
     private int calculatedNewRating;
+    private RatingCurve currentCurve;
     private User currentUser;
 
     @FXML
@@ -80,12 +95,15 @@ public class PredictorController {
 
             // Calculate rating prediction
             int currentRating = currentUser.getCurrentRating();
-            double performance = calculatePerformance(yourRank, totalParticipants);
-            int ratingChange = calculateRatingChange(currentRating, performance, currentUser.getContestsParticipated());
+            RatingEngine engine = RatingEngines.forScreen(RatingEngines.SCREEN_PREDICTOR, PercentileRatingEngine.NAME);
+            int performance = engine.predictPerformance(currentRating, yourRank, totalParticipants);
+            currentCurve = RatingCurve.of(engine, currentRating, currentUser.getContestsParticipated(), totalParticipants);
+            int ratingChange = currentCurve.deltaAt(yourRank);
             calculatedNewRating = Math.max(0, currentRating + ratingChange);
 
             // Display results
-            displayResults(ratingChange, calculatedNewRating, (int) performance);
+            displayResults(ratingChange, calculatedNewRating, performance);
+            plotCurve(currentCurve);
             
         } catch (NumberFormatException e) {
             showError("Please enter valid numbers only");
@@ -95,48 +113,6 @@ public class PredictorController {
         }
     }
 
-    /**
-     * Calculate performance rating based on rank
-     * Uses percentile-based formula inspired by competitive programming platforms
-     * 
-     * @param rank Your rank in the contest
-     * @param totalParticipants Total number of participants
-     * @return Performance rating
-     */
-    private double calculatePerformance(int rank, int totalParticipants) {
-        double avgRating = 1400.0;
-        double percentile = (double) (totalParticipants - rank + 1) / totalParticipants;
-        percentile = Math.max(0.005, Math.min(0.995, percentile));
-        return avgRating + 400.0 * Math.log10(percentile / (1.0 - percentile));
-    }
-
-    /**
-     * Calculate rating change using Elo-style algorithm
-     * Considers current rating, performance, and participation history
-     * 
-     * @param currentRating Current user rating
-     * @param performance Calculated performance rating
-     * @param contestsParticipated Number of contests participated
-     * @return Rating change value
-     */
-    private int calculateRatingChange(int currentRating, double performance, int contestsParticipated) {
-        double delta = (performance - currentRating) / 2.0;
-        
-        // Volatility factor (higher for newer participants)
-        double volatility = contestsParticipated < 5 ? 1.5 : contestsParticipated < 10 ? 1.25 : contestsParticipated < 20 ? 1.1 : 1.0;
-        delta *= volatility;
-        
-        // K-factor based on rating tier
-        double kFactor = currentRating >= 2400 ? 16.0 : currentRating >= 2000 ? 20.0 : currentRating >= 1600 ? 24.0 : currentRating >= 1200 ? 28.0 : 32.0;
-        delta *= (kFactor / 32.0);
-        
-        // Cap maximum change based on rating tier
-        int maxChange = currentRating >= 2400 ? 150 : currentRating >= 2000 ? 180 : currentRating >= 1600 ? 220 : currentRating >= 1200 ? 250 : 300;
-        int finalChange = (int) Math.round(delta);
-        
-        return Math.abs(finalChange) > maxChange ? (finalChange > 0 ? maxChange : -maxChange) : finalChange;
-    }
-
     /**
      * Display calculated rating prediction results
      */
@@ -154,6 +130,47 @@ public class PredictorController {
         resultsSection.setManaged(true);
     }
 
+    /**
+     * Plot the predicted change over every rank, sampled down to {@link #CURVE_POINTS} points
+     */
+    private void plotCurve(RatingCurve curve) {
+        XYChart.Series<Number, Number> series = new XYChart.Series<>();
+        for (int rank : curve.sampleRanks(CURVE_POINTS)) {
+            series.getData().add(new XYChart.Data<>(rank, curve.deltaAt(rank)));
+        }
+        rankAxis.setAutoRanging(false);
+        rankAxis.setLowerBound(1);
+        rankAxis.setUpperBound(curve.getTotalParticipants());
+        rankAxis.setTickUnit(Math.max(1, curve.getTotalParticipants() / 10));
+        deltaCurveChart.getData().clear();
+        deltaCurveChart.getData().add(series);
+        targetRankLabel.setText("");
+    }
+
+    /**
+     * Answer "which rank do I need for this change?" from the current curve
+     */
+    @FXML
+    private void handleTargetDelta() {
+        if (currentCurve == null) {
+            targetRankLabel.setText("Calculate a prediction first");
+            return;
+        }
+        try {
+            int target = Integer.parseInt(targetDeltaField.getText().trim().replace("+", ""));
+            int rank = currentCurve.worstRankFor(target);
+            String change = (target >= 0 ? "+" : "") + target;
+            if (rank == 0) {
+                targetRankLabel.setText("Even rank 1 gives less than " + change);
+            } else {
+                targetRankLabel.setText("Finish rank " + rank + " or better for at least " + change
+                    + " (out of " + currentCurve.getTotalParticipants() + ")");
+            }
+        } catch (NumberFormatException e) {
+            targetRankLabel.setText("Please enter a valid number");
+        }
+    }
+
     /**
      * Apply calculated rating to user profile
      */
@@ -1,10 +1,18 @@
 package com.contestpredictor.controller;
 
 import com.contestpredictor.model.Contestant;
+import com.contestpredictor.model.ParticipantBatch;
+import com.contestpredictor.util.AtCoderRatingEngine;
 import com.contestpredictor.util.ContestantRatingPredictor;
+import com.contestpredictor.util.RatedListCache;
+import com.contestpredictor.util.RatedListDelta;
+import com.contestpredictor.util.RatingEngine;
+import com.contestpredictor.util.RatingEngines;
+import com.contestpredictor.util.StandingsTree;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.event.EventHandler;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -13,9 +21,15 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.control.cell.TextFieldTableCell;
 import javafx.stage.Stage;
+import javafx.stage.WindowEvent;
 import javafx.util.converter.IntegerStringConverter;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
 
 public class RatingPredictorController {
     
@@ -41,8 +55,18 @@ public class RatingPredictorController {
     @FXML private Label maxLossLabel;
     
     private ObservableList<Contestant> contestants;
+    
+    // Live standings for single-cell edits; rebuilt by every full recalculation
+    private ParticipantBatch standingsBatch;
+    private StandingsTree standingsTree;
+    private List<Contestant> batchRows;
     private boolean isAdmin = false; // Flag to track if current user is admin
     
+    // Keeps the fetched ratings current while the screen is open
+    private final RatedListCache.Listener ratedListListener =
+        (delta, current) -> Platform.runLater(() -> applyRatedListDelta(delta));
+    private final EventHandler<WindowEvent> windowHidden = event -> stopRatedListUpdates();
+    
     @FXML
     public void initialize() {
         contestants = FXCollections.observableArrayList();
@@ -66,7 +90,7 @@ public class RatingPredictorController {
             }
             Contestant contestant = event.getRowValue();
             contestant.setProblemsSolved(event.getNewValue());
-            recalculateRankingsAndRatings();
+            applyScoreEdit(contestant);
             updateStatus("Problems solved updated for " + contestant.getHandle() + " - Rankings recalculated");
         });
         
@@ -80,7 +104,7 @@ public class RatingPredictorController {
             }
             Contestant contestant = event.getRowValue();
             contestant.setPenalty(event.getNewValue());
-            recalculateRankingsAndRatings();
+            applyScoreEdit(contestant);
             updateStatus("Penalty updated for " + contestant.getHandle() + " - Rankings recalculated");
         });
         
@@ -113,6 +137,36 @@ public class RatingPredictorController {
         
         // Set default limit
         limitField.setText("100");
+        
+        ContestantRatingPredictor.addRatedListListener(ratedListListener);
+        unregisterWhenLeft();
+    }
+    
+    /**
+     * Stop the rated list updates once the screen is gone: its window closed, or another screen's
+     * scene set on the stage (which is how every screen navigates)
+     */
+    private void unregisterWhenLeft() {
+        contestantsTable.sceneProperty().addListener((sceneObs, oldScene, scene) -> {
+            if (scene == null) {
+                stopRatedListUpdates();
+                return;
+            }
+            scene.windowProperty().addListener((windowObs, oldWindow, window) -> {
+                if (oldWindow != null) {
+                    oldWindow.removeEventHandler(WindowEvent.WINDOW_HIDDEN, windowHidden);
+                }
+                if (window != null) {
+                    window.addEventHandler(WindowEvent.WINDOW_HIDDEN, windowHidden);
+                } else {
+                    stopRatedListUpdates();
+                }
+            });
+        });
+    }
+    
+    private void stopRatedListUpdates() {
+        ContestantRatingPredictor.removeRatedListListener(ratedListListener);
     }
     
     /**
@@ -145,33 +199,36 @@ public class RatingPredictorController {
             updateStatus("Fetching contestants from Codeforces API...");
             fetchButton.setDisable(true);
             
-            // Run API call in background thread
-            new Thread(() -> {
-                try {
-                    var fetchedContestants = ContestantRatingPredictor.fetchContestants(limit);
-                    
-                    // Initialize with random contest data for demonstration
-                    for (Contestant c : fetchedContestants) {
-                        c.setProblemsSolved((int)(Math.random() * 8) + 1); // 1-8 problems
-                        c.setPenalty((int)(Math.random() * 300) + 10); // 10-310 minutes penalty
-                    }
-                    
-                    Platform.runLater(() -> {
-                        contestants.clear();
-                        contestants.addAll(fetchedContestants);
-                        recalculateRankingsAndRatings();
-                        updateStatus("Successfully fetched " + fetchedContestants.size() + " contestants with random contest data");
-                        updateStatistics();
-                        fetchButton.setDisable(false);
-                    });
-                } catch (Exception e) {
+            long started = System.nanoTime();
+            ContestantRatingPredictor.fetchContestantsAsync(limit).whenComplete((fetchedContestants, error) -> {
+                if (error != null) {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
                     Platform.runLater(() -> {
-                        showAlert("Fetch Error", "Failed to fetch contestants: " + e.getMessage());
-                        updateStatus("Error: " + e.getMessage());
+                        showAlert("Fetch Error", "Failed to fetch contestants: " + cause.getMessage());
+                        updateStatus("Error: " + cause.getMessage());
                         fetchButton.setDisable(false);
                     });
+                    return;
                 }
-            }).start();
+                long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+                
+                // Initialize with random contest data for demonstration
+                for (Contestant c : fetchedContestants) {
+                    c.setProblemsSolved((int)(Math.random() * 8) + 1); // 1-8 problems
+                    c.setPenalty((int)(Math.random() * 300) + 10); // 10-310 minutes penalty
+                }
+                
+                Platform.runLater(() -> {
+                    contestants.clear();
+                    contestants.addAll(fetchedContestants);
+                    recalculateRankingsAndRatings();
+                    updateStatus("Successfully fetched " + fetchedContestants.size() + " contestants in "
+                        + elapsedMillis + " ms with random contest data");
+                    updateStatistics();
+                    fetchButton.setDisable(false);
+                });
+            });
             
         } catch (NumberFormatException e) {
             showAlert("Invalid Input", "Please enter a valid number");
@@ -194,29 +251,102 @@ public class RatingPredictorController {
      * Dynamically recalculates ranks and ratings when data changes
      */
     private void recalculateRankingsAndRatings() {
-        if (contestants.isEmpty()) return;
-        
-        // Recalculate ranks based on problems solved and penalty
-        ContestantRatingPredictor.assignRanks(contestants);
+        if (contestants.isEmpty()) {
+            resetLiveStandings();
+            return;
+        }
         
-        // Recalculate rating changes using AtCoder formula
-        ContestantRatingPredictor.computeRatingChanges(contestants);
-        ContestantRatingPredictor.updateRatings(contestants);
+        // Recalculate ranks (problems solved, then penalty) and rating changes
+        batchRows = new ArrayList<>(contestants);
+        standingsBatch = ParticipantBatch.fromContestants(batchRows);
+        ratingEngine().calculateRatings(standingsBatch);
+        standingsBatch.applyToContestants(contestants);
+        standingsTree = new StandingsTree(standingsBatch);
         
         // Refresh table display
         contestantsTable.refresh();
         updateStatistics();
     }
     
+    /**
+     * Re-rank after one contestant's solve count or penalty changed
+     * Moves the contestant in O(log n) and recomputes only the rows whose rank changed
+     */
+    private void applyScoreEdit(Contestant contestant) {
+        int row = standingsBatch == null ? -1 : standingsBatch.indexOf(contestant.getHandle());
+        if (row < 0 || batchRows.get(row) != contestant
+                || contestants.get(standingsTree.positionOf(row)) != contestant
+                || ratingEngine().sharesTiedRanks()) {
+            // No live standings yet, the list was reordered (e.g. a column sort), or the
+            // engine shares tied ranks, which the tree's sequential ranks would break
+            recalculateRankingsAndRatings();
+            return;
+        }
+        
+        StandingsTree.Change change = standingsTree.update(row, contestant.getProblemsSolved(), contestant.getPenalty());
+        int[] refreshed = ratingEngine().calculateRatingChanges(standingsBatch, change.getRows());
+        for (int changedRow : refreshed) {
+            Contestant c = batchRows.get(changedRow);
+            c.setRank(standingsBatch.getRanks()[changedRow]);
+            c.setNewRating(standingsBatch.getNewRatings()[changedRow]);
+        }
+        
+        // Move the edited row; the other rows keep their place in the list
+        if (change.getOldPosition() != change.getNewPosition()) {
+            contestants.remove(change.getOldPosition());
+            contestants.add(change.getNewPosition(), contestant);
+        }
+        contestantsTable.refresh();
+        updateStatistics();
+    }
+    
+    private static RatingEngine ratingEngine() {
+        return RatingEngines.forScreen(RatingEngines.SCREEN_RATING_PREDICTOR, AtCoderRatingEngine.NAME);
+    }
+    
+    /**
+     * Apply the rating changes of a rated list refresh to the fetched contestants
+     * Contestants who left the list keep their last rating, and new users are not added
+     */
+    private void applyRatedListDelta(RatedListDelta delta) {
+        if (contestants.isEmpty() || delta.getChanged().isEmpty()) {
+            return;
+        }
+        Map<String, Contestant> byHandle = new HashMap<>(contestants.size() * 2);
+        for (Contestant contestant : contestants) {
+            byHandle.put(contestant.getHandle(), contestant);
+        }
+        int updated = 0;
+        for (RatedListDelta.Change change : delta.getChanged()) {
+            Contestant contestant = byHandle.get(change.getHandle());
+            if (contestant != null) {
+                contestant.setOldRating(change.getNewRating());
+                updated++;
+            }
+        }
+        if (updated > 0) {
+            recalculateRankingsAndRatings();
+            updateStatus("Rated list refreshed: updated the rating of " + updated + " contestants");
+        }
+    }
+    
+    private void resetLiveStandings() {
+        standingsBatch = null;
+        standingsTree = null;
+        batchRows = null;
+    }
+    
     @FXML
     private void handleClear() {
         contestants.clear();
+        resetLiveStandings();
         updateStatistics();
         updateStatus("All data cleared");
     }
     
     @FXML
     private void handleBack() {
+        stopRatedListUpdates();
         try {
             // Navigate back to main menu or previous page
             Stage stage = (Stage) backButton.getScene().getWindow();
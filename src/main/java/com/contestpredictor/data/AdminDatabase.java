@@ -11,14 +11,12 @@ import java.time.format.DateTimeFormatter;
  */
 public class AdminDatabase {
     private static AdminDatabase instance;
+    private DatabaseManager dbManager;
     private Connection connection;
     
     private AdminDatabase() {
-        try {
-            connection = DriverManager.getConnection("jdbc:sqlite:contest_predictor.db");
-        } catch (SQLException e) {
-            System.err.println("Failed to connect to database: " + e.getMessage());
-        }
+        dbManager = DatabaseManager.getInstance();
+        connection = dbManager.getConnection();
     }
     
     public static AdminDatabase getInstance() {
@@ -37,7 +35,8 @@ public class AdminDatabase {
     public Admin authenticate(String username, String password) {
         String sql = "SELECT * FROM admins WHERE username = ? AND password = ? AND is_active = 1";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection reader = dbManager.getReadConnection();
+             PreparedStatement pstmt = reader.prepareStatement(sql)) {
             pstmt.setString(1, username);
             pstmt.setString(2, password);
             
@@ -75,7 +74,8 @@ public class AdminDatabase {
         String sql = "INSERT OR REPLACE INTO admins (admin_id, username, password, email, full_name, created_at, is_active) " +
                      "VALUES (?, ?, ?, '', ?, ?, ?)";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (UnitOfWork work = UnitOfWork.begin(connection);
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, admin.getAdminId());
             pstmt.setString(2, admin.getUsername());
             pstmt.setString(3, admin.getPassword());
@@ -84,6 +84,8 @@ public class AdminDatabase {
             pstmt.setInt(6, admin.isActive() ? 1 : 0);
             
             pstmt.executeUpdate();
+            
+            work.commit();
             return true;
         } catch (SQLException e) {
             System.err.println("Failed to save admin: " + e.getMessage());
@@ -98,7 +100,8 @@ public class AdminDatabase {
     public boolean adminExists(String username) {
         String sql = "SELECT COUNT(*) FROM admins WHERE username = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection reader = dbManager.getReadConnection();
+             PreparedStatement pstmt = reader.prepareStatement(sql)) {
             pstmt.setString(1, username);
             ResultSet rs = pstmt.executeQuery();
             
@@ -118,7 +121,8 @@ public class AdminDatabase {
     public Admin getAdminByUsername(String username) {
         String sql = "SELECT * FROM admins WHERE username = ? AND is_active = 1";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection reader = dbManager.getReadConnection();
+             PreparedStatement pstmt = reader.prepareStatement(sql)) {
             pstmt.setString(1, username);
             ResultSet rs = pstmt.executeQuery();
             
@@ -173,9 +177,11 @@ public class AdminDatabase {
     public boolean deactivateAdmin(String username) {
         String sql = "UPDATE admins SET is_active = 0 WHERE username = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (UnitOfWork work = UnitOfWork.begin(connection);
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, username);
             int rowsAffected = pstmt.executeUpdate();
+            work.commit();
             return rowsAffected > 0;
         } catch (SQLException e) {
             System.err.println("Error deactivating admin: " + e.getMessage());
@@ -2,6 +2,8 @@ package com.contestpredictor.data;
 
 import com.contestpredictor.model.Contest;
 import com.contestpredictor.model.Participant;
+import com.contestpredictor.util.ClassicRatingEngine;
+import com.contestpredictor.util.RatingEngines;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -10,21 +12,28 @@ public class ContestDatabase {
     private static ContestDatabase instance;
     private List<Contest> contests;
     private DatabaseManager dbManager;
+    private ParticipantCache participantCache;
 
     private ContestDatabase() {
         contests = new ArrayList<>();
         dbManager = DatabaseManager.getInstance();
+        participantCache = new ParticipantCache(ParticipantCache.configuredMaxRows(), dbManager::getParticipantsByContest);
         
-        // Try to load contests from database first
+        // Try to load contests from database first; participants are read when a contest is opened
         if (dbManager.hasContests()) {
-            contests = dbManager.loadAllContests();
+            contests = dbManager.loadContestCatalogue(participantCache);
             System.out.println("Loaded " + contests.size() + " contests from database");
         } else {
             // Initialize with default contests if database is empty
             initializeContests();
-            // Save to database
-            for (Contest contest : contests) {
-                dbManager.saveContest(contest);
+            // Save to database in one transaction
+            try (UnitOfWork work = UnitOfWork.begin()) {
+                for (Contest contest : contests) {
+                    dbManager.saveContest(contest);
+                }
+                work.commit();
+            } catch (java.sql.SQLException e) {
+                System.err.println("Failed to save initial contests: " + e.getMessage());
             }
             System.out.println("Initialized " + contests.size() + " contests to database");
         }
@@ -389,7 +398,8 @@ public class ContestDatabase {
         }
         
         // Calculate predicted ratings for this contest
-        com.contestpredictor.util.RatingPredictor.calculateRatings(contest.getParticipants());
+        RatingEngines.forScreen(RatingEngines.SCREEN_CONTESTS, ClassicRatingEngine.NAME)
+            .calculateRatings(contest.getParticipants());
     }
 
     public List<Contest> getPastContests() {
@@ -436,6 +446,25 @@ public class ContestDatabase {
     public List<Contest> getAllContests() {
         return contests;
     }
+
+    /**
+     * Reload a contest's participants from the database after they were written outside this class
+     * They are read again when next asked for; until then only their count is refreshed.
+     */
+    public void reloadParticipants(String contestId) {
+        Contest contest = getContestById(contestId);
+        participantCache.invalidate(contestId);
+        if (contest != null) {
+            contest.setParticipantLoader(participantCache, dbManager.countParticipants(contestId));
+        }
+    }
+
+    /**
+     * Cache behind the participants of contests loaded from the database
+     */
+    public ParticipantCache getParticipantCache() {
+        return participantCache;
+    }
     
     /**
      * Save contest created by admin
@@ -472,22 +501,14 @@ public class ContestDatabase {
             
             if (toRemove != null) {
                 contests.remove(toRemove);
+                participantCache.invalidate(contestId);
                 
-                // Delete from database
-                String sql = "DELETE FROM contests WHERE contest_id = ?";
-                java.sql.Connection conn = java.sql.DriverManager.getConnection("jdbc:sqlite:contest_predictor.db");
-                java.sql.PreparedStatement pstmt = conn.prepareStatement(sql);
-                pstmt.setString(1, contestId);
-                pstmt.executeUpdate();
-                pstmt.close();
-                
-                // Also delete participants
-                sql = "DELETE FROM participants WHERE contest_id = ?";
-                pstmt = conn.prepareStatement(sql);
-                pstmt.setString(1, contestId);
-                pstmt.executeUpdate();
-                pstmt.close();
-                conn.close();
+                // Delete the contest and its participants from the database together
+                try (UnitOfWork work = UnitOfWork.begin()) {
+                    work.execute("DELETE FROM contests WHERE contest_id = ?", contestId);
+                    work.execute("DELETE FROM participants WHERE contest_id = ?", contestId);
+                    work.commit();
+                }
                 
                 return true;
             }
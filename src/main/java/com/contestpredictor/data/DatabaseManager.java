@@ -8,6 +8,7 @@ import java.sql.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -16,11 +17,16 @@ import java.util.List;
 public class DatabaseManager {
     private static DatabaseManager instance;
     private static final String DB_URL = "jdbc:sqlite:contest_predictor.db";
+    /** Participant columns in the order {@link #readParticipant} reads them */
+    private static final String PARTICIPANT_COLUMNS =
+            "username, current_rating, problems_solved, total_penalty, rank, predicted_rating, rating_change";
+    private SqliteDataSource dataSource;
     private Connection connection;
 
     private DatabaseManager() {
         try {
-            connection = DriverManager.getConnection(DB_URL);
+            dataSource = new SqliteDataSource(DB_URL, SqliteDataSource.configuredReaders());
+            connection = dataSource.getWriter();
             initializeTables();
         } catch (SQLException e) {
             System.err.println("Failed to connect to database: " + e.getMessage());
@@ -36,143 +42,36 @@ public class DatabaseManager {
     }
 
     /**
-     * Get the database connection
+     * Get the database connection, the one all writes go through
      */
     public Connection getConnection() {
         return connection;
     }
 
     /**
-     * Initialize database tables
+     * Borrow a read-only connection; close it to return it to the pool
+     * Reads on it see committed data only and do not wait for a transaction on the writer
      */
-    private void initializeTables() {
-        try {
-            Statement stmt = connection.createStatement();
-
-            // Users table
-            stmt.execute("CREATE TABLE IF NOT EXISTS users (" +
-                    "username TEXT PRIMARY KEY," +
-                    "password TEXT NOT NULL," +
-                    "full_name TEXT NOT NULL," +
-                    "current_rating INTEGER NOT NULL," +
-                    "contests_participated INTEGER NOT NULL," +
-                    "rating_history TEXT" + // Stored as comma-separated values
-                    ")");
-
-            // Admins table
-            stmt.execute("CREATE TABLE IF NOT EXISTS admins (" +
-                    "admin_id TEXT PRIMARY KEY," +
-                    "username TEXT UNIQUE NOT NULL," +
-                    "password TEXT NOT NULL," +
-                    "email TEXT," +
-                    "full_name TEXT NOT NULL," +
-                    "created_at TEXT NOT NULL," +
-                    "is_active INTEGER DEFAULT 1" + // 0 = false, 1 = true
-                    ")");
-
-            // Contests table (enhanced with admin support)
-            stmt.execute("CREATE TABLE IF NOT EXISTS contests (" +
-                    "contest_id TEXT PRIMARY KEY," +
-                    "contest_name TEXT NOT NULL," +
-                    "date_time TEXT NOT NULL," +
-                    "duration INTEGER NOT NULL," +
-                    "is_past INTEGER NOT NULL," + // 0 = false, 1 = true
-                    "created_by_admin TEXT," +
-                    "max_participants INTEGER DEFAULT 1000," +
-                    "registration_open INTEGER DEFAULT 1" + // 0 = false, 1 = true
-                    ")");
-
-            // Contest registrations table
-            stmt.execute("CREATE TABLE IF NOT EXISTS contest_registrations (" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "contest_id TEXT NOT NULL," +
-                    "username TEXT NOT NULL," +
-                    "registered_at TEXT NOT NULL," +
-                    "FOREIGN KEY (contest_id) REFERENCES contests(contest_id)," +
-                    "UNIQUE(contest_id, username)" +
-                    ")");
+    public Connection getReadConnection() throws SQLException {
+        return dataSource.getConnection();
+    }
 
-            // Participants table
-            stmt.execute("CREATE TABLE IF NOT EXISTS participants (" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "contest_id TEXT NOT NULL," +
-                    "username TEXT NOT NULL," +
-                    "current_rating INTEGER NOT NULL," +
-                    "problems_solved INTEGER NOT NULL," +
-                    "total_penalty INTEGER NOT NULL," +
-                    "rank INTEGER NOT NULL," +
-                    "predicted_rating INTEGER NOT NULL," +
-                    "rating_change INTEGER NOT NULL," +
-                    "FOREIGN KEY (contest_id) REFERENCES contests(contest_id)" +
-                    ")");
+    public SqliteDataSource getDataSource() {
+        return dataSource;
+    }
 
-            // Rating history table
-            stmt.execute("CREATE TABLE IF NOT EXISTS rating_history (" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "contest_id TEXT NOT NULL," +
-                    "username TEXT NOT NULL," +
-                    "old_rating INTEGER NOT NULL," +
-                    "new_rating INTEGER NOT NULL," +
-                    "delta INTEGER NOT NULL," +
-                    "contest_date TEXT NOT NULL," +
-                    "FOREIGN KEY (contest_id) REFERENCES contests(contest_id)" +
-                    ")");
-            
-            // Leaderboard Contests table
-            stmt.execute("CREATE TABLE IF NOT EXISTS leaderboard_contests (" +
-                    "contest_id TEXT PRIMARY KEY," +
-                    "contest_name TEXT NOT NULL," +
-                    "description TEXT," +
-                    "start_date TEXT NOT NULL," +
-                    "end_date TEXT NOT NULL," +
-                    "max_problems INTEGER NOT NULL," +
-                    "is_active INTEGER DEFAULT 1," +
-                    "standings_finalized INTEGER DEFAULT 0," +
-                    "created_by_admin TEXT NOT NULL," +
-                    "created_at TEXT NOT NULL" +
-                    ")");
-            
-            // Leaderboard Registrations table
-            stmt.execute("CREATE TABLE IF NOT EXISTS leaderboard_registrations (" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "contest_id TEXT NOT NULL," +
-                    "username TEXT NOT NULL," +
-                    "registered_at TEXT NOT NULL," +
-                    "FOREIGN KEY (contest_id) REFERENCES leaderboard_contests(contest_id)," +
-                    "UNIQUE(contest_id, username)" +
-                    ")");
-            
-            // Leaderboard Entries table (individual contest standings)
-            stmt.execute("CREATE TABLE IF NOT EXISTS leaderboard_entries (" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "contest_id TEXT NOT NULL," +
-                    "username TEXT NOT NULL," +
-                    "rank INTEGER NOT NULL," +
-                    "solve_count INTEGER NOT NULL," +
-                    "total_penalty INTEGER NOT NULL," +
-                    "total_time INTEGER NOT NULL," +
-                    "status TEXT DEFAULT 'Completed'," +
-                    "FOREIGN KEY (contest_id) REFERENCES leaderboard_contests(contest_id)," +
-                    "UNIQUE(contest_id, username)" +
-                    ")");
-            
-            // Combined Leaderboard table (aggregate across all contests)
-            stmt.execute("CREATE TABLE IF NOT EXISTS combined_leaderboard (" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "username TEXT UNIQUE NOT NULL," +
-                    "total_solves INTEGER NOT NULL," +
-                    "total_penalty INTEGER NOT NULL," +
-                    "overall_rank INTEGER NOT NULL," +
-                    "contests_participated INTEGER NOT NULL," +
-                    "status TEXT DEFAULT 'Active'," +
-                    "last_updated TEXT" +
-                    ")");
+    /**
+     * Bring the schema up to date (see SchemaMigrations) and make sure the default admin exists
+     */
+    private void initializeTables() {
+        try {
+            SchemaMigrations.migrate(connection);
             
             // Create default admin if not exists
             createDefaultAdmin();
 
-            stmt.close();
-            System.out.println("Database tables initialized successfully");
+            System.out.println("Database tables initialized successfully (schema version "
+                    + SchemaMigrations.currentVersion(connection) + ")");
         } catch (SQLException e) {
             System.err.println("Failed to initialize tables: " + e.getMessage());
             e.printStackTrace();
@@ -189,7 +88,8 @@ public class DatabaseManager {
             
             if (rs.next() && rs.getInt(1) == 0) {
                 String insertSql = "INSERT INTO admins (admin_id, username, password, email, full_name, created_at, is_active) VALUES (?, ?, ?, ?, ?, ?, ?)";
-                try (PreparedStatement pstmt = connection.prepareStatement(insertSql)) {
+                try (UnitOfWork work = UnitOfWork.begin(connection);
+                     PreparedStatement pstmt = connection.prepareStatement(insertSql)) {
                     pstmt.setString(1, "ADMIN_DEFAULT");
                     pstmt.setString(2, "admin");
                     pstmt.setString(3, "admin1234"); // In production, this should be hashed
@@ -198,6 +98,7 @@ public class DatabaseManager {
                     pstmt.setString(6, LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
                     pstmt.setInt(7, 1);
                     pstmt.executeUpdate();
+                    work.commit();
                     System.out.println("Default admin account created (username: admin, password: admin1234)");
                 }
             }
@@ -211,7 +112,8 @@ public class DatabaseManager {
      */
     public void saveUser(User user) {
         String sql = "INSERT OR REPLACE INTO users (username, password, full_name, current_rating, contests_participated, rating_history) VALUES (?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (UnitOfWork work = UnitOfWork.begin(connection);
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, user.getUsername());
             pstmt.setString(2, user.getPassword());
             pstmt.setString(3, user.getFullName());
@@ -229,6 +131,8 @@ public class DatabaseManager {
             pstmt.setString(6, history.toString());
             
             pstmt.executeUpdate();
+            
+            work.commit();
         } catch (SQLException e) {
             System.err.println("Failed to save user: " + e.getMessage());
         }
@@ -239,7 +143,8 @@ public class DatabaseManager {
      */
     public User loadUser(String username) {
         String sql = "SELECT * FROM users WHERE username = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection reader = getReadConnection();
+             PreparedStatement pstmt = reader.prepareStatement(sql)) {
             pstmt.setString(1, username);
             ResultSet rs = pstmt.executeQuery();
             
@@ -271,21 +176,21 @@ public class DatabaseManager {
     }
 
     /**
-     * Save a contest to the database
+     * Save a contest and its participants to the database in one transaction
      */
     public void saveContest(Contest contest) {
         String sql = "INSERT OR REPLACE INTO contests (contest_id, contest_name, date_time, duration, is_past) VALUES (?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, contest.getContestId());
-            pstmt.setString(2, contest.getContestName());
-            pstmt.setString(3, contest.getDateTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            pstmt.setInt(4, contest.getDuration());
-            pstmt.setInt(5, contest.isPast() ? 1 : 0);
-            
-            pstmt.executeUpdate();
+        try (UnitOfWork work = UnitOfWork.begin(connection)) {
+            work.execute(sql,
+                contest.getContestId(),
+                contest.getContestName(),
+                contest.getDateTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                contest.getDuration(),
+                contest.isPast() ? 1 : 0);
             
             // Save participants
-            saveParticipants(contest);
+            saveParticipants(work, contest);
+            work.commit();
         } catch (SQLException e) {
             System.err.println("Failed to save contest: " + e.getMessage());
         }
@@ -296,56 +201,48 @@ public class DatabaseManager {
      */
     public void saveContestWithAdmin(Contest contest) {
         String sql = "INSERT OR REPLACE INTO contests (contest_id, contest_name, date_time, duration, is_past, created_by_admin, max_participants, registration_open) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, contest.getContestId());
-            pstmt.setString(2, contest.getContestName());
-            pstmt.setString(3, contest.getDateTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            pstmt.setInt(4, contest.getDuration());
-            pstmt.setInt(5, contest.isPast() ? 1 : 0);
-            pstmt.setString(6, contest.getCreatedByAdmin());
-            pstmt.setInt(7, contest.getMaxParticipants());
-            pstmt.setInt(8, contest.isRegistrationOpen() ? 1 : 0);
-            
-            pstmt.executeUpdate();
+        try (UnitOfWork work = UnitOfWork.begin(connection)) {
+            work.execute(sql,
+                contest.getContestId(),
+                contest.getContestName(),
+                contest.getDateTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                contest.getDuration(),
+                contest.isPast() ? 1 : 0,
+                contest.getCreatedByAdmin(),
+                contest.getMaxParticipants(),
+                contest.isRegistrationOpen() ? 1 : 0);
             
             // Save participants if any
             if (contest.getParticipants() != null && !contest.getParticipants().isEmpty()) {
-                saveParticipants(contest);
+                saveParticipants(work, contest);
             }
+            work.commit();
         } catch (SQLException e) {
             System.err.println("Failed to save contest with admin: " + e.getMessage());
         }
     }
 
     /**
-     * Save participants for a contest
+     * Replace the participants of a contest as one batch within the caller's unit of work
      */
-    private void saveParticipants(Contest contest) {
+    private void saveParticipants(UnitOfWork work, Contest contest) throws SQLException {
         // First, delete existing participants for this contest
-        String deleteSql = "DELETE FROM participants WHERE contest_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(deleteSql)) {
-            pstmt.setString(1, contest.getContestId());
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            System.err.println("Failed to delete old participants: " + e.getMessage());
-        }
+        work.execute("DELETE FROM participants WHERE contest_id = ?", contest.getContestId());
         
         // Insert new participants
         String insertSql = "INSERT INTO participants (contest_id, username, current_rating, problems_solved, total_penalty, rank, predicted_rating, rating_change) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(insertSql)) {
-            for (Participant p : contest.getParticipants()) {
-                pstmt.setString(1, contest.getContestId());
-                pstmt.setString(2, p.getUsername());
-                pstmt.setInt(3, p.getCurrentRating());
-                pstmt.setInt(4, p.getProblemsSolved());
-                pstmt.setInt(5, p.getTotalPenalty());
-                pstmt.setInt(6, p.getRank());
-                pstmt.setInt(7, p.getPredictedRating());
-                pstmt.setInt(8, p.getRatingChange());
-                pstmt.executeUpdate();
-            }
-        } catch (SQLException e) {
-            System.err.println("Failed to save participants: " + e.getMessage());
+        PreparedStatement pstmt = work.batch(insertSql);
+        for (Participant p : contest.getParticipants()) {
+            pstmt.setString(1, contest.getContestId());
+            pstmt.setString(2, p.getUsername());
+            pstmt.setInt(3, p.getCurrentRating());
+            pstmt.setInt(4, p.getProblemsSolved());
+            pstmt.setInt(5, p.getTotalPenalty());
+            pstmt.setInt(6, p.getRank());
+            pstmt.setInt(7, p.getPredictedRating());
+            pstmt.setInt(8, p.getRatingChange());
+            pstmt.addBatch();
+            work.added(pstmt);
         }
     }
 
@@ -353,8 +250,17 @@ public class DatabaseManager {
      * Load a contest from the database
      */
     public Contest loadContest(String contestId) {
+        try (Connection reader = getReadConnection()) {
+            return loadContest(reader, contestId);
+        } catch (SQLException e) {
+            System.err.println("Failed to load contest: " + e.getMessage());
+        }
+        return null;
+    }
+
+    private Contest loadContest(Connection reader, String contestId) {
         String sql = "SELECT * FROM contests WHERE contest_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = reader.prepareStatement(sql)) {
             pstmt.setString(1, contestId);
             ResultSet rs = pstmt.executeQuery();
             
@@ -368,7 +274,7 @@ public class DatabaseManager {
                 );
                 
                 // Load participants
-                loadParticipantsForContest(contest);
+                loadParticipantsForContest(reader, contest);
                 
                 return contest;
             }
@@ -381,24 +287,14 @@ public class DatabaseManager {
     /**
      * Load participants for a contest
      */
-    private void loadParticipantsForContest(Contest contest) {
-        String sql = "SELECT * FROM participants WHERE contest_id = ? ORDER BY rank ASC";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+    private void loadParticipantsForContest(Connection reader, Contest contest) {
+        String sql = "SELECT " + PARTICIPANT_COLUMNS + " FROM participants WHERE contest_id = ? ORDER BY rank ASC";
+        try (PreparedStatement pstmt = reader.prepareStatement(sql)) {
             pstmt.setString(1, contest.getContestId());
             ResultSet rs = pstmt.executeQuery();
             
             while (rs.next()) {
-                Participant p = new Participant(
-                    rs.getString("username"),
-                    rs.getInt("current_rating"),
-                    rs.getInt("problems_solved"),
-                    rs.getInt("total_penalty")
-                );
-                p.setRank(rs.getInt("rank"));
-                p.setPredictedRating(rs.getInt("predicted_rating"));
-                p.setRatingChange(rs.getInt("rating_change"));
-                
-                contest.addParticipant(p);
+                contest.addParticipant(readParticipant(rs, 1));
             }
         } catch (SQLException e) {
             System.err.println("Failed to load participants: " + e.getMessage());
@@ -406,32 +302,116 @@ public class DatabaseManager {
     }
 
     /**
-     * Load all contests from the database
+     * Load all contests with their participants in one query; the eager path
+     * The application starts from {@link #loadContestCatalogue} instead; this reads everything up
+     * front and is kept for callers that need every participant, such as ContestCatalogueBenchmark.
+     * The join walks the contests in contest_id order and reads each one's participants off an
+     * index on contest_id when there is one, so every contest's rows arrive together and contests
+     * are assembled in a single pass. No index is forced, so the query also runs on a database
+     * without V3. Ordering by rank in SQL would make SQLite sort every contest's rows again, so
+     * the lists are put in rank order here instead.
+     * Contests without participants appear once, with null participant columns.
      */
     public List<Contest> loadAllContests() {
         List<Contest> contests = new ArrayList<>();
-        String sql = "SELECT contest_id FROM contests";
-        try (Statement stmt = connection.createStatement();
+        String sql = "SELECT c.rowid, c.contest_id, c.contest_name, c.date_time, c.duration, c.is_past, " +
+                "p.username, p.current_rating, p.problems_solved, p.total_penalty, p.rank, p.predicted_rating, p.rating_change " +
+                "FROM contests c LEFT JOIN participants p " +
+                "ON p.contest_id = c.contest_id ORDER BY c.contest_id";
+        try (Connection reader = getReadConnection();
+             Statement stmt = reader.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
+            Contest contest = null;
+            long contestRow = 0;
             while (rs.next()) {
-                Contest contest = loadContest(rs.getString("contest_id"));
-                if (contest != null) {
+                // A new contest starts where the rowid changes; comparing it is cheaper than the id string
+                long row = rs.getLong(1);
+                if (contest == null || row != contestRow) {
+                    contestRow = row;
+                    contest = new Contest(
+                        rs.getString(2),
+                        rs.getString(3),
+                        LocalDateTime.parse(rs.getString(4), DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                        rs.getInt(5),
+                        rs.getInt(6) == 1
+                    );
                     contests.add(contest);
                 }
+                Participant participant = readParticipant(rs, 7);
+                if (participant != null) {
+                    contest.addParticipant(participant);
+                }
             }
         } catch (SQLException e) {
             System.err.println("Failed to load contests: " + e.getMessage());
         }
+        for (Contest contest : contests) {
+            contest.getParticipants().sort(Comparator.comparingInt(Participant::getRank));
+        }
         return contests;
     }
 
+    /**
+     * Load all contests without their participants, which {@code loader} fetches when a contest is opened
+     * Each contest gets its participant count, counted off one of the participants indexes without
+     * reading the rows, so the catalogue costs the same whatever the size of the standings.
+     */
+    public List<Contest> loadContestCatalogue(Contest.ParticipantLoader loader) {
+        List<Contest> contests = new ArrayList<>();
+        String sql = "SELECT c.contest_id, c.contest_name, c.date_time, c.duration, c.is_past, " +
+                "(SELECT COUNT(*) FROM participants p WHERE p.contest_id = c.contest_id) " +
+                "FROM contests c ORDER BY c.contest_id";
+        try (Connection reader = getReadConnection();
+             Statement stmt = reader.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                Contest contest = new Contest(
+                    rs.getString(1),
+                    rs.getString(2),
+                    LocalDateTime.parse(rs.getString(3), DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                    rs.getInt(4),
+                    rs.getInt(5) == 1
+                );
+                contest.setParticipantLoader(loader, rs.getInt(6));
+                contests.add(contest);
+            }
+        } catch (SQLException e) {
+            System.err.println("Failed to load contests: " + e.getMessage());
+        }
+        return contests;
+    }
+
+    /**
+     * Participant from the current row, whose {@link #PARTICIPANT_COLUMNS} start at {@code column}
+     * Columns are read by position, as name lookups cost more than the values when loading many rows.
+     * @return The participant, or null when the row has none (an outer join without a match)
+     */
+    private static Participant readParticipant(ResultSet rs, int column) throws SQLException {
+        String username = rs.getString(column);
+        if (username == null) {
+            return null;
+        }
+        Participant p = new Participant(
+            username,
+            rs.getInt(column + 1),
+            rs.getInt(column + 2),
+            rs.getInt(column + 3)
+        );
+        p.setRank(rs.getInt(column + 4));
+        p.setPredictedRating(rs.getInt(column + 5));
+        p.setRatingChange(rs.getInt(column + 6));
+        return p;
+    }
+
     /**
      * Check if database has contests
      */
     public boolean hasContests() {
         String sql = "SELECT COUNT(*) FROM contests";
-        try (Statement stmt = connection.createStatement();
+        try (Connection reader = getReadConnection();
+             Statement stmt = reader.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             if (rs.next()) {
                 return rs.getInt(1) > 0;
@@ -447,24 +427,15 @@ public class DatabaseManager {
      */
     public List<Participant> getParticipantsByContest(String contestId) {
         List<Participant> participants = new ArrayList<>();
-        String sql = "SELECT * FROM participants WHERE contest_id = ? ORDER BY rank ASC";
+        String sql = "SELECT " + PARTICIPANT_COLUMNS + " FROM participants WHERE contest_id = ? ORDER BY rank ASC";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection reader = getReadConnection();
+             PreparedStatement pstmt = reader.prepareStatement(sql)) {
             pstmt.setString(1, contestId);
             ResultSet rs = pstmt.executeQuery();
             
             while (rs.next()) {
-                Participant p = new Participant(
-                    rs.getString("username"),
-                    rs.getInt("current_rating"),
-                    rs.getInt("problems_solved"),
-                    rs.getInt("total_penalty")
-                );
-                p.setRank(rs.getInt("rank"));
-                p.setPredictedRating(rs.getInt("predicted_rating"));
-                p.setRatingChange(rs.getInt("rating_change"));
-                
-                participants.add(p);
+                participants.add(readParticipant(rs, 1));
             }
         } catch (SQLException e) {
             System.err.println("Failed to get participants: " + e.getMessage());
@@ -472,14 +443,33 @@ public class DatabaseManager {
         
         return participants;
     }
-    
+
+    /**
+     * Count a contest's participants without reading them
+     */
+    public int countParticipants(String contestId) {
+        String sql = "SELECT COUNT(*) FROM participants WHERE contest_id = ?";
+        try (Connection reader = getReadConnection();
+             PreparedStatement pstmt = reader.prepareStatement(sql)) {
+            pstmt.setString(1, contestId);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            System.err.println("Failed to count participants: " + e.getMessage());
+        }
+        return 0;
+    }
+
     /**
      * Save a single participant to a contest
      */
     public boolean saveParticipant(String contestId, Participant participant) {
         String sql = "INSERT INTO participants (contest_id, username, current_rating, problems_solved, total_penalty, rank, predicted_rating, rating_change) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (UnitOfWork work = UnitOfWork.begin(connection);
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, contestId);
             pstmt.setString(2, participant.getUsername());
             pstmt.setInt(3, participant.getCurrentRating());
@@ -490,6 +480,8 @@ public class DatabaseManager {
             pstmt.setInt(8, participant.getRatingChange());
             
             pstmt.executeUpdate();
+            
+            work.commit();
             return true;
         } catch (SQLException e) {
             System.err.println("Failed to save participant: " + e.getMessage());
@@ -503,11 +495,14 @@ public class DatabaseManager {
     public boolean removeParticipant(String contestId, String username) {
         String sql = "DELETE FROM participants WHERE contest_id = ? AND username = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (UnitOfWork work = UnitOfWork.begin(connection);
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, contestId);
             pstmt.setString(2, username);
             
             int rowsAffected = pstmt.executeUpdate();
+            
+            work.commit();
             return rowsAffected > 0;
         } catch (SQLException e) {
             System.err.println("Failed to remove participant: " + e.getMessage());
@@ -517,36 +512,105 @@ public class DatabaseManager {
     
     /**
      * Update participant's solve count and penalty
+     * If the contest was already replayed (see RatingReplay), the change is carried forward
+     * through the rating history in the same transaction
      */
     public boolean updateParticipantSolveCount(String contestId, String username, int problemsSolved, int totalPenalty) {
-        String sql = "UPDATE participants SET problems_solved = ?, total_penalty = ? WHERE contest_id = ? AND username = ?";
+        String sql = "UPDATE participants SET problems_solved = ?, total_penalty = ? WHERE contest_id = ? AND username = ? " +
+                "AND (problems_solved <> ? OR total_penalty <> ?)";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, problemsSolved);
-            pstmt.setInt(2, totalPenalty);
-            pstmt.setString(3, contestId);
-            pstmt.setString(4, username);
-            
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
+        try (UnitOfWork work = UnitOfWork.begin(connection)) {
+            int rowsAffected = work.execute(sql, problemsSolved, totalPenalty, contestId, username,
+                    problemsSolved, totalPenalty);
+            RatingReplay.Result propagated = null;
+            if (rowsAffected > 0) {
+                propagated = new RatingReplay().propagateEdit(contestId);
+            }
+            boolean found = rowsAffected > 0 || hasParticipant(contestId, username);
+            work.commit();
+            refreshRatingsAfter(propagated);
+            return found;
         } catch (SQLException e) {
             System.err.println("Failed to update participant solve count: " + e.getMessage());
             return false;
         }
     }
     
+    /**
+     * Save the solve counts and penalties of many participants of a contest in one transaction
+     * Like {@link #updateParticipantSolveCount}, a replayed contest's rating history is carried
+     * forward, but once for the whole batch
+     * @return Participants whose results changed, or -1 if the update failed
+     */
+    public int updateParticipantSolveCounts(String contestId, List<Participant> participants) {
+        String sql = "UPDATE participants SET problems_solved = ?, total_penalty = ? WHERE contest_id = ? AND username = ? " +
+                "AND (problems_solved <> ? OR total_penalty <> ?)";
+        
+        try (UnitOfWork work = UnitOfWork.begin(connection)) {
+            PreparedStatement pstmt = work.batch(sql);
+            for (Participant p : participants) {
+                pstmt.setInt(1, p.getProblemsSolved());
+                pstmt.setInt(2, p.getTotalPenalty());
+                pstmt.setString(3, contestId);
+                pstmt.setString(4, p.getUsername());
+                pstmt.setInt(5, p.getProblemsSolved());
+                pstmt.setInt(6, p.getTotalPenalty());
+                pstmt.addBatch();
+            }
+            int changed = 0;
+            for (int rows : pstmt.executeBatch()) {
+                changed += Math.max(rows, 0);
+            }
+            RatingReplay.Result propagated = null;
+            if (changed > 0) {
+                propagated = new RatingReplay().propagateEdit(contestId);
+            }
+            work.commit();
+            refreshRatingsAfter(propagated);
+            return changed;
+        } catch (SQLException e) {
+            System.err.println("Failed to update participant solve counts: " + e.getMessage());
+            return -1;
+        }
+    }
+    
+    /**
+     * Reload the signed-in users' ratings once a propagated edit is committed
+     * The propagation joined our transaction, so it could not do this itself: readers only see
+     * committed rows
+     */
+    private static void refreshRatingsAfter(RatingReplay.Result propagated) {
+        if (propagated != null && propagated.getUsersUpdated() > 0) {
+            UserDatabase.getInstance().refreshRatings();
+        }
+    }
+    
+    private boolean hasParticipant(String contestId, String username) throws SQLException {
+        String sql = "SELECT 1 FROM participants WHERE contest_id = ? AND username = ?";
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setString(1, contestId);
+            pstmt.setString(2, username);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+    
     /**
      * Register a user for a contest
      */
     public boolean registerUserForContest(String contestId, String username) {
         String sql = "INSERT OR IGNORE INTO contest_registrations (contest_id, username, registered_at) VALUES (?, ?, ?)";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (UnitOfWork work = UnitOfWork.begin(connection);
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, contestId);
             pstmt.setString(2, username);
             pstmt.setString(3, LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
             
             int rowsAffected = pstmt.executeUpdate();
+            
+            work.commit();
             return rowsAffected > 0;
         } catch (SQLException e) {
             System.err.println("Failed to register user for contest: " + e.getMessage());
@@ -561,7 +625,8 @@ public class DatabaseManager {
         List<String> users = new ArrayList<>();
         String sql = "SELECT username FROM contest_registrations WHERE contest_id = ? ORDER BY registered_at";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection reader = getReadConnection();
+             PreparedStatement pstmt = reader.prepareStatement(sql)) {
             pstmt.setString(1, contestId);
             ResultSet rs = pstmt.executeQuery();
             
@@ -581,7 +646,8 @@ public class DatabaseManager {
     public boolean isUserRegisteredForContest(String contestId, String username) {
         String sql = "SELECT COUNT(*) FROM contest_registrations WHERE contest_id = ? AND username = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection reader = getReadConnection();
+             PreparedStatement pstmt = reader.prepareStatement(sql)) {
             pstmt.setString(1, contestId);
             pstmt.setString(2, username);
             
@@ -597,16 +663,13 @@ public class DatabaseManager {
     }
 
     /**
-     * Close database connection
+     * Close database connections
      */
     public void close() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("Database connection closed");
-            }
-        } catch (SQLException e) {
-            System.err.println("Failed to close database: " + e.getMessage());
+        if (dataSource != null) {
+            System.out.println("Database pool: " + dataSource.getMetrics());
+            dataSource.close();
+            System.out.println("Database connection closed");
         }
     }
 }
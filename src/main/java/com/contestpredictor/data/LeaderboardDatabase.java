@@ -3,6 +3,7 @@ package com.contestpredictor.data;
 import com.contestpredictor.model.LeaderboardContest;
 import com.contestpredictor.model.LeaderboardEntry;
 import com.contestpredictor.model.CombinedLeaderboardEntry;
+import com.contestpredictor.util.RankingSort;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -33,7 +34,7 @@ public class LeaderboardDatabase {
      * Create a new leaderboard contest
      */
     public boolean createLeaderboardContest(LeaderboardContest contest) {
-        try {
+        try (UnitOfWork work = UnitOfWork.begin(dbManager.getConnection())) {
             String sql = "INSERT INTO leaderboard_contests " +
                     "(contest_id, contest_name, description, start_date, end_date, max_problems, " +
                     "is_active, standings_finalized, created_by_admin, created_at) " +
@@ -53,6 +54,7 @@ public class LeaderboardDatabase {
             
             pstmt.executeUpdate();
             pstmt.close();
+            work.commit();
             return true;
         } catch (Exception e) {
             System.err.println("Error creating leaderboard contest: " + e.getMessage());
@@ -65,10 +67,10 @@ public class LeaderboardDatabase {
      */
     public List<LeaderboardContest> getAllLeaderboardContests() {
         List<LeaderboardContest> contests = new ArrayList<>();
-        try {
+        try (java.sql.Connection reader = dbManager.getReadConnection()) {
             String sql = "SELECT * FROM leaderboard_contests ORDER BY created_at DESC";
             System.out.println("DEBUG LeaderboardDatabase: Executing query: " + sql);
-            java.sql.Statement stmt = dbManager.getConnection().createStatement();
+            java.sql.Statement stmt = reader.createStatement();
             java.sql.ResultSet rs = stmt.executeQuery(sql);
             
             int count = 0;
@@ -107,9 +109,9 @@ public class LeaderboardDatabase {
      * Get a specific leaderboard contest by ID
      */
     public LeaderboardContest getLeaderboardContestById(String contestId) {
-        try {
+        try (java.sql.Connection reader = dbManager.getReadConnection()) {
             String sql = "SELECT * FROM leaderboard_contests WHERE contest_id = ?";
-            java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+            java.sql.PreparedStatement pstmt = reader.prepareStatement(sql);
             pstmt.setString(1, contestId);
             java.sql.ResultSet rs = pstmt.executeQuery();
             
@@ -139,13 +141,14 @@ public class LeaderboardDatabase {
      * Update leaderboard contest status
      */
     public boolean updateLeaderboardContestStatus(String contestId, boolean isActive) {
-        try {
+        try (UnitOfWork work = UnitOfWork.begin(dbManager.getConnection())) {
             String sql = "UPDATE leaderboard_contests SET is_active = ? WHERE contest_id = ?";
             java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
             pstmt.setInt(1, isActive ? 1 : 0);
             pstmt.setString(2, contestId);
             pstmt.executeUpdate();
             pstmt.close();
+            work.commit();
             return true;
         } catch (Exception e) {
             System.err.println("Error updating leaderboard contest status: " + e.getMessage());
@@ -159,7 +162,7 @@ public class LeaderboardDatabase {
      * Register a user for a leaderboard contest
      */
     public boolean registerUserForLeaderboardContest(String contestId, String username) {
-        try {
+        try (UnitOfWork work = UnitOfWork.begin(dbManager.getConnection())) {
             String sql = "INSERT INTO leaderboard_registrations (contest_id, username, registered_at) " +
                     "VALUES (?, ?, ?)";
             java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
@@ -168,6 +171,7 @@ public class LeaderboardDatabase {
             pstmt.setString(3, LocalDateTime.now().format(formatter));
             pstmt.executeUpdate();
             pstmt.close();
+            work.commit();
             return true;
         } catch (Exception e) {
             System.err.println("Error registering user for leaderboard contest: " + e.getMessage());
@@ -179,13 +183,14 @@ public class LeaderboardDatabase {
      * Unregister a user from a leaderboard contest
      */
     public boolean unregisterUserFromLeaderboardContest(String contestId, String username) {
-        try {
+        try (UnitOfWork work = UnitOfWork.begin(dbManager.getConnection())) {
             String sql = "DELETE FROM leaderboard_registrations WHERE contest_id = ? AND username = ?";
             java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
             pstmt.setString(1, contestId);
             pstmt.setString(2, username);
             pstmt.executeUpdate();
             pstmt.close();
+            work.commit();
             return true;
         } catch (Exception e) {
             System.err.println("Error unregistering user from leaderboard contest: " + e.getMessage());
@@ -197,9 +202,9 @@ public class LeaderboardDatabase {
      * Check if user is registered for a contest
      */
     public boolean isUserRegisteredForContest(String contestId, String username) {
-        try {
+        try (java.sql.Connection reader = dbManager.getReadConnection()) {
             String sql = "SELECT 1 FROM leaderboard_registrations WHERE contest_id = ? AND username = ?";
-            java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+            java.sql.PreparedStatement pstmt = reader.prepareStatement(sql);
             pstmt.setString(1, contestId);
             pstmt.setString(2, username);
             java.sql.ResultSet rs = pstmt.executeQuery();
@@ -218,10 +223,10 @@ public class LeaderboardDatabase {
      */
     public List<String> getRegisteredUsersForContest(String contestId) {
         List<String> users = new ArrayList<>();
-        try {
+        try (java.sql.Connection reader = dbManager.getReadConnection()) {
             String sql = "SELECT username FROM leaderboard_registrations WHERE contest_id = ? ORDER BY registered_at";
             System.out.println("DEBUG LeaderboardDatabase: Getting registered users for contest: " + contestId);
-            java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+            java.sql.PreparedStatement pstmt = reader.prepareStatement(sql);
             pstmt.setString(1, contestId);
             java.sql.ResultSet rs = pstmt.executeQuery();
             
@@ -244,41 +249,26 @@ public class LeaderboardDatabase {
 
     // ============ LEADERBOARD ENTRY OPERATIONS (Individual Contest Standings) ============
 
+    private static final String UPSERT_ENTRY_SQL =
+            "INSERT INTO leaderboard_entries (contest_id, username, rank, solve_count, total_penalty, total_time, status) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT (contest_id, username) DO UPDATE SET " +
+            "rank = excluded.rank, solve_count = excluded.solve_count, total_penalty = excluded.total_penalty, " +
+            "total_time = excluded.total_time, status = excluded.status";
+
     /**
      * Add or update leaderboard entry for a user in a contest
      */
     public boolean addLeaderboardEntry(LeaderboardEntry entry) {
-        try {
-            String checkSql = "SELECT id FROM leaderboard_entries WHERE contest_id = ? AND username = ?";
-            java.sql.PreparedStatement checkStmt = dbManager.getConnection().prepareStatement(checkSql);
-            checkStmt.setString(1, entry.getContestId());
-            checkStmt.setString(2, entry.getUsername());
-            java.sql.ResultSet rs = checkStmt.executeQuery();
-            
-            boolean exists = rs.next();
-            rs.close();
-            checkStmt.close();
-            
-            String sql;
-            if (exists) {
-                sql = "UPDATE leaderboard_entries SET rank = ?, solve_count = ?, total_penalty = ?, " +
-                      "total_time = ?, status = ? WHERE contest_id = ? AND username = ?";
-            } else {
-                sql = "INSERT INTO leaderboard_entries (contest_id, username, rank, solve_count, " +
-                      "total_penalty, total_time, status) VALUES (?, ?, ?, ?, ?, ?, ?)";
-            }
-            
-            java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
-            
-            if (exists) {
-                pstmt.setInt(1, entry.getRank());
-                pstmt.setInt(2, entry.getSolveCount());
-                pstmt.setInt(3, entry.getTotalPenalty());
-                pstmt.setLong(4, entry.getTotalTime());
-                pstmt.setString(5, entry.getStatus());
-                pstmt.setString(6, entry.getContestId());
-                pstmt.setString(7, entry.getUsername());
-            } else {
+        return saveLeaderboardEntries(Collections.singletonList(entry));
+    }
+
+    /**
+     * Add or update many leaderboard entries as one batch in one transaction
+     */
+    public boolean saveLeaderboardEntries(List<LeaderboardEntry> entries) {
+        try (UnitOfWork work = UnitOfWork.begin(dbManager.getConnection())) {
+            java.sql.PreparedStatement pstmt = work.batch(UPSERT_ENTRY_SQL);
+            for (LeaderboardEntry entry : entries) {
                 pstmt.setString(1, entry.getContestId());
                 pstmt.setString(2, entry.getUsername());
                 pstmt.setInt(3, entry.getRank());
@@ -286,13 +276,13 @@ public class LeaderboardDatabase {
                 pstmt.setInt(5, entry.getTotalPenalty());
                 pstmt.setLong(6, entry.getTotalTime());
                 pstmt.setString(7, entry.getStatus());
+                pstmt.addBatch();
+                work.added(pstmt);
             }
-            
-            pstmt.executeUpdate();
-            pstmt.close();
+            work.commit();
             return true;
         } catch (Exception e) {
-            System.err.println("Error adding/updating leaderboard entry: " + e.getMessage());
+            System.err.println("Error adding/updating leaderboard entries: " + e.getMessage());
             return false;
         }
     }
@@ -301,10 +291,22 @@ public class LeaderboardDatabase {
      * Get standings for a specific contest
      */
     public List<LeaderboardEntry> getContestStandings(String contestId) {
+        try (java.sql.Connection reader = dbManager.getReadConnection()) {
+            return getContestStandings(reader, contestId);
+        } catch (Exception e) {
+            System.err.println("Error retrieving contest standings: " + e.getMessage());
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Standings of a contest read on {@code connection}, e.g. the writer inside a transaction
+     */
+    private List<LeaderboardEntry> getContestStandings(java.sql.Connection connection, String contestId) {
         List<LeaderboardEntry> standings = new ArrayList<>();
         try {
             String sql = "SELECT * FROM leaderboard_entries WHERE contest_id = ? ORDER BY rank ASC";
-            java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+            java.sql.PreparedStatement pstmt = connection.prepareStatement(sql);
             pstmt.setString(1, contestId);
             java.sql.ResultSet rs = pstmt.executeQuery();
             
@@ -332,13 +334,14 @@ public class LeaderboardDatabase {
      * Delete a single leaderboard entry for a user in a contest
      */
     public boolean deleteLeaderboardEntry(String contestId, String username) {
-        try {
+        try (UnitOfWork work = UnitOfWork.begin(dbManager.getConnection())) {
             String sql = "DELETE FROM leaderboard_entries WHERE contest_id = ? AND username = ?";
             java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
             pstmt.setString(1, contestId);
             pstmt.setString(2, username);
             int affected = pstmt.executeUpdate();
             pstmt.close();
+            work.commit();
             return affected > 0;
         } catch (Exception e) {
             System.err.println("Error deleting leaderboard entry: " + e.getMessage());
@@ -350,12 +353,13 @@ public class LeaderboardDatabase {
      * Delete leaderboard entries for a contest (for re-calculation)
      */
     public boolean deleteContestStandings(String contestId) {
-        try {
+        try (UnitOfWork work = UnitOfWork.begin(dbManager.getConnection())) {
             String sql = "DELETE FROM leaderboard_entries WHERE contest_id = ?";
             java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
             pstmt.setString(1, contestId);
             pstmt.executeUpdate();
             pstmt.close();
+            work.commit();
             return true;
         } catch (Exception e) {
             System.err.println("Error deleting contest standings: " + e.getMessage());
@@ -367,65 +371,77 @@ public class LeaderboardDatabase {
 
     /**
      * Calculate and update the combined leaderboard
-     * This aggregates all contest standings into an overall ranking
+     * This aggregates all contest standings into an overall ranking, rewritten in one transaction
      */
     public boolean updateCombinedLeaderboard() {
-        try {
+        try (UnitOfWork work = UnitOfWork.begin(dbManager.getConnection())) {
             // Get all contests with finalized standings
             String contestSql = "SELECT contest_id FROM leaderboard_contests WHERE standings_finalized = 1";
             java.sql.Statement contestStmt = dbManager.getConnection().createStatement();
             java.sql.ResultSet contestRs = contestStmt.executeQuery(contestSql);
             
-            Map<String, Integer> userTotalSolves = new HashMap<>();
-            Map<String, Integer> userTotalPenalty = new HashMap<>();
-            Map<String, Integer> userContestCount = new HashMap<>();
+            // Per-user totals as primitive columns; row = order of first appearance
+            Map<String, Integer> userRows = new HashMap<>();
+            List<String> usernames = new ArrayList<>();
+            int[] totalSolves = new int[64];
+            int[] totalPenalty = new int[64];
+            int[] contestCount = new int[64];
             
             while (contestRs.next()) {
                 String contestId = contestRs.getString("contest_id");
-                List<LeaderboardEntry> standings = getContestStandings(contestId);
+                List<LeaderboardEntry> standings = getContestStandings(work.getConnection(), contestId);
                 
                 for (LeaderboardEntry entry : standings) {
-                    String username = entry.getUsername();
-                    userTotalSolves.put(username, userTotalSolves.getOrDefault(username, 0) + entry.getSolveCount());
-                    userTotalPenalty.put(username, userTotalPenalty.getOrDefault(username, 0) + entry.getTotalPenalty());
-                    userContestCount.put(username, userContestCount.getOrDefault(username, 0) + 1);
+                    Integer row = userRows.get(entry.getUsername());
+                    if (row == null) {
+                        row = usernames.size();
+                        userRows.put(entry.getUsername(), row);
+                        usernames.add(entry.getUsername());
+                        if (row == totalSolves.length) {
+                            totalSolves = Arrays.copyOf(totalSolves, row * 2);
+                            totalPenalty = Arrays.copyOf(totalPenalty, row * 2);
+                            contestCount = Arrays.copyOf(contestCount, row * 2);
+                        }
+                    }
+                    totalSolves[row] += entry.getSolveCount();
+                    totalPenalty[row] += entry.getTotalPenalty();
+                    contestCount[row]++;
                 }
             }
             contestRs.close();
             contestStmt.close();
             
             // Clear existing combined leaderboard
-            String clearSql = "DELETE FROM combined_leaderboard";
-            java.sql.Statement clearStmt = dbManager.getConnection().createStatement();
-            clearStmt.executeUpdate(clearSql);
-            clearStmt.close();
+            work.execute("DELETE FROM combined_leaderboard");
             
-            // Sort users by total solves (descending) then by total penalty (ascending)
-            List<String> sortedUsers = new ArrayList<>(userTotalSolves.keySet());
-            sortedUsers.sort((a, b) -> {
-                int comparesolves = Integer.compare(userTotalSolves.get(b), userTotalSolves.get(a));
-                if (comparesolves != 0) return comparesolves;
-                return Integer.compare(userTotalPenalty.get(a), userTotalPenalty.get(b));
-            });
+            // Rank users by total solves (descending) then by total penalty (ascending);
+            // users with identical totals keep their first-appearance order
+            int userCount = usernames.size();
+            int[] order = new int[userCount];
+            int[] ranks = new int[userCount];
+            RankingSort.sortByStanding(totalSolves, totalPenalty, userCount, order);
+            RankingSort.assignSequentialRanks(order, userCount, ranks);
             
             // Insert sorted users into combined leaderboard with ranks
             String insertSql = "INSERT INTO combined_leaderboard " +
                     "(username, total_solves, total_penalty, overall_rank, contests_participated, last_updated) " +
                     "VALUES (?, ?, ?, ?, ?, ?)";
             
-            for (int i = 0; i < sortedUsers.size(); i++) {
-                String username = sortedUsers.get(i);
-                java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(insertSql);
-                pstmt.setString(1, username);
-                pstmt.setInt(2, userTotalSolves.get(username));
-                pstmt.setInt(3, userTotalPenalty.get(username));
-                pstmt.setInt(4, i + 1); // 1-based ranking
-                pstmt.setInt(5, userContestCount.get(username));
-                pstmt.setString(6, LocalDateTime.now().format(formatter));
-                pstmt.executeUpdate();
-                pstmt.close();
+            java.sql.PreparedStatement pstmt = work.batch(insertSql);
+            String now = LocalDateTime.now().format(formatter);
+            for (int i = 0; i < userCount; i++) {
+                int row = order[i];
+                pstmt.setString(1, usernames.get(row));
+                pstmt.setInt(2, totalSolves[row]);
+                pstmt.setInt(3, totalPenalty[row]);
+                pstmt.setInt(4, ranks[row]); // position in the sorted order, from 1
+                pstmt.setInt(5, contestCount[row]);
+                pstmt.setString(6, now);
+                pstmt.addBatch();
+                work.added(pstmt);
             }
             
+            work.commit();
             return true;
         } catch (Exception e) {
             System.err.println("Error updating combined leaderboard: " + e.getMessage());
@@ -438,9 +454,9 @@ public class LeaderboardDatabase {
      */
     public List<CombinedLeaderboardEntry> getCombinedLeaderboard() {
         List<CombinedLeaderboardEntry> leaderboard = new ArrayList<>();
-        try {
+        try (java.sql.Connection reader = dbManager.getReadConnection()) {
             String sql = "SELECT * FROM combined_leaderboard ORDER BY overall_rank ASC";
-            java.sql.Statement stmt = dbManager.getConnection().createStatement();
+            java.sql.Statement stmt = reader.createStatement();
             java.sql.ResultSet rs = stmt.executeQuery(sql);
             
             while (rs.next()) {
@@ -475,18 +491,18 @@ public class LeaderboardDatabase {
 
     /**
      * Finalize standings for a contest (mark standings as finalized)
+     * The flag and the rebuilt combined leaderboard are committed together, or not at all
      */
     public boolean finalizeContestStandings(String contestId) {
-        try {
-            String sql = "UPDATE leaderboard_contests SET standings_finalized = 1 WHERE contest_id = ?";
-            java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
-            pstmt.setString(1, contestId);
-            pstmt.executeUpdate();
-            pstmt.close();
+        try (UnitOfWork work = UnitOfWork.begin(dbManager.getConnection())) {
+            work.execute("UPDATE leaderboard_contests SET standings_finalized = 1 WHERE contest_id = ?", contestId);
             
             // Update combined leaderboard after finalizing standings
-            updateCombinedLeaderboard();
+            if (!updateCombinedLeaderboard()) {
+                return false;
+            }
             
+            work.commit();
             return true;
         } catch (Exception e) {
             System.err.println("Error finalizing contest standings: " + e.getMessage());
@@ -0,0 +1,130 @@
+package com.contestpredictor.data;
+
+import com.contestpredictor.model.Contest;
+import com.contestpredictor.model.Participant;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Participants of the contests opened recently, loaded on first access and bounded by row count
+ *
+ * Contests in the catalogue are loaded without their participants and point here
+ * ({@link Contest#setParticipantLoader}). A contest's standings are read on the first
+ * {@link Contest#getParticipants} call and kept while they are among the most recently used;
+ * once the cached rows pass the limit ({@code contestpredictor.participants.cache.rows}) the
+ * least recently used contests are dropped and read again if they are opened again. The contest
+ * used last is always kept, however large.
+ */
+public final class ParticipantCache implements Contest.ParticipantLoader {
+
+    /** Participant rows kept unless {@code contestpredictor.participants.cache.rows} is set */
+    public static final int DEFAULT_MAX_ROWS = 50_000;
+
+    private final int maxRows;
+    private final Function<String, List<Participant>> source;
+    private final LinkedHashMap<String, Loaded> cached = new LinkedHashMap<>(16, 0.75f, true);
+    private int rows;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * A contest's participants and how many there were when they were read
+     * Lists a contest holds on to may grow afterwards; the count is what was added to {@code rows}.
+     */
+    private static final class Loaded {
+        final List<Participant> participants;
+        final int rows;
+
+        Loaded(List<Participant> participants) {
+            this.participants = participants;
+            this.rows = participants.size();
+        }
+    }
+
+    /**
+     * @param maxRows Participant rows to keep before dropping the least recently used contests
+     * @param source Reads a contest's participants by contest id
+     */
+    public ParticipantCache(int maxRows, Function<String, List<Participant>> source) {
+        if (maxRows <= 0) {
+            throw new IllegalArgumentException("Row limit must be positive: " + maxRows);
+        }
+        this.maxRows = maxRows;
+        this.source = source;
+    }
+
+    /**
+     * Row limit from {@code contestpredictor.participants.cache.rows}
+     */
+    public static int configuredMaxRows() {
+        return Math.max(1, Integer.getInteger("contestpredictor.participants.cache.rows", DEFAULT_MAX_ROWS));
+    }
+
+    @Override
+    public synchronized List<Participant> load(Contest contest) {
+        String contestId = contest.getContestId();
+        Loaded loaded = cached.get(contestId);
+        if (loaded != null) {
+            hits++;
+            return loaded.participants;
+        }
+        misses++;
+        loaded = new Loaded(source.apply(contestId));
+        cached.put(contestId, loaded);
+        rows += loaded.rows;
+        evict();
+        return loaded.participants;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Loaded>> eldest = cached.entrySet().iterator();
+        while (rows > maxRows && cached.size() > 1) {
+            rows -= eldest.next().getValue().rows;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Drop a contest's participants, so the next access reads them again
+     */
+    public synchronized void invalidate(String contestId) {
+        Loaded loaded = cached.remove(contestId);
+        if (loaded != null) {
+            rows -= loaded.rows;
+        }
+    }
+
+    public synchronized int getCachedContests() {
+        return cached.size();
+    }
+
+    /** Participant rows held, as counted when each contest was read */
+    public synchronized int getCachedRows() {
+        return rows;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("contests=%d rows=%d/%d hits=%d misses=%d evictions=%d",
+            cached.size(), rows, maxRows, hits, misses, evictions);
+    }
+}
@@ -0,0 +1,98 @@
+package com.contestpredictor.data;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SQLite's plan for a query, from EXPLAIN QUERY PLAN, to check that a query uses the index meant for it
+ *
+ * Each step is one line of the plan, e.g. {@code SEARCH participants USING INDEX
+ * idx_participants_contest_rank (contest_id=?)} or {@code USE TEMP B-TREE FOR ORDER BY}.
+ * Parameters only need binding when they change the plan; unbound ones are planned as unknown values.
+ */
+public final class QueryPlan {
+
+    private final String sql;
+    private final List<String> steps;
+
+    private QueryPlan(String sql, List<String> steps) {
+        this.sql = sql;
+        this.steps = Collections.unmodifiableList(steps);
+    }
+
+    public static QueryPlan explain(Connection connection, String sql, Object... parameters) throws SQLException {
+        List<String> steps = new ArrayList<>();
+        try (PreparedStatement pstmt = connection.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                pstmt.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    steps.add(rs.getString("detail"));
+                }
+            }
+        }
+        return new QueryPlan(sql, steps);
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public List<String> getSteps() {
+        return steps;
+    }
+
+    /**
+     * Whether a step searches or scans through {@code index}, covering or not
+     */
+    public boolean usesIndex(String index) {
+        for (String step : steps) {
+            if (step.endsWith(" INDEX " + index) || step.contains(" INDEX " + index + " ")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the index used answers the query on its own, without reading the table
+     */
+    public boolean isCovering() {
+        for (String step : steps) {
+            if (step.contains(" USING COVERING INDEX ")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether {@code table} is read in full in storage order, without any index
+     */
+    public boolean scans(String table) {
+        return steps.contains("SCAN " + table);
+    }
+
+    /**
+     * Whether rows are sorted after being read, because no index returns them in order
+     */
+    public boolean sorts() {
+        for (String step : steps) {
+            if (step.startsWith("USE TEMP B-TREE")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return sql + "\n  " + String.join("\n  ", steps);
+    }
+}
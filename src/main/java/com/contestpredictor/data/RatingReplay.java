@@ -0,0 +1,726 @@
+package com.contestpredictor.data;
+
+import com.contestpredictor.model.ParticipantBatch;
+import com.contestpredictor.util.ClassicRatingEngine;
+import com.contestpredictor.util.RatingEngine;
+import com.contestpredictor.util.RatingEngines;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Rebuilds ratings from history by replaying every past contest in date order
+ *
+ * Contests and their participants are streamed from one query ordered by (date_time, contest_id),
+ * so only the contest being rated is held in memory. Each contest is rated with the configured
+ * engine from the replayed ratings, written to rating_history, and every checkpointInterval
+ * contests the replayed ratings are saved to rating_checkpoints in the same transaction. An
+ * interrupted replay therefore rolls back to its last checkpoint and {@link #resume()} carries on
+ * from there; {@link #replayFrom(String)} restarts from the checkpoint before any contest, e.g.
+ * after a past contest was edited or inserted. A participant's first contest starts them at the
+ * rating stored on that participant row. At the end users' current rating, contest count and
+ * rating history are rewritten from the replay. The writer lock is held for the whole run, so
+ * writes from other threads wait for it rather than land in its transaction. Started while
+ * auto-commit is already off, a run joins the caller's transaction and neither commits nor rolls
+ * back. The loaded users in UserDatabase are not refreshed here: callers do it on the thread
+ * that owns them once the run is committed.
+ */
+public class RatingReplay {
+
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 25;
+
+    private static final String CONTEST_STREAM_SQL =
+            "SELECT c.contest_id, c.date_time, p.username, p.current_rating, p.problems_solved, p.total_penalty " +
+            "FROM contests c JOIN participants p ON p.contest_id = c.contest_id " +
+            "WHERE c.is_past = 1 AND (c.date_time > ? OR (c.date_time = ? AND c.contest_id > ?)) " +
+            "ORDER BY c.date_time, c.contest_id, p.id";
+
+    private final Connection connection;
+    private final SqliteDataSource dataSource;
+    private final RatingEngine engine;
+    private final int checkpointInterval;
+
+    /**
+     * Outcome of a replay run
+     */
+    public static final class Result {
+        private final String resumedAfter;
+        private final int contestsReplayed;
+        private final int historyRows;
+        private final int usersUpdated;
+
+        Result(String resumedAfter, int contestsReplayed, int historyRows, int usersUpdated) {
+            this.resumedAfter = resumedAfter;
+            this.contestsReplayed = contestsReplayed;
+            this.historyRows = historyRows;
+            this.usersUpdated = usersUpdated;
+        }
+
+        /** Contest of the checkpoint the run started from, or null for a full replay */
+        public String getResumedAfter() {
+            return resumedAfter;
+        }
+
+        public int getContestsReplayed() {
+            return contestsReplayed;
+        }
+
+        public int getHistoryRows() {
+            return historyRows;
+        }
+
+        public int getUsersUpdated() {
+            return usersUpdated;
+        }
+    }
+
+    /**
+     * Saved replay state after a contest
+     */
+    private static final class Checkpoint {
+        final long id;
+        final String contestId;
+        final String contestDate;
+        final Map<String, int[]> ratings;
+
+        Checkpoint(long id, String contestId, String contestDate, Map<String, int[]> ratings) {
+            this.id = id;
+            this.contestId = contestId;
+            this.contestDate = contestDate;
+            this.ratings = ratings;
+        }
+    }
+
+    /**
+     * Position of a contest in replay order
+     */
+    private static final class ContestKey implements Comparable<ContestKey> {
+        final String date;
+        final String contestId;
+
+        ContestKey(String date, String contestId) {
+            this.date = date;
+            this.contestId = contestId;
+        }
+
+        @Override
+        public int compareTo(ContestKey other) {
+            int byDate = date.compareTo(other.date);
+            return byDate != 0 ? byDate : contestId.compareTo(other.contestId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ContestKey)) return false;
+            ContestKey other = (ContestKey) o;
+            return date.equals(other.date) && contestId.equals(other.contestId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(date, contestId);
+        }
+    }
+
+    /**
+     * Replay with the engine configured for {@link RatingEngines#SCREEN_REPLAY}
+     */
+    public RatingReplay() {
+        this(RatingEngines.forScreen(RatingEngines.SCREEN_REPLAY, ClassicRatingEngine.NAME), DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    public RatingReplay(RatingEngine engine, int checkpointInterval) {
+        if (checkpointInterval <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive: " + checkpointInterval);
+        }
+        this.connection = DatabaseManager.getInstance().getConnection();
+        this.dataSource = DatabaseManager.getInstance().getDataSource();
+        this.engine = engine;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Discard all rating history and checkpoints and replay every past contest
+     */
+    public Result replayAll() throws SQLException {
+        return run(null);
+    }
+
+    /**
+     * Continue from the latest checkpoint taken with this engine, or replay everything if there is none
+     */
+    public Result resume() throws SQLException {
+        // The checkpoint is chosen under the writer lock too, so no other write slips in before the run
+        return dataSource.withWriter(writer -> run(loadCheckpoint(latestCheckpointId(null))));
+    }
+
+    /**
+     * Replay from a contest onwards, starting at the latest checkpoint before it
+     * @param contestId First contest that must be re-rated
+     */
+    public Result replayFrom(String contestId) throws SQLException {
+        return dataSource.withWriter(writer -> replayFromHoldingWriter(contestId));
+    }
+
+    private Result replayFromHoldingWriter(String contestId) throws SQLException {
+        String contestDate = null;
+        try (PreparedStatement pstmt = connection.prepareStatement("SELECT date_time FROM contests WHERE contest_id = ?")) {
+            pstmt.setString(1, contestId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    contestDate = rs.getString(1);
+                }
+            }
+        }
+        if (contestDate == null) {
+            throw new IllegalArgumentException("Unknown contest: " + contestId);
+        }
+        return run(loadCheckpoint(latestCheckpointId(new String[] {contestDate, contestId})));
+    }
+
+    /**
+     * Re-rate an edited past contest and carry the change forward through the history
+     *
+     * Only contests reached through the user -> contest dependency graph are recomputed: a later
+     * contest is re-rated when one of its participants enters it with a different rating from the
+     * one rating_history recorded, and a participant stops propagating as soon as their new rating
+     * matches the stored one again. Users no longer among a contest's participants (e.g. after
+     * its standings were imported again) carry the rating they entered it with on to their next
+     * one. Checkpoints from the edited contest on are dropped. Runs in one transaction, or
+     * inside the caller's when auto-commit is already off. In its own transaction
+     * the signed-in users' ratings are refreshed after the commit; inside the caller's they cannot
+     * be yet (readers only see committed rows), so the caller refreshes them after committing when
+     * {@link Result#getUsersUpdated} is positive. Contests that were never replayed have no
+     * history to correct and are left alone.
+     * @param contestId Contest whose results changed
+     */
+    public Result propagateEdit(String contestId) throws SQLException {
+        return dataSource.withWriter(writer -> propagateEditHoldingWriter(contestId));
+    }
+
+    private Result propagateEditHoldingWriter(String contestId) throws SQLException {
+        boolean ownTransaction = connection.getAutoCommit();
+        if (ownTransaction) {
+            connection.setAutoCommit(false);
+        }
+        try {
+            ContestKey edited = contestKey(contestId);
+            int contests = 0;
+            int historyRows = 0;
+            Set<String> changedUsers = new HashSet<>();
+            if (edited != null && hasHistory(contestId)) {
+                Map<String, Integer> corrected = new HashMap<>();
+                Map<String, ContestKey[]> timelines = new HashMap<>();
+                TreeSet<ContestKey> pending = new TreeSet<>();
+                pending.add(edited);
+                while (!pending.isEmpty()) {
+                    historyRows += rerateContest(pending.pollFirst(), corrected, pending, changedUsers, timelines);
+                    contests++;
+                }
+                dropCheckpointsFrom(edited);
+            }
+            int usersUpdated = changedUsers.isEmpty() ? 0 : updateUsers(changedUsers);
+            if (ownTransaction) {
+                connection.commit();
+            }
+            if (ownTransaction && usersUpdated > 0) {
+                UserDatabase.getInstance().refreshRatings();
+            }
+            return new Result(null, contests, historyRows, usersUpdated);
+        } catch (SQLException | RuntimeException e) {
+            if (ownTransaction) {
+                connection.rollback();
+            }
+            System.err.println("Failed to propagate edit of contest " + contestId + ": " + e.getMessage());
+            throw e;
+        } finally {
+            if (ownTransaction) {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Re-rate one contest from its participants' corrected incoming ratings and rewrite its history
+     * Participants whose new rating changed are recorded in {@code corrected} and their next
+     * contest is queued; those that match the stored history again are dropped from it
+     * @return History rows written
+     */
+    private int rerateContest(ContestKey key, Map<String, Integer> corrected, TreeSet<ContestKey> pending,
+                              Set<String> changedUsers, Map<String, ContestKey[]> timelines) throws SQLException {
+        ParticipantBatch batch = new ParticipantBatch(64);
+        Map<String, Integer> storedNewRatings = new HashMap<>();
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "SELECT p.username, p.current_rating, p.problems_solved, p.total_penalty, h.old_rating, h.new_rating " +
+                "FROM participants p LEFT JOIN rating_history h ON h.contest_id = p.contest_id AND h.username = p.username " +
+                "WHERE p.contest_id = ? ORDER BY p.id")) {
+            pstmt.setString(1, key.contestId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String username = rs.getString(1);
+                    if (storedNewRatings.containsKey(username)) {
+                        continue; // duplicate entry for the same contest
+                    }
+                    int storedOldRating = rs.getInt(5);
+                    boolean hasHistory = !rs.wasNull();
+                    int incoming = corrected.containsKey(username) ? corrected.get(username)
+                            : hasHistory ? storedOldRating : rs.getInt(2);
+                    storedNewRatings.put(username, hasHistory ? rs.getInt(6) : null);
+                    batch.add(username, incoming, rs.getInt(3), rs.getInt(4), 0);
+                }
+            }
+        }
+
+        Map<String, Integer> dropped = droppedParticipants(key, corrected);
+
+        try (PreparedStatement pstmt = connection.prepareStatement("DELETE FROM rating_history WHERE contest_id = ?")) {
+            pstmt.setString(1, key.contestId);
+            pstmt.executeUpdate();
+        }
+        try (PreparedStatement history = connection.prepareStatement(
+                "INSERT INTO rating_history (contest_id, username, old_rating, new_rating, delta, contest_date) VALUES (?, ?, ?, ?, ?, ?)")) {
+            rateContest(key.contestId, key.date, batch, new HashMap<>(), history);
+        }
+
+        int[] newRatings = batch.getNewRatings();
+        for (int row = 0; row < batch.size(); row++) {
+            String username = batch.getUsername(row);
+            Integer stored = storedNewRatings.get(username);
+            if (stored != null && stored == newRatings[row]) {
+                corrected.remove(username); // converged: later contests already saw this rating
+                continue;
+            }
+            corrected.put(username, newRatings[row]);
+            changedUsers.add(username);
+            ContestKey next = nextContest(username, key, timelines);
+            if (next != null) {
+                pending.add(next);
+            }
+        }
+        // No longer in the contest: they reach their next one with the rating they came in with
+        for (Map.Entry<String, Integer> entry : dropped.entrySet()) {
+            String username = entry.getKey();
+            changedUsers.add(username);
+            ContestKey next = nextContest(username, key, timelines);
+            if (next == null) {
+                corrected.remove(username);
+                continue;
+            }
+            Integer incoming = entry.getValue();
+            corrected.put(username, incoming != null ? incoming : startingRating(next, username));
+            pending.add(next);
+        }
+        return batch.size();
+    }
+
+    /**
+     * Users rated in a contest whose participants no longer include them, with the rating they entered it with
+     * The rating is null when it was their first rated contest, so their next contest becomes
+     * their first and starts from its participant row
+     */
+    private Map<String, Integer> droppedParticipants(ContestKey key, Map<String, Integer> corrected) throws SQLException {
+        Map<String, Integer> dropped = new HashMap<>();
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "SELECT h.username, h.old_rating, EXISTS (SELECT 1 FROM rating_history e " +
+                "JOIN contests c ON c.contest_id = e.contest_id WHERE e.username = h.username " +
+                "AND (c.date_time < ? OR (c.date_time = ? AND c.contest_id < ?))) " +
+                "FROM rating_history h WHERE h.contest_id = ? AND NOT EXISTS (SELECT 1 FROM participants p " +
+                "WHERE p.contest_id = h.contest_id AND p.username = h.username)")) {
+            pstmt.setString(1, key.date);
+            pstmt.setString(2, key.date);
+            pstmt.setString(3, key.contestId);
+            pstmt.setString(4, key.contestId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String username = rs.getString(1);
+                    Integer incoming = null;
+                    if (rs.getBoolean(3)) {
+                        incoming = corrected.containsKey(username) ? corrected.get(username) : rs.getInt(2);
+                    }
+                    dropped.put(username, incoming);
+                }
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * Rating on a user's participant row in a contest, which a replay starts them from when it is their first
+     */
+    private int startingRating(ContestKey key, String username) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "SELECT current_rating FROM participants WHERE contest_id = ? AND username = ? ORDER BY id LIMIT 1")) {
+            pstmt.setString(1, key.contestId);
+            pstmt.setString(2, username);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * The user's first contest in rating_history after the given one, or null
+     * Each user's contests are read once per propagation and kept in {@code timelines}
+     */
+    private ContestKey nextContest(String username, ContestKey after, Map<String, ContestKey[]> timelines) throws SQLException {
+        ContestKey[] timeline = timelines.get(username);
+        if (timeline == null) {
+            List<ContestKey> keys = new ArrayList<>();
+            try (PreparedStatement pstmt = connection.prepareStatement(
+                    "SELECT c.date_time, c.contest_id FROM rating_history h JOIN contests c ON c.contest_id = h.contest_id " +
+                    "WHERE h.username = ? ORDER BY c.date_time, c.contest_id")) {
+                pstmt.setString(1, username);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        keys.add(new ContestKey(rs.getString(1), rs.getString(2)));
+                    }
+                }
+            }
+            timeline = keys.toArray(new ContestKey[0]);
+            timelines.put(username, timeline);
+        }
+        int index = Arrays.binarySearch(timeline, after);
+        int next = index >= 0 ? index + 1 : -index - 1;
+        return next < timeline.length ? timeline[next] : null;
+    }
+
+    private ContestKey contestKey(String contestId) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement("SELECT date_time FROM contests WHERE contest_id = ?")) {
+            pstmt.setString(1, contestId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? new ContestKey(rs.getString(1), contestId) : null;
+            }
+        }
+    }
+
+    private boolean hasHistory(String contestId) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement("SELECT 1 FROM rating_history WHERE contest_id = ? LIMIT 1")) {
+            pstmt.setString(1, contestId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * Checkpoints taken at or after a contest no longer match the history
+     */
+    private void dropCheckpointsFrom(ContestKey key) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "DELETE FROM rating_checkpoints WHERE contest_date > ? OR (contest_date = ? AND contest_id >= ?)")) {
+            pstmt.setString(1, key.date);
+            pstmt.setString(2, key.date);
+            pstmt.setString(3, key.contestId);
+            pstmt.executeUpdate();
+        }
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("DELETE FROM rating_checkpoint_entries WHERE checkpoint_id NOT IN (SELECT id FROM rating_checkpoints)");
+        }
+    }
+
+    private Result run(Checkpoint start) throws SQLException {
+        return dataSource.withWriter(writer -> runHoldingWriter(start));
+    }
+
+    private Result runHoldingWriter(Checkpoint start) throws SQLException {
+        boolean ownTransaction = connection.getAutoCommit();
+        if (ownTransaction) {
+            connection.setAutoCommit(false);
+        }
+        try {
+            discardAfter(start);
+            Map<String, int[]> ratings = start != null ? start.ratings : new HashMap<>();
+            int[] counts = replay(start, ratings, ownTransaction);
+            int usersUpdated = updateUsers(null);
+            if (ownTransaction) {
+                connection.commit();
+            }
+            System.out.println("Rating replay: " + counts[0] + " contests, " + counts[1] + " history rows, "
+                    + usersUpdated + " users updated" + (start != null ? " (resumed after " + start.contestId + ")" : ""));
+            return new Result(start != null ? start.contestId : null, counts[0], counts[1], usersUpdated);
+        } catch (SQLException | RuntimeException e) {
+            if (ownTransaction) {
+                connection.rollback();
+                System.err.println("Rating replay failed, rolled back to the last checkpoint: " + e.getMessage());
+            } else {
+                System.err.println("Rating replay failed: " + e.getMessage());
+            }
+            throw e;
+        } finally {
+            if (ownTransaction) {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Drop the history rows and checkpoints that the run is about to rebuild; checkpoints of
+     * other engines no longer match the history and go as well
+     */
+    private void discardAfter(Checkpoint start) throws SQLException {
+        if (start == null) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.executeUpdate("DELETE FROM rating_history");
+            }
+        } else {
+            try (PreparedStatement pstmt = connection.prepareStatement(
+                    "DELETE FROM rating_history WHERE contest_id IN (SELECT contest_id FROM contests " +
+                    "WHERE date_time > ? OR (date_time = ? AND contest_id > ?))")) {
+                pstmt.setString(1, start.contestDate);
+                pstmt.setString(2, start.contestDate);
+                pstmt.setString(3, start.contestId);
+                pstmt.executeUpdate();
+            }
+        }
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "DELETE FROM rating_checkpoints WHERE engine <> ? OR id > ?")) {
+            pstmt.setString(1, engine.getName());
+            pstmt.setLong(2, start != null ? start.id : 0);
+            pstmt.executeUpdate();
+        }
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("DELETE FROM rating_checkpoint_entries WHERE checkpoint_id NOT IN (SELECT id FROM rating_checkpoints)");
+        }
+    }
+
+    /**
+     * Stream and rate every contest after the start checkpoint
+     * @param commitCheckpoints Commit at each checkpoint; false inside a caller's transaction,
+     *                          where checkpoints are still written but committed with the rest
+     * @return {contests replayed, history rows written}
+     */
+    private int[] replay(Checkpoint start, Map<String, int[]> ratings, boolean commitCheckpoints) throws SQLException {
+        String date = start != null ? start.contestDate : "";
+        String afterId = start != null ? start.contestId : "";
+        int contests = 0;
+        int historyRows = 0;
+
+        ParticipantBatch batch = new ParticipantBatch(256);
+        Set<String> seen = new HashSet<>();
+        String contestId = null;
+        String contestDate = null;
+        String checkpointed = null;
+        try (PreparedStatement stream = connection.prepareStatement(CONTEST_STREAM_SQL);
+             PreparedStatement history = connection.prepareStatement(
+                     "INSERT INTO rating_history (contest_id, username, old_rating, new_rating, delta, contest_date) VALUES (?, ?, ?, ?, ?, ?)")) {
+            stream.setString(1, date);
+            stream.setString(2, date);
+            stream.setString(3, afterId);
+            try (ResultSet rs = stream.executeQuery()) {
+                while (rs.next()) {
+                    String rowContest = rs.getString(1);
+                    if (!rowContest.equals(contestId)) {
+                        if (contestId != null) {
+                            historyRows += rateContest(contestId, contestDate, batch, ratings, history);
+                            contests++;
+                            if (contests % checkpointInterval == 0) {
+                                saveCheckpoint(contestId, contestDate, ratings);
+                                if (commitCheckpoints) {
+                                    connection.commit();
+                                }
+                                checkpointed = contestId;
+                            }
+                        }
+                        contestId = rowContest;
+                        contestDate = rs.getString(2);
+                        batch.clear();
+                        seen.clear();
+                    }
+                    String username = rs.getString(3);
+                    if (!seen.add(username)) {
+                        continue; // duplicate entry for the same contest
+                    }
+                    int[] state = ratings.get(username);
+                    int rating = state != null ? state[0] : rs.getInt(4);
+                    batch.add(username, rating, rs.getInt(5), rs.getInt(6), 0);
+                }
+            }
+            if (contestId != null) {
+                historyRows += rateContest(contestId, contestDate, batch, ratings, history);
+                contests++;
+                if (!contestId.equals(checkpointed)) {
+                    saveCheckpoint(contestId, contestDate, ratings);
+                }
+            }
+        }
+        return new int[] {contests, historyRows};
+    }
+
+    private int rateContest(String contestId, String contestDate, ParticipantBatch batch,
+                            Map<String, int[]> ratings, PreparedStatement history) throws SQLException {
+        engine.calculateRatings(batch);
+        int[] oldRatings = batch.getRatings();
+        int[] newRatings = batch.getNewRatings();
+        int[] deltas = batch.getDeltas();
+        for (int row = 0; row < batch.size(); row++) {
+            String username = batch.getUsername(row);
+            history.setString(1, contestId);
+            history.setString(2, username);
+            history.setInt(3, oldRatings[row]);
+            history.setInt(4, newRatings[row]);
+            history.setInt(5, deltas[row]);
+            history.setString(6, contestDate);
+            history.addBatch();
+
+            int[] state = ratings.computeIfAbsent(username, name -> new int[2]);
+            state[0] = newRatings[row];
+            state[1]++;
+        }
+        history.executeBatch();
+        return batch.size();
+    }
+
+    private void saveCheckpoint(String contestId, String contestDate, Map<String, int[]> ratings) throws SQLException {
+        long checkpointId;
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "INSERT INTO rating_checkpoints (engine, contest_id, contest_date, created_at) VALUES (?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            pstmt.setString(1, engine.getName());
+            pstmt.setString(2, contestId);
+            pstmt.setString(3, contestDate);
+            pstmt.setString(4, LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            pstmt.executeUpdate();
+            try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                keys.next();
+                checkpointId = keys.getLong(1);
+            }
+        }
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "INSERT INTO rating_checkpoint_entries (checkpoint_id, username, rating, contests) VALUES (?, ?, ?, ?)")) {
+            for (Map.Entry<String, int[]> entry : ratings.entrySet()) {
+                pstmt.setLong(1, checkpointId);
+                pstmt.setString(2, entry.getKey());
+                pstmt.setInt(3, entry.getValue()[0]);
+                pstmt.setInt(4, entry.getValue()[1]);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    /**
+     * Latest checkpoint of this engine, optionally only those taken before a (date, contest) key
+     * @return The checkpoint id, or 0 if there is none
+     */
+    private long latestCheckpointId(String[] before) throws SQLException {
+        String sql = "SELECT id FROM rating_checkpoints WHERE engine = ?" +
+                (before != null ? " AND (contest_date < ? OR (contest_date = ? AND contest_id < ?))" : "") +
+                " ORDER BY contest_date DESC, contest_id DESC LIMIT 1";
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setString(1, engine.getName());
+            if (before != null) {
+                pstmt.setString(2, before[0]);
+                pstmt.setString(3, before[0]);
+                pstmt.setString(4, before[1]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    private Checkpoint loadCheckpoint(long checkpointId) throws SQLException {
+        if (checkpointId == 0) {
+            return null;
+        }
+        String contestId;
+        String contestDate;
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "SELECT contest_id, contest_date FROM rating_checkpoints WHERE id = ?")) {
+            pstmt.setLong(1, checkpointId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                contestId = rs.getString(1);
+                contestDate = rs.getString(2);
+            }
+        }
+        Map<String, int[]> ratings = new HashMap<>();
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "SELECT username, rating, contests FROM rating_checkpoint_entries WHERE checkpoint_id = ?")) {
+            pstmt.setLong(1, checkpointId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ratings.put(rs.getString(1), new int[] {rs.getInt(2), rs.getInt(3)});
+                }
+            }
+        }
+        return new Checkpoint(checkpointId, contestId, contestDate, ratings);
+    }
+
+    /**
+     * Rewrite current rating, contest count and rating history of registered users from rating_history
+     * @param only Users to rewrite, or null for everyone who took part in a contest
+     * @return Number of users updated
+     */
+    private int updateUsers(Set<String> only) throws SQLException {
+        Map<String, StringBuilder> histories = new LinkedHashMap<>();
+        Map<String, int[]> finals = new HashMap<>();
+        String select = "SELECT h.username, h.old_rating, h.new_rating FROM rating_history h " +
+                "JOIN users u ON u.username = h.username " +
+                "JOIN contests c ON c.contest_id = h.contest_id ";
+        String order = "ORDER BY c.date_time, c.contest_id";
+        if (only == null) {
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery(select + order)) {
+                readHistories(rs, histories, finals);
+            }
+        } else {
+            // One lookup per changed user on idx_rating_history_user, not a pass over the whole history
+            try (PreparedStatement pstmt = connection.prepareStatement(select + "WHERE h.username = ? " + order)) {
+                for (String username : only) {
+                    pstmt.setString(1, username);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        readHistories(rs, histories, finals);
+                    }
+                }
+            }
+        }
+
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "UPDATE users SET current_rating = ?, contests_participated = ?, rating_history = ? WHERE username = ?")) {
+            for (Map.Entry<String, StringBuilder> entry : histories.entrySet()) {
+                int[] state = finals.get(entry.getKey());
+                pstmt.setInt(1, state[0]);
+                pstmt.setInt(2, state[1]);
+                pstmt.setString(3, entry.getValue().toString());
+                pstmt.setString(4, entry.getKey());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+        return histories.size();
+    }
+
+    /**
+     * Append each row's new rating to its user's history, in the order the rows come
+     */
+    private static void readHistories(ResultSet rs, Map<String, StringBuilder> histories, Map<String, int[]> finals)
+            throws SQLException {
+        while (rs.next()) {
+            String username = rs.getString(1);
+            StringBuilder history = histories.get(username);
+            if (history == null) {
+                history = new StringBuilder().append(rs.getInt(2));
+                histories.put(username, history);
+                finals.put(username, new int[2]);
+            }
+            history.append(',').append(rs.getInt(3));
+            int[] state = finals.get(username);
+            state[0] = rs.getInt(3);
+            state[1]++;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.contestpredictor.data;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Brings the database schema up to date with the migration scripts on the classpath
+ *
+ * Scripts live under {@code /db/migration} and are named {@code V<version>__<description>.sql};
+ * they run in version order, each in its own transaction together with its row in
+ * {@code schema_version}, so a failed script leaves the database at the previous version.
+ * A database is at the highest version recorded there, and only later scripts are run.
+ * To change the schema, add a script with the next version to {@link #SCRIPTS}; never edit
+ * one that has shipped. Version 1 is the schema from before migrations, written with
+ * IF NOT EXISTS so databases created then are adopted as they are.
+ */
+public final class SchemaMigrations {
+
+    private static final String LOCATION = "/db/migration/";
+
+    /** Every migration, in version order */
+    private static final String[] SCRIPTS = {
+        "V1__baseline_schema.sql",
+        "V2__rating_replay.sql",
+        "V3__query_indexes.sql",
+    };
+
+    /**
+     * A migration script
+     */
+    public static final class Migration {
+        private final int version;
+        private final String description;
+        private final String script;
+
+        Migration(int version, String description, String script) {
+            this.version = version;
+            this.description = description;
+            this.script = script;
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public String getScript() {
+            return script;
+        }
+
+        @Override
+        public String toString() {
+            return "V" + version + " " + description;
+        }
+    }
+
+    private SchemaMigrations() {
+    }
+
+    /**
+     * Run the migrations the database has not had yet
+     * @return Migrations applied
+     */
+    public static List<Migration> migrate(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                    "version INTEGER PRIMARY KEY," +
+                    "description TEXT NOT NULL," +
+                    "installed_at TEXT NOT NULL," +
+                    "execution_ms INTEGER NOT NULL" +
+                    ")");
+        }
+        int current = currentVersion(connection);
+        List<Migration> migrations = migrations();
+        int latest = migrations.get(migrations.size() - 1).getVersion();
+        if (current > latest) {
+            System.err.println("Database schema is at version " + current + ", newer than this build knows (" + latest + ")");
+            return Collections.emptyList();
+        }
+        List<Migration> applied = new ArrayList<>();
+        for (Migration migration : migrations) {
+            if (migration.getVersion() > current) {
+                apply(connection, migration);
+                applied.add(migration);
+            }
+        }
+        return applied;
+    }
+
+    private static void apply(Connection connection, Migration migration) throws SQLException {
+        long started = System.nanoTime();
+        try (UnitOfWork work = UnitOfWork.begin(connection)) {
+            try (Statement stmt = connection.createStatement()) {
+                for (String sql : statements(read(migration.getScript()))) {
+                    stmt.execute(sql);
+                }
+            } catch (SQLException e) {
+                throw new SQLException("Migration " + migration + " failed: " + e.getMessage(), e);
+            }
+            work.execute("INSERT INTO schema_version (version, description, installed_at, execution_ms) VALUES (?, ?, ?, ?)",
+                    migration.getVersion(), migration.getDescription(),
+                    LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                    (System.nanoTime() - started) / 1_000_000);
+            work.commit();
+        }
+        System.out.println("Applied schema migration " + migration);
+    }
+
+    /**
+     * Highest version recorded in schema_version, 0 for a database without migrations
+     */
+    public static int currentVersion(Connection connection) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement("SELECT COALESCE(MAX(version), 0) FROM schema_version");
+             ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * The migrations this build ships, in version order
+     */
+    public static List<Migration> migrations() {
+        List<Migration> migrations = new ArrayList<>();
+        for (String script : SCRIPTS) {
+            int separator = script.indexOf("__");
+            if (!script.startsWith("V") || separator < 0 || !script.endsWith(".sql")) {
+                throw new IllegalStateException("Migration script not named V<version>__<description>.sql: " + script);
+            }
+            int version = Integer.parseInt(script.substring(1, separator));
+            if (!migrations.isEmpty() && version <= migrations.get(migrations.size() - 1).getVersion()) {
+                throw new IllegalStateException("Migration scripts out of order at " + script);
+            }
+            String description = script.substring(separator + 2, script.length() - 4).replace('_', ' ');
+            migrations.add(new Migration(version, description, script));
+        }
+        return migrations;
+    }
+
+    private static String read(String script) throws SQLException {
+        try (InputStream in = SchemaMigrations.class.getResourceAsStream(LOCATION + script)) {
+            if (in == null) {
+                throw new SQLException("Migration script not found on the classpath: " + LOCATION + script);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new SQLException("Failed to read migration script " + script, e);
+        }
+    }
+
+    /**
+     * Split a script into statements at semicolons, dropping {@code --} comments
+     * Quoted strings and identifiers are kept as they are.
+     */
+    static List<String> statements(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        char quote = 0;
+        for (int i = 0; i < script.length(); i++) {
+            char c = script.charAt(i);
+            if (quote != 0) {
+                current.append(c);
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+                current.append(c);
+            } else if (c == '-' && i + 1 < script.length() && script.charAt(i + 1) == '-') {
+                while (i + 1 < script.length() && script.charAt(i + 1) != '\n') {
+                    i++;
+                }
+            } else if (c == ';') {
+                addStatement(statements, current);
+            } else {
+                current.append(c);
+            }
+        }
+        addStatement(statements, current);
+        return statements;
+    }
+
+    private static void addStatement(List<String> statements, StringBuilder current) {
+        String sql = current.toString().trim();
+        if (!sql.isEmpty()) {
+            statements.add(sql);
+        }
+        current.setLength(0);
+    }
+}
@@ -0,0 +1,433 @@
+package com.contestpredictor.data;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * The application's SQLite connections: one writer and a small pool of read-only readers
+ *
+ * The database runs in WAL mode, where readers see the last committed state and neither wait
+ * for the writer nor block it, so a rating replay or a bulk import holding the write
+ * transaction no longer stalls the screens reading standings. All writes go through the single
+ * writer connection ({@link #getWriter}), as SQLite allows one writer at a time anyway.
+ * Its transaction state is shared by every thread using it, so a thread writing on it holds the
+ * writer lock ({@link #withWriter}, or a {@link UnitOfWork}, which takes it for its lifetime)
+ * for as long as its transaction is open; a write from another thread then waits for that
+ * transaction to end instead of silently joining it.
+ * {@link #getConnection} lends a reader, which must be closed (try-with-resources) to return it
+ * to the pool; statements left open on it are closed then, so no read transaction outlives the
+ * borrow. Readers are opened with {@code query_only}, so a write on one fails instead of
+ * bypassing the writer. Every connection gets the same page cache, memory map and
+ * {@code synchronous=NORMAL} (durable in WAL mode except for the last commits on power loss).
+ */
+public final class SqliteDataSource implements DataSource, AutoCloseable {
+
+    /** Readers in the pool unless {@code contestpredictor.db.readers} is set */
+    public static final int DEFAULT_READERS = 4;
+
+    private static final long BORROW_TIMEOUT_MILLIS = 10_000;
+    private static final int CACHE_KIB = 16 * 1024;
+    private static final long MMAP_BYTES = 256L * 1024 * 1024;
+    private static final int BUSY_TIMEOUT_MILLIS = 5_000;
+    private static final long WRITER_TIMEOUT_MILLIS = 30_000;
+
+    /** Open data sources by their writer, so code handed the writer can take its lock */
+    private static final Map<Connection, SqliteDataSource> BY_WRITER =
+        Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private final String url;
+    private final Connection writer;
+    private final List<Connection> readers = new ArrayList<>();
+    private final BlockingQueue<Connection> idle;
+    private final ReentrantLock writerLock = new ReentrantLock();
+
+    private final AtomicLong borrows = new AtomicLong();
+    private final AtomicLong waits = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicInteger peakInUse = new AtomicInteger();
+    private final AtomicLong writerWaits = new AtomicLong();
+    private final AtomicLong writerWaitNanos = new AtomicLong();
+
+    /**
+     * Work done on the writer while holding its lock, see {@link #withWriter}
+     */
+    public interface WriterWork<T> {
+        T run(Connection writer) throws SQLException;
+    }
+
+    /**
+     * Pool usage since the data source was opened
+     */
+    public static final class Metrics {
+        private final int readers;
+        private final int inUse;
+        private final int peakInUse;
+        private final long borrows;
+        private final long waits;
+        private final long waitNanos;
+        private final long timeouts;
+        private final long writerWaits;
+        private final long writerWaitNanos;
+
+        Metrics(int readers, int inUse, int peakInUse, long borrows, long waits, long waitNanos, long timeouts,
+                long writerWaits, long writerWaitNanos) {
+            this.readers = readers;
+            this.inUse = inUse;
+            this.peakInUse = peakInUse;
+            this.borrows = borrows;
+            this.waits = waits;
+            this.waitNanos = waitNanos;
+            this.timeouts = timeouts;
+            this.writerWaits = writerWaits;
+            this.writerWaitNanos = writerWaitNanos;
+        }
+
+        public int getReaders() {
+            return readers;
+        }
+
+        /** Readers lent out right now */
+        public int getInUse() {
+            return inUse;
+        }
+
+        /** Most readers lent out at once */
+        public int getPeakInUse() {
+            return peakInUse;
+        }
+
+        public long getBorrows() {
+            return borrows;
+        }
+
+        /** Borrows that found no idle reader and had to wait */
+        public long getWaits() {
+            return waits;
+        }
+
+        /** Time spent waiting for a reader, over all borrows */
+        public double getTotalWaitMillis() {
+            return waitNanos / 1e6;
+        }
+
+        /** Borrows that gave up waiting */
+        public long getTimeouts() {
+            return timeouts;
+        }
+
+        /** Writes that found the writer held by another thread's transaction */
+        public long getWriterWaits() {
+            return writerWaits;
+        }
+
+        /** Time spent waiting for the writer, over all writes */
+        public double getTotalWriterWaitMillis() {
+            return writerWaitNanos / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("readers=%d inUse=%d peak=%d borrows=%d waits=%d waited=%.1fms timeouts=%d "
+                    + "writerWaits=%d writerWaited=%.1fms",
+                readers, inUse, peakInUse, borrows, waits, getTotalWaitMillis(), timeouts,
+                writerWaits, getTotalWriterWaitMillis());
+        }
+    }
+
+    /**
+     * Open the writer, switch the database to WAL mode and open {@code readerCount} readers
+     * @param url JDBC URL, e.g. {@code jdbc:sqlite:contest_predictor.db}
+     */
+    public SqliteDataSource(String url, int readerCount) throws SQLException {
+        if (readerCount <= 0) {
+            throw new IllegalArgumentException("Reader count must be positive: " + readerCount);
+        }
+        this.url = url;
+        this.writer = open(false);
+        this.idle = new ArrayBlockingQueue<>(readerCount);
+        BY_WRITER.put(writer, this);
+        try {
+            for (int i = 0; i < readerCount; i++) {
+                Connection reader = open(true);
+                readers.add(reader);
+                idle.add(reader);
+            }
+        } catch (SQLException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Readers to open, from {@code contestpredictor.db.readers}
+     */
+    public static int configuredReaders() {
+        return Math.max(1, Integer.getInteger("contestpredictor.db.readers", DEFAULT_READERS));
+    }
+
+    private Connection open(boolean readOnly) throws SQLException {
+        Connection connection = DriverManager.getConnection(url);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MILLIS);
+            if (!readOnly) {
+                stmt.execute("PRAGMA journal_mode = WAL");
+            }
+            stmt.execute("PRAGMA synchronous = NORMAL");
+            stmt.execute("PRAGMA cache_size = -" + CACHE_KIB);
+            stmt.execute("PRAGMA mmap_size = " + MMAP_BYTES);
+            stmt.execute("PRAGMA temp_store = MEMORY");
+            if (readOnly) {
+                stmt.execute("PRAGMA query_only = 1");
+            }
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return connection;
+    }
+
+    /**
+     * The single connection all writes go through; shared, never closed by callers
+     */
+    public Connection getWriter() {
+        return writer;
+    }
+
+    /**
+     * The data source whose writer {@code connection} is, or null for any other connection
+     */
+    public static SqliteDataSource ofWriter(Connection connection) {
+        return BY_WRITER.get(connection);
+    }
+
+    /**
+     * Run {@code work} on the writer while holding the writer lock
+     * Transactions the work opens must end before it returns; nested calls on the same thread
+     * (and units of work within) just join.
+     */
+    public <T> T withWriter(WriterWork<T> work) throws SQLException {
+        lockWriter();
+        try {
+            return work.run(writer);
+        } finally {
+            unlockWriter();
+        }
+    }
+
+    /**
+     * Take the writer lock, waiting for another thread's transaction to end; reentrant
+     * Every call must be paired with {@link #unlockWriter} on the same thread.
+     */
+    public void lockWriter() throws SQLException {
+        if (writerLock.tryLock()) {
+            return;
+        }
+        long started = System.nanoTime();
+        writerWaits.incrementAndGet();
+        try {
+            if (!writerLock.tryLock(WRITER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Database writer still busy after " + WRITER_TIMEOUT_MILLIS + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the database writer", e);
+        } finally {
+            writerWaitNanos.addAndGet(System.nanoTime() - started);
+        }
+    }
+
+    public void unlockWriter() {
+        writerLock.unlock();
+    }
+
+    /**
+     * Borrow a read-only connection, waiting for one to be returned if all are lent out
+     * Closing it returns it to the pool.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection reader = idle.poll();
+        if (reader == null) {
+            long started = System.nanoTime();
+            waits.incrementAndGet();
+            try {
+                reader = idle.poll(BORROW_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a read connection", e);
+            } finally {
+                waitNanos.addAndGet(System.nanoTime() - started);
+            }
+            if (reader == null) {
+                timeouts.incrementAndGet();
+                throw new SQLException("No read connection free after " + BORROW_TIMEOUT_MILLIS + " ms (" + getMetrics() + ")");
+            }
+        }
+        borrows.incrementAndGet();
+        peakInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class}, new Loan(reader));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    /**
+     * Put a reader back once its borrower closed it, ending anything the borrower left open
+     */
+    private void release(Connection reader, List<Statement> statements) {
+        for (Statement statement : statements) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                System.err.println("Failed to close statement: " + e.getMessage());
+            }
+        }
+        try {
+            if (!reader.getAutoCommit()) {
+                reader.rollback();
+                reader.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Failed to reset read connection: " + e.getMessage());
+        }
+        inUse.decrementAndGet();
+        idle.add(reader);
+    }
+
+    /**
+     * A borrowed reader: tracks the statements made on it and returns it to the pool on close
+     */
+    private final class Loan implements InvocationHandler {
+        private final Connection reader;
+        private final List<Statement> statements = new ArrayList<>();
+        private boolean closed;
+
+        Loan(Connection reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(reader, statements);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "read connection " + reader + (closed ? " (returned)" : "");
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Read connection already returned to the pool");
+            }
+            try {
+                Object result = method.invoke(reader, args);
+                if (result instanceof Statement) {
+                    statements.add((Statement) result);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    public Metrics getMetrics() {
+        return new Metrics(readers.size(), inUse.get(), peakInUse.get(), borrows.get(), waits.get(),
+            waitNanos.get(), timeouts.get(), writerWaits.get(), writerWaitNanos.get());
+    }
+
+    /**
+     * Close every connection; readers still lent out are closed too
+     */
+    @Override
+    public void close() {
+        for (Connection reader : readers) {
+            closeQuietly(reader);
+        }
+        idle.clear();
+        BY_WRITER.remove(writer);
+        closeQuietly(writer);
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            if (connection != null && !connection.isClosed()) {
+                connection.close();
+            }
+        } catch (SQLException e) {
+            System.err.println("Failed to close connection: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return 0;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Not a wrapper of " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+}
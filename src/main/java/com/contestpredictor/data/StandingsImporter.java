@@ -0,0 +1,266 @@
+package com.contestpredictor.data;
+
+import com.contestpredictor.model.Participant;
+import com.contestpredictor.util.ContestDataSource;
+import com.contestpredictor.util.FileContestDataSource;
+import com.contestpredictor.util.JsonFeed;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * Imports a contest's full standings into the participants table
+ *
+ * Rows are pulled from a {@link ContestDataSource} page by page, or streamed from a local dump in
+ * one pass, and decoded one at a time. Each page goes out as one batch of a prepared INSERT and
+ * is committed in its own transaction, so memory holds at most one page of rows whatever the
+ * contest size. The first page's transaction also deletes the contest's previous participants.
+ * Each page's transaction is a {@link UnitOfWork}, so the writer is held while a page is written,
+ * not while the next one is fetched, and other threads' writes wait at most for one page.
+ * A failed import keeps the pages committed so far; importing again replaces them. Once the
+ * last page is in, a contest that was already replayed has its new standings carried through
+ * the rating history and checkpoints ({@link RatingReplay#propagateEdit}); after a failed
+ * import that happens when it is imported again.
+ * A participant's rating is their current rating when they have an account here, otherwise the
+ * rating in the feed (Codeforces standings carry none, so 0).
+ */
+public class StandingsImporter {
+
+    public static final int DEFAULT_PAGE_SIZE = 2000;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO participants (contest_id, username, current_rating, problems_solved, total_penalty, rank, " +
+            "predicted_rating, rating_change) VALUES (?, ?, " +
+            "COALESCE((SELECT current_rating FROM users WHERE username = ?), ?), ?, ?, ?, " +
+            "COALESCE((SELECT current_rating FROM users WHERE username = ?), ?), 0)";
+
+    private final Connection connection;
+    private final int pageSize;
+
+    /**
+     * Outcome of an import
+     */
+    public static final class Result {
+        private final String contestId;
+        private final int rows;
+        private final int pages;
+        private final int usersUpdated;
+        private final long elapsedMillis;
+
+        Result(String contestId, int rows, int pages, int usersUpdated, long elapsedMillis) {
+            this.contestId = contestId;
+            this.rows = rows;
+            this.pages = pages;
+            this.usersUpdated = usersUpdated;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public String getContestId() {
+            return contestId;
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        /** Transactions committed */
+        public int getPages() {
+            return pages;
+        }
+
+        /**
+         * Users whose rating changed when the new standings were carried through the rating
+         * history; the caller refreshes UserDatabase when this is positive
+         */
+        public int getUsersUpdated() {
+            return usersUpdated;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+
+    public StandingsImporter() {
+        this(DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * @param pageSize Rows fetched and committed together
+     */
+    public StandingsImporter(int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        this.connection = DatabaseManager.getInstance().getConnection();
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Import the standings of {@code sourceContestId} on a platform as the participants of {@code contestId}
+     * Recorded feeds of a {@link FileContestDataSource} are read in one pass instead of by page
+     * @param source Platform to read from
+     * @param sourceContestId Contest id on the platform, e.g. 1915 for Codeforces Round 918
+     * @param contestId Existing contest here
+     */
+    public Result importFrom(ContestDataSource source, String sourceContestId, String contestId) throws Exception {
+        if (source instanceof FileContestDataSource) {
+            try (Reader json = Files.newBufferedReader(
+                    ((FileContestDataSource) source).standingsFile(sourceContestId), StandardCharsets.UTF_8)) {
+                return importDump(contestId, json);
+            }
+        }
+        return run(contestId, writer -> {
+            int from = 1;
+            while (true) {
+                int read = join(source.streamStandings(sourceContestId, from, pageSize, writer));
+                writer.commitPage();
+                if (read < pageSize) {
+                    return;
+                }
+                from += read;
+            }
+        });
+    }
+
+    /**
+     * Import a standings dump (a contest.standings response, or flat rows under result.rows)
+     * as the participants of {@code contestId}, committing every page of rows as it is read
+     */
+    public Result importDump(String contestId, Reader json) throws Exception {
+        return run(contestId, writer -> {
+            writer.commitEveryPage = true;
+            JsonFeed.stream(json, 0, Integer.MAX_VALUE, JsonFeed::readStanding, writer, "result", "rows");
+            writer.commitPage();
+        });
+    }
+
+    private interface Import {
+        void run(PageWriter writer) throws Exception;
+    }
+
+    private Result run(String contestId, Import body) throws Exception {
+        if (!contestExists(contestId)) {
+            throw new SQLException("Contest " + contestId + " does not exist; create it before importing its standings");
+        }
+        long started = System.nanoTime();
+        try (PageWriter writer = new PageWriter(contestId)) {
+            body.run(writer);
+            int usersUpdated = propagate(contestId);
+            return new Result(contestId, writer.rows, writer.pages, usersUpdated, (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Carry the new standings through the rating history, if the contest was already replayed
+     * The propagation joins a unit of ours, so refreshing the loaded users is left to the caller
+     * @return Users whose rating changed
+     */
+    private int propagate(String contestId) throws SQLException {
+        try (UnitOfWork work = UnitOfWork.begin(connection)) {
+            RatingReplay.Result result = new RatingReplay().propagateEdit(contestId);
+            work.commit();
+            return result.getUsersUpdated();
+        }
+    }
+
+    private boolean contestExists(String contestId) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT 1 FROM contests WHERE contest_id = ?")) {
+            ps.setString(1, contestId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * Binds decoded rows into the batch and commits a page at a time
+     */
+    private final class PageWriter implements Consumer<Participant>, AutoCloseable {
+        private final String contestId;
+        private final PreparedStatement insert;
+        private boolean commitEveryPage;
+        private boolean cleared;
+        private int inPage;
+        private int rows;
+        private int pages;
+
+        PageWriter(String contestId) throws SQLException {
+            this.contestId = contestId;
+            this.insert = connection.prepareStatement(INSERT_SQL);
+        }
+
+        @Override
+        public void accept(Participant row) {
+            try {
+                insert.setString(1, contestId);
+                insert.setString(2, row.getUsername());
+                insert.setString(3, row.getUsername());
+                insert.setInt(4, row.getCurrentRating());
+                insert.setInt(5, row.getProblemsSolved());
+                insert.setInt(6, row.getTotalPenalty());
+                insert.setInt(7, row.getRank());
+                insert.setString(8, row.getUsername());
+                insert.setInt(9, row.getCurrentRating());
+                insert.addBatch();
+                inPage++;
+                if (commitEveryPage && inPage == pageSize) {
+                    commitPage();
+                }
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }
+
+        /**
+         * Write the rows bound since the last commit and commit them
+         */
+        void commitPage() throws SQLException {
+            if (cleared && inPage == 0) {
+                return;
+            }
+            try (UnitOfWork work = UnitOfWork.begin(connection)) {
+                if (!cleared) {
+                    work.execute("DELETE FROM participants WHERE contest_id = ?", contestId);
+                }
+                insert.executeBatch();
+                work.commit();
+            }
+            cleared = true;
+            rows += inPage;
+            pages++;
+            inPage = 0;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            insert.close();
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static Exception unwrap(Exception e) {
+        Throwable cause = e;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof Exception ? (Exception) cause : e;
+    }
+}
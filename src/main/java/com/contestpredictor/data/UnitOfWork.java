@@ -0,0 +1,190 @@
+package com.contestpredictor.data;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Groups the writes of one operation into a single transaction with JDBC batching
+ *
+ * SQLite syncs the journal at every commit, so writing rows one by one in auto-commit mode
+ * costs one fsync each. A unit of work turns auto-commit off, hands out one prepared statement
+ * per SQL string for the whole operation, and sends each statement's rows as a batch. Batches
+ * run in the order their statements were first used, and {@link #execute} runs the pending ones
+ * first, so a DELETE followed by batched INSERTs keeps its order. Nothing is visible to other
+ * connections until {@link #commit}; closing without committing rolls everything back.
+ *
+ * A unit begun while auto-commit is already off joins the caller's transaction instead: it
+ * flushes its batches on commit but leaves committing and rolling back to the outer unit, so
+ * bulk methods can be composed (e.g. seeding many contests in one transaction).
+ * On the application's writer the unit holds the writer lock from begin to close (see
+ * {@link SqliteDataSource#withWriter}), so it only ever joins a transaction of its own thread;
+ * one open on another thread is waited for.
+ * <pre>
+ * try (UnitOfWork work = UnitOfWork.begin()) {
+ *     work.execute("DELETE FROM participants WHERE contest_id = ?", contestId);
+ *     PreparedStatement insert = work.batch(INSERT_SQL);
+ *     ... bind and insert.addBatch() per row ...
+ *     work.commit();
+ * }
+ * </pre>
+ */
+public final class UnitOfWork implements AutoCloseable {
+
+    /** Rows sent to SQLite at a time, so a huge batch does not hold every bound row in memory */
+    private static final int FLUSH_ROWS = 5000;
+
+    private final Connection connection;
+    private final SqliteDataSource writerOf;
+    private final boolean ownTransaction;
+    private final Map<String, PreparedStatement> statements = new LinkedHashMap<>();
+    // Statements used for batches, in first-use order, with the rows added since the last flush
+    private final Map<PreparedStatement, int[]> batches = new LinkedHashMap<>();
+    private boolean committed;
+    private boolean closed;
+
+    private UnitOfWork(Connection connection) throws SQLException {
+        this.connection = connection;
+        this.writerOf = SqliteDataSource.ofWriter(connection);
+        if (writerOf != null) {
+            writerOf.lockWriter();
+        }
+        try {
+            this.ownTransaction = connection.getAutoCommit();
+            if (ownTransaction) {
+                connection.setAutoCommit(false);
+            }
+        } catch (SQLException | RuntimeException e) {
+            unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * Start a unit of work on the application's database connection
+     */
+    public static UnitOfWork begin() throws SQLException {
+        return begin(DatabaseManager.getInstance().getConnection());
+    }
+
+    public static UnitOfWork begin(Connection connection) throws SQLException {
+        return new UnitOfWork(connection);
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * The unit's statement for {@code sql}, prepared on first use; bind it and call addBatch,
+     * then {@link #added} if the operation may add many thousands of rows
+     */
+    public PreparedStatement batch(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement == null) {
+            statement = connection.prepareStatement(sql);
+            statements.put(sql, statement);
+        }
+        batches.putIfAbsent(statement, new int[1]);
+        return statement;
+    }
+
+    /**
+     * Count a row added to a batch statement, sending the pending batches every few thousand rows
+     */
+    public void added(PreparedStatement statement) throws SQLException {
+        int[] rows = batches.get(statement);
+        if (rows != null && ++rows[0] >= FLUSH_ROWS) {
+            flush();
+        }
+    }
+
+    /**
+     * Run one statement now, after the batches added so far
+     * @return Rows changed
+     */
+    public int execute(String sql, Object... parameters) throws SQLException {
+        flush();
+        PreparedStatement statement = statements.get(sql);
+        if (statement == null) {
+            statement = connection.prepareStatement(sql);
+            statements.put(sql, statement);
+        }
+        for (int i = 0; i < parameters.length; i++) {
+            statement.setObject(i + 1, parameters[i]);
+        }
+        return statement.executeUpdate();
+    }
+
+    /**
+     * Send the batches added so far, in the order their statements were first used
+     */
+    public void flush() throws SQLException {
+        for (Map.Entry<PreparedStatement, int[]> entry : batches.entrySet()) {
+            entry.getKey().executeBatch();
+            entry.getValue()[0] = 0;
+        }
+    }
+
+    /**
+     * Send the remaining batches and commit; joined units only flush
+     */
+    public void commit() throws SQLException {
+        flush();
+        if (ownTransaction) {
+            connection.commit();
+        }
+        committed = true;
+    }
+
+    /**
+     * Close the statements and, for a unit that owns its transaction, roll back anything not
+     * committed and restore auto-commit; then release the writer
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            end();
+        } finally {
+            unlock();
+        }
+    }
+
+    private void end() {
+        for (PreparedStatement statement : statements.values()) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                System.err.println("Failed to close statement: " + e.getMessage());
+            }
+        }
+        if (!ownTransaction) {
+            return;
+        }
+        try {
+            if (!committed) {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            System.err.println("Failed to roll back: " + e.getMessage());
+        } finally {
+            try {
+                connection.setAutoCommit(true);
+            } catch (SQLException e) {
+                System.err.println("Failed to restore auto-commit: " + e.getMessage());
+            }
+        }
+    }
+
+    private void unlock() {
+        if (writerOf != null) {
+            writerOf.unlockWriter();
+        }
+    }
+}
@@ -124,6 +124,22 @@ public class UserDatabase {
         return users.get(username);
     }
 
+    /**
+     * Re-read the rating, contest count and history of every loaded user after the users table
+     * was rewritten behind this cache (see RatingReplay); the User objects are updated in place
+     */
+    public void refreshRatings() {
+        for (User user : users.values()) {
+            User stored = dbManager.loadUser(user.getUsername());
+            if (stored != null) {
+                user.setCurrentRating(stored.getCurrentRating());
+                user.setContestsParticipated(stored.getContestsParticipated());
+                user.getRatingHistory().clear();
+                user.getRatingHistory().addAll(stored.getRatingHistory());
+            }
+        }
+    }
+
     public void logout() {
         currentUser = null;
     }
@@ -5,12 +5,21 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class Contest {
+    /**
+     * Fetches a contest's participants when they are first asked for
+     */
+    public interface ParticipantLoader {
+        List<Participant> load(Contest contest);
+    }
+
     private String contestId;
     private String contestName;
     private LocalDateTime dateTime;
     private int duration; // in minutes
     private boolean isPast;
-    private List<Participant> participants;
+    private List<Participant> participants; // null while they are left to the loader
+    private ParticipantLoader participantLoader;
+    private int participantCount; // known count while the participants are not held here
     private List<String> registeredUsers; // List of usernames registered for this contest
     private String createdByAdmin; // Admin who created this contest
     private int maxParticipants; // Maximum number of participants allowed
@@ -37,7 +46,7 @@ public class Contest {
     }
 
     public void addParticipant(Participant participant) {
-        this.participants.add(participant);
+        holdParticipants().add(participant);
     }
     
     // Registration methods
@@ -113,12 +122,58 @@ public class Contest {
         isPast = past;
     }
 
+    /**
+     * The participants, fetched through the loader on first access if the contest has one
+     * A loaded list may be dropped by the loader's cache and fetched again later, so edits to it
+     * only last if the contest holds it ({@link #holdParticipants}) or they are saved.
+     */
     public List<Participant> getParticipants() {
+        if (participants != null) {
+            return participants;
+        }
+        List<Participant> loaded = participantLoader.load(this);
+        participantCount = loaded.size();
+        return loaded;
+    }
+
+    /**
+     * Keep the current participants in this contest from now on, so edits to them outlive the loader's cache
+     */
+    public List<Participant> holdParticipants() {
+        if (participants == null) {
+            participants = getParticipants();
+            participantLoader = null;
+        }
         return participants;
     }
 
     public void setParticipants(List<Participant> participants) {
         this.participants = participants;
+        this.participantLoader = null;
+    }
+
+    /**
+     * Leave the participants to {@code loader}, which fetches them when they are first asked for
+     * @param count Participants in the database, shown until they are loaded
+     */
+    public void setParticipantLoader(ParticipantLoader loader, int count) {
+        this.participants = null;
+        this.participantLoader = loader;
+        this.participantCount = count;
+    }
+
+    /**
+     * Whether the participants are fetched on demand rather than held by the contest
+     */
+    public boolean isLazilyLoaded() {
+        return participants == null;
+    }
+
+    /**
+     * Number of participants, without loading them
+     */
+    public int getParticipantCount() {
+        return participants != null ? participants.size() : participantCount;
     }
     
     public List<String> getRegisteredUsers() {
@@ -0,0 +1,219 @@
+package com.contestpredictor.model;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar (structure-of-arrays) view of a contest's participants for rating computation
+ *
+ * Each participant is a row index into primitive columns, so engines can rank and rate
+ * millions of rows without per-participant objects, boxing or comparator dispatch.
+ * Columns are exposed directly; only the first {@link #size()} entries are meaningful.
+ * Adapters convert to and from {@link Participant} and {@link Contestant} lists.
+ */
+public class ParticipantBatch {
+    private String[] usernames;
+    private int[] ratings;
+    private int[] solved;
+    private int[] penalties;
+    private int[] ranks;
+    private int[] deltas;
+    private int[] newRatings;
+    private int[] performances;
+    private int[] order;
+    private int[] scratch;
+    private int size;
+    private Map<String, Integer> usernameIndex;
+
+    public ParticipantBatch(int capacity) {
+        capacity = Math.max(capacity, 1);
+        usernames = new String[capacity];
+        ratings = new int[capacity];
+        solved = new int[capacity];
+        penalties = new int[capacity];
+        ranks = new int[capacity];
+        deltas = new int[capacity];
+        newRatings = new int[capacity];
+        performances = new int[capacity];
+        order = new int[capacity];
+        scratch = new int[capacity];
+    }
+
+    /**
+     * Append a row and return its index
+     */
+    public int add(String username, int rating, int problemsSolved, int penalty, int rank) {
+        if (size == ratings.length) {
+            grow(size * 2);
+        }
+        int row = size++;
+        usernames[row] = username;
+        ratings[row] = rating;
+        solved[row] = problemsSolved;
+        penalties[row] = penalty;
+        ranks[row] = rank;
+        deltas[row] = 0;
+        newRatings[row] = rating;
+        performances[row] = rating;
+        order[row] = row;
+        if (usernameIndex != null) {
+            usernameIndex.put(username, row);
+        }
+        return row;
+    }
+
+    /**
+     * Drop all rows but keep the allocated columns for reuse
+     */
+    public void clear() {
+        java.util.Arrays.fill(usernames, 0, size, null);
+        size = 0;
+        usernameIndex = null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Row of the given username, or -1; the dictionary is built on first use
+     */
+    public int indexOf(String username) {
+        if (usernameIndex == null) {
+            usernameIndex = new HashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                usernameIndex.put(usernames[i], i);
+            }
+        }
+        Integer row = usernameIndex.get(username);
+        return row != null ? row : -1;
+    }
+
+    private void grow(int capacity) {
+        usernames = java.util.Arrays.copyOf(usernames, capacity);
+        ratings = java.util.Arrays.copyOf(ratings, capacity);
+        solved = java.util.Arrays.copyOf(solved, capacity);
+        penalties = java.util.Arrays.copyOf(penalties, capacity);
+        ranks = java.util.Arrays.copyOf(ranks, capacity);
+        deltas = java.util.Arrays.copyOf(deltas, capacity);
+        newRatings = java.util.Arrays.copyOf(newRatings, capacity);
+        performances = java.util.Arrays.copyOf(performances, capacity);
+        order = java.util.Arrays.copyOf(order, capacity);
+        scratch = new int[capacity];
+    }
+
+    // ============ ADAPTERS ============
+
+    /**
+     * Copy participants into a new batch; row i is participants.get(i)
+     */
+    public static ParticipantBatch fromParticipants(List<Participant> participants) {
+        ParticipantBatch batch = new ParticipantBatch(participants.size());
+        for (Participant p : participants) {
+            int row = batch.add(p.getUsername(), p.getCurrentRating(), p.getProblemsSolved(),
+                p.getTotalPenalty(), p.getRank());
+            batch.deltas[row] = p.getRatingChange();
+            batch.newRatings[row] = p.getPredictedRating();
+        }
+        return batch;
+    }
+
+    /**
+     * Write ranks, predicted ratings and rating changes back to the participants the batch
+     * was built from, then reorder the list to follow {@link #getOrder()}
+     */
+    public void applyTo(List<Participant> participants) {
+        Participant[] rows = participants.toArray(new Participant[0]);
+        for (int i = 0; i < size; i++) {
+            Participant p = rows[i];
+            p.setRank(ranks[i]);
+            p.setPredictedRating(newRatings[i]);
+            p.setRatingChange(deltas[i]);
+        }
+        for (int position = 0; position < size; position++) {
+            participants.set(position, rows[order[position]]);
+        }
+    }
+
+    /**
+     * Copy contestants into a new batch; row i is contestants.get(i)
+     */
+    public static ParticipantBatch fromContestants(List<Contestant> contestants) {
+        ParticipantBatch batch = new ParticipantBatch(contestants.size());
+        for (Contestant c : contestants) {
+            int row = batch.add(c.getHandle(), c.getOldRating(), c.getProblemsSolved(),
+                c.getPenalty(), c.getRank());
+            batch.deltas[row] = c.getDelta();
+            batch.newRatings[row] = c.getNewRating();
+        }
+        return batch;
+    }
+
+    /**
+     * Write ranks and rating changes back to the contestants the batch was built from,
+     * then reorder the list to follow {@link #getOrder()}
+     */
+    public void applyToContestants(List<Contestant> contestants) {
+        Contestant[] rows = contestants.toArray(new Contestant[0]);
+        for (int i = 0; i < size; i++) {
+            Contestant c = rows[i];
+            c.setRank(ranks[i]);
+            c.setNewRating(newRatings[i]);
+        }
+        for (int position = 0; position < size; position++) {
+            contestants.set(position, rows[order[position]]);
+        }
+    }
+
+    // ============ COLUMNS ============
+
+    public String getUsername(int row) {
+        return usernames[row];
+    }
+
+    public int[] getRatings() {
+        return ratings;
+    }
+
+    public int[] getSolved() {
+        return solved;
+    }
+
+    public int[] getPenalties() {
+        return penalties;
+    }
+
+    public int[] getRanks() {
+        return ranks;
+    }
+
+    public int[] getDeltas() {
+        return deltas;
+    }
+
+    public int[] getNewRatings() {
+        return newRatings;
+    }
+
+    /**
+     * Performance rating of each row as defined by the engine that rated the batch
+     */
+    public int[] getPerformances() {
+        return performances;
+    }
+
+    /**
+     * Rows in standing order: order[position] is the row at that position
+     */
+    public int[] getOrder() {
+        return order;
+    }
+
+    /**
+     * Work column of the same capacity, free for engines to use during a computation
+     */
+    public int[] getScratch() {
+        return scratch;
+    }
+}
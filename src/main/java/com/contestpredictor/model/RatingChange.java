@@ -0,0 +1,49 @@
+package com.contestpredictor.model;
+
+/**
+ * Official rating change of one participant in one contest, as published by a platform
+ */
+public class RatingChange {
+    private final String handle;
+    private final String contestId;
+    private final int rank;
+    private final int oldRating;
+    private final int newRating;
+
+    public RatingChange(String handle, String contestId, int rank, int oldRating, int newRating) {
+        this.handle = handle;
+        this.contestId = contestId;
+        this.rank = rank;
+        this.oldRating = oldRating;
+        this.newRating = newRating;
+    }
+
+    public String getHandle() {
+        return handle;
+    }
+
+    public String getContestId() {
+        return contestId;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public int getOldRating() {
+        return oldRating;
+    }
+
+    public int getNewRating() {
+        return newRating;
+    }
+
+    public int getDelta() {
+        return newRating - oldRating;
+    }
+
+    @Override
+    public String toString() {
+        return handle + " @" + contestId + " #" + rank + ": " + oldRating + " -> " + newRating;
+    }
+}
@@ -0,0 +1,42 @@
+package com.contestpredictor.util;
+
+import com.contestpredictor.model.ParticipantBatch;
+
+/**
+ * AtCoder-style rank-based formula ({@link ContestantRatingPredictor}):
+ * performance = average + 400 * log2(N / rank), delta scaled by an experience factor
+ */
+public class AtCoderRatingEngine implements RatingEngine {
+
+    public static final String NAME = "atcoder";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void calculateRatingChanges(ParticipantBatch batch) {
+        ContestantRatingPredictor.computeRatingChanges(batch);
+    }
+
+    /**
+     * Rows only depend on their own rank and the field average, so only the given rows are recomputed
+     */
+    @Override
+    public int[] calculateRatingChanges(ParticipantBatch batch, int[] rows) {
+        ContestantRatingPredictor.computeRatingChanges(batch, rows);
+        return rows;
+    }
+
+    @Override
+    public int predictDelta(int rating, int contestCount, int rank, int totalParticipants) {
+        return ContestantRatingPredictor.calculateRatingChange(rating,
+            predictPerformance(rating, rank, totalParticipants), contestCount);
+    }
+
+    @Override
+    public int predictPerformance(int rating, int rank, int totalParticipants) {
+        return ContestantRatingPredictor.calculatePerformance(rank, totalParticipants, DEFAULT_FIELD_AVERAGE);
+    }
+}
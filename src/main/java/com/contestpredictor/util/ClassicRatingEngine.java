@@ -0,0 +1,43 @@
+package com.contestpredictor.util;
+
+import com.contestpredictor.model.ParticipantBatch;
+
+/**
+ * The original predictor formula ({@link RatingPredictor}): percentile performance, solve-count
+ * multiplier, K-factor, expected-rank bonus and per-tier caps
+ */
+public class ClassicRatingEngine implements RatingEngine {
+
+    public static final String NAME = "classic";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void calculateRatingChanges(ParticipantBatch batch) {
+        RatingPredictor.calculateRatingChanges(batch);
+    }
+
+    /**
+     * Rows only depend on their own rank, solve count and the field average
+     */
+    @Override
+    public int[] calculateRatingChanges(ParticipantBatch batch, int[] rows) {
+        RatingPredictor.calculateRatingChanges(batch, rows);
+        return rows;
+    }
+
+    @Override
+    public int predictDelta(int rating, int contestCount, int rank, int totalParticipants) {
+        double performance = RatingPredictor.calculatePerformance(rank, totalParticipants, DEFAULT_FIELD_AVERAGE);
+        return RatingPredictor.calculateIndividualRating(rating, performance, rank, 0, totalParticipants,
+            DEFAULT_FIELD_AVERAGE) - rating;
+    }
+
+    @Override
+    public int predictPerformance(int rating, int rank, int totalParticipants) {
+        return (int) Math.round(RatingPredictor.calculatePerformance(rank, totalParticipants, DEFAULT_FIELD_AVERAGE));
+    }
+}
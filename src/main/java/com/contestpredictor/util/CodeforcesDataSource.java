@@ -0,0 +1,76 @@
+package com.contestpredictor.util;
+
+import com.contestpredictor.model.Participant;
+import com.contestpredictor.model.RatingChange;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Codeforces API feeds, fetched through the shared {@link RatingSourceClient}
+ * The host is {@code https://codeforces.com} unless {@code contestpredictor.codeforces.url} is set
+ */
+public class CodeforcesDataSource implements ContestDataSource {
+
+    public static final String NAME = "codeforces";
+
+    /** Base URL of the Codeforces API host, overridable to point at a local stand-in server */
+    public static final String BASE_URL_PROPERTY = "contestpredictor.codeforces.url";
+
+    private final String baseUrl;
+
+    /**
+     * Source for the configured host, read on every request
+     */
+    public CodeforcesDataSource() {
+        this(null);
+    }
+
+    /**
+     * @param baseUrl Fixed API host, e.g. a local stand-in server
+     */
+    public CodeforcesDataSource(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl != null ? baseUrl : System.getProperty(BASE_URL_PROPERTY, "https://codeforces.com");
+    }
+
+    public String ratedListUrl() {
+        return getBaseUrl() + "/api/user.ratedList?activeOnly=true";
+    }
+
+    @Override
+    public CompletableFuture<Integer> streamUsers(int limit, ObjIntConsumer<String> sink) {
+        return RatingSourceClient.getInstance().get(ratedListUrl(), json -> JsonFeed.readUsers(json, limit, sink, "result"));
+    }
+
+    @Override
+    public CompletableFuture<Integer> streamStandings(String contestId, int from, int count, Consumer<Participant> sink) {
+        String url = getBaseUrl() + "/api/contest.standings?contestId=" + encode(contestId)
+            + "&from=" + Math.max(1, from) + "&count=" + Math.max(1, count) + "&showUnofficial=false";
+        return RatingSourceClient.getInstance().get(url,
+            json -> JsonFeed.stream(json, 0, count, JsonFeed::readStanding, sink, "result", "rows"));
+    }
+
+    @Override
+    public CompletableFuture<List<RatingChange>> fetchRatingChanges(String contestId) {
+        String url = getBaseUrl() + "/api/contest.ratingChanges?contestId=" + encode(contestId);
+        return RatingSourceClient.getInstance().get(url,
+            json -> JsonFeed.readList(json, Integer.MAX_VALUE, reader -> JsonFeed.readRatingChange(reader, contestId), "result"));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
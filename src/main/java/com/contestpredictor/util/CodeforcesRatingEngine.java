@@ -0,0 +1,211 @@
+package com.contestpredictor.util;
+
+import com.contestpredictor.model.ParticipantBatch;
+
+/**
+ * Codeforces rating algorithm (as published by Codeforces):
+ * seed from Elo win probabilities, geometric mean of seed and place, binary search for the
+ * rating that would be seeded at that mean, half the gap as delta, then two inflation corrections.
+ *
+ * All binary searches share one EloSeedTable over [1, 8000), so the whole round costs
+ * O(n log R) instead of O(n^2 log R).
+ */
+public class CodeforcesRatingEngine implements RatingEngine {
+
+    public static final String NAME = "codeforces";
+
+    /** Binary search bounds used by Codeforces for the needed rating */
+    private static final int MIN_RATING = 1;
+    private static final int MAX_RATING = 8000;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * Rank by problems solved (desc) then penalty (asc); tied participants share the rank
+     * of the group's first position
+     */
+    @Override
+    public void calculateRatings(ParticipantBatch batch) {
+        StandingsSort.sortByStanding(batch);
+        StandingsSort.assignSharedRanks(batch);
+        calculateRatingChanges(batch);
+    }
+
+    @Override
+    public boolean sharesTiedRanks() {
+        return true;
+    }
+
+    @Override
+    public void calculateRatingChanges(ParticipantBatch batch) {
+        int n = batch.size();
+        int[] ratings = batch.getRatings();
+        int[] ranks = batch.getRanks();
+        int[] deltas = batch.getDeltas();
+        int[] newRatings = batch.getNewRatings();
+        int[] performances = batch.getPerformances();
+
+        if (n < 2) {
+            for (int i = 0; i < n; i++) {
+                deltas[i] = 0;
+                newRatings[i] = ratings[i];
+                performances[i] = ratings[i];
+            }
+            return;
+        }
+
+        // Like Codeforces, a tie group is rated at its last position: place = rows ranked at or
+        // above this row (counted from the rank column), kept in the scratch column
+        int[] places = batch.getScratch();
+        int[] atOrAbove = new int[n + 2];
+        for (int i = 0; i < n; i++) {
+            atOrAbove[clampRank(ranks[i], n)]++;
+        }
+        for (int rank = 1; rank <= n + 1; rank++) {
+            atOrAbove[rank] += atOrAbove[rank - 1];
+        }
+        for (int i = 0; i < n; i++) {
+            places[i] = atOrAbove[clampRank(ranks[i], n)];
+        }
+
+        int minRating = MIN_RATING;
+        int maxRating = MAX_RATING;
+        for (int i = 0; i < n; i++) {
+            minRating = Math.min(minRating, ratings[i]);
+            maxRating = Math.max(maxRating, ratings[i]);
+        }
+        EloSeedTable seedTable = EloSeedTable.build(ratings, n, minRating, maxRating);
+
+        // Binary searches only read the shared table, so large rounds run them in parallel
+        ParallelRatings.forEachRow(n, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                double seed = seedTable.expectedRank(ratings[i]);
+                double midRank = Math.sqrt(places[i] * seed);
+                int needRating = calculateNeedRating(seedTable, midRank);
+                performances[i] = needRating;
+                deltas[i] = (needRating - ratings[i]) / 2;
+            }
+        });
+
+        int inc = applyInflationCorrections(batch);
+
+        ParallelRatings.forEachRow(n, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                deltas[i] += inc;
+                newRatings[i] = ratings[i] + deltas[i];
+            }
+        });
+    }
+
+    /**
+     * Single participant against a field of totalParticipants - 1 others rated
+     * {@link #DEFAULT_FIELD_AVERAGE}; no inflation correction
+     */
+    @Override
+    public int predictDelta(int rating, int contestCount, int rank, int totalParticipants) {
+        return (predictPerformance(rating, rank, totalParticipants) - rating) / 2;
+    }
+
+    /**
+     * The needed rating: the rating seeded at the geometric mean of expected rank and place
+     */
+    @Override
+    public int predictPerformance(int rating, int rank, int totalParticipants) {
+        int others = Math.max(totalParticipants - 1, 0);
+        double expectedRank = 1 + others * EloWinProbability.of(rating - DEFAULT_FIELD_AVERAGE);
+        double midRank = Math.sqrt(rank * expectedRank);
+        int left = MIN_RATING;
+        int right = MAX_RATING;
+        while (right - left > 1) {
+            int mid = (left + right) / 2;
+            double seed = 1 + others * EloWinProbability.of(mid - DEFAULT_FIELD_AVERAGE)
+                + EloWinProbability.of(mid - rating);
+            if (seed < midRank) {
+                right = mid;
+            } else {
+                left = mid;
+            }
+        }
+        return left;
+    }
+
+    /**
+     * The whole curve at once: the seed of every candidate rating is tabulated once, so each
+     * rank's binary search is array reads only
+     */
+    @Override
+    public void predictDeltas(int rating, int contestCount, int totalParticipants, int[] deltas) {
+        int others = Math.max(totalParticipants - 1, 0);
+        double expectedRank = 1 + others * EloWinProbability.of(rating - DEFAULT_FIELD_AVERAGE);
+        double[] seeds = new double[MAX_RATING];
+        for (int candidate = MIN_RATING; candidate < MAX_RATING; candidate++) {
+            seeds[candidate] = 1 + others * EloWinProbability.of(candidate - DEFAULT_FIELD_AVERAGE)
+                + EloWinProbability.of(candidate - rating);
+        }
+        for (int rank = 1; rank <= totalParticipants; rank++) {
+            double midRank = Math.sqrt(rank * expectedRank);
+            int left = MIN_RATING;
+            int right = MAX_RATING;
+            while (right - left > 1) {
+                int mid = (left + right) / 2;
+                if (seeds[mid] < midRank) {
+                    right = mid;
+                } else {
+                    left = mid;
+                }
+            }
+            deltas[rank - 1] = (left - rating) / 2;
+        }
+    }
+
+    private static int clampRank(int rank, int n) {
+        return Math.max(1, Math.min(rank, n + 1));
+    }
+
+    /**
+     * Binary search the rating whose seed against the field equals the given rank
+     */
+    private static int calculateNeedRating(EloSeedTable seedTable, double rank) {
+        int left = MIN_RATING;
+        int right = MAX_RATING;
+        while (right - left > 1) {
+            int mid = (left + right) / 2;
+            if (seedTable.seed(mid) < rank) {
+                right = mid;
+            } else {
+                left = mid;
+            }
+        }
+        return left;
+    }
+
+    /**
+     * Keep the total change slightly negative and the top 4*sqrt(n) rated participants' total near zero
+     * @return Combined correction still to be added to every delta
+     */
+    private static int applyInflationCorrections(ParticipantBatch batch) {
+        int n = batch.size();
+        int[] ratings = batch.getRatings();
+        int[] deltas = batch.getDeltas();
+
+        long sum = ParallelRatings.sum(deltas, n);
+        int inc = (int) (-sum / n - 1);
+
+        // Rows by rating desc, ties keep standing order; sorted in the scratch column
+        // (places are no longer needed) so the order column stays in standing order
+        int[] byRating = batch.getScratch();
+        System.arraycopy(batch.getOrder(), 0, byRating, 0, n);
+        IndexSort.stableSort(byRating, n, (a, b) -> Integer.compare(ratings[b], ratings[a]), new int[n]);
+
+        int zeroSumCount = Math.min((int) (4 * Math.round(Math.sqrt(n))), n);
+        int topSum = 0;
+        for (int i = 0; i < zeroSumCount; i++) {
+            topSum += deltas[byRating[i]] + inc;
+        }
+        int topInc = Math.min(Math.max(-topSum / zeroSumCount, -10), 0);
+        return inc + topInc;
+    }
+}
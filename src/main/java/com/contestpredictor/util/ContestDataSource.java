@@ -0,0 +1,86 @@
+package com.contestpredictor.util;
+
+import com.contestpredictor.model.Contestant;
+import com.contestpredictor.model.Participant;
+import com.contestpredictor.model.RatingChange;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * A contest platform's feeds: rated users, contest standings and official rating changes
+ *
+ * Implementations are registered in {@link ContestDataSources} and looked up by platform name.
+ * They decode through {@link JsonFeed} and batch requests through {@link FetchScheduler}, so a
+ * new platform only has to say where each feed lives.
+ */
+public interface ContestDataSource {
+
+    /**
+     * Short identifier of the platform
+     */
+    String getName();
+
+    /**
+     * Requests the platform accepts at once; batch methods never exceed it
+     */
+    default int getMaxInFlight() {
+        return 4;
+    }
+
+    /**
+     * Stream the first {@code limit} rated users, best first, into a sink
+     * @return Number of users read
+     */
+    CompletableFuture<Integer> streamUsers(int limit, ObjIntConsumer<String> sink);
+
+    /**
+     * One page of a contest's standings, best first, with rank, problems solved and penalty,
+     * decoded row by row into a sink
+     * @param from 1-based position of the first row
+     * @param count Number of rows to read
+     * @return Number of rows read; fewer than {@code count} means the standings ended
+     */
+    CompletableFuture<Integer> streamStandings(String contestId, int from, int count, Consumer<Participant> sink);
+
+    /**
+     * The first {@code limit} rows of a contest's standings
+     */
+    default CompletableFuture<List<Participant>> fetchStandings(String contestId, int limit) {
+        List<Participant> list = new ArrayList<>(Math.max(0, Math.min(limit, 1 << 16)));
+        return streamStandings(contestId, 1, limit, list::add).thenApply(count -> list);
+    }
+
+    /**
+     * Official rating changes of a finished contest
+     */
+    CompletableFuture<List<RatingChange>> fetchRatingChanges(String contestId);
+
+    /**
+     * The first {@code limit} rated users with their current ratings
+     */
+    default CompletableFuture<List<Contestant>> fetchUsers(int limit) {
+        List<Contestant> list = new ArrayList<>(Math.max(0, Math.min(limit, 1 << 16)));
+        return streamUsers(limit, (handle, rating) -> list.add(new Contestant(handle, rating)))
+            .thenApply(count -> list);
+    }
+
+    /**
+     * {@link #fetchStandings} for many contests, at most {@link #getMaxInFlight()} at a time
+     * @return Standings per contest, in input order
+     */
+    default CompletableFuture<List<List<Participant>>> fetchStandings(List<String> contestIds, int limit) {
+        return FetchScheduler.fetchAll(contestIds, id -> fetchStandings(id, limit), getMaxInFlight());
+    }
+
+    /**
+     * {@link #fetchRatingChanges} for many contests, at most {@link #getMaxInFlight()} at a time
+     * @return Rating changes per contest, in input order
+     */
+    default CompletableFuture<List<List<RatingChange>>> fetchRatingChanges(List<String> contestIds) {
+        return FetchScheduler.fetchAll(contestIds, this::fetchRatingChanges, getMaxInFlight());
+    }
+}
@@ -0,0 +1,74 @@
+package com.contestpredictor.util;
+
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Registry of contest data sources by platform
+ *
+ * Codeforces is served by its API. AtCoder and LeetCode have no client yet and read recorded
+ * feeds from {@code <feeds dir>/atcoder} and {@code <feeds dir>/leetcode}, where the feeds
+ * directory is the system property {@code contestpredictor.feeds.dir} (default {@code feeds}).
+ * Registering a source under an existing name replaces it, e.g. a file source for Codeforces
+ * when working offline.
+ */
+public final class ContestDataSources {
+
+    public static final String FEEDS_DIR_PROPERTY = "contestpredictor.feeds.dir";
+
+    public static final String ATCODER = "atcoder";
+    public static final String LEETCODE = "leetcode";
+
+    private static final Map<String, ContestDataSource> SOURCES = new LinkedHashMap<>();
+
+    static {
+        String feeds = System.getProperty(FEEDS_DIR_PROPERTY, "feeds");
+        register(new CodeforcesDataSource());
+        register(new FileContestDataSource(ATCODER, Paths.get(feeds, ATCODER)));
+        register(new FileContestDataSource(LEETCODE, Paths.get(feeds, LEETCODE)));
+    }
+
+    private ContestDataSources() {
+    }
+
+    /**
+     * Add or replace a source under its {@link ContestDataSource#getName()}
+     */
+    public static synchronized void register(ContestDataSource source) {
+        SOURCES.put(source.getName(), source);
+    }
+
+    /**
+     * Source registered under the given platform name
+     * @throws IllegalArgumentException if no source has that name
+     */
+    public static synchronized ContestDataSource get(String name) {
+        ContestDataSource source = SOURCES.get(name);
+        if (source == null) {
+            throw new IllegalArgumentException("Unknown contest data source '" + name + "', expected one of " + SOURCES.keySet());
+        }
+        return source;
+    }
+
+    public static synchronized Set<String> names() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(SOURCES.keySet()));
+    }
+
+    /**
+     * Source for a contest id as ContestDatabase names them: ABC/ARC/AGC are AtCoder,
+     * LC is LeetCode and anything else is Codeforces
+     */
+    public static ContestDataSource forContest(String contestId) {
+        if (contestId.startsWith("ABC") || contestId.startsWith("ARC") || contestId.startsWith("AGC")) {
+            return get(ATCODER);
+        }
+        if (contestId.startsWith("LC")) {
+            return get(LEETCODE);
+        }
+        return get(CodeforcesDataSource.NAME);
+    }
+}
@@ -1,89 +1,149 @@
 package com.contestpredictor.util;
 
 import com.contestpredictor.model.Contestant;
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
+import com.contestpredictor.model.ParticipantBatch;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.Reader;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.ObjIntConsumer;
 
 /**
  * Dynamic rating predictor using AtCoder-style ranking algorithm
- * Fetches contestants from Codeforces API and calculates rating changes based on rank
+ * Fetches contestants from Codeforces (through {@link RatedListCache} and {@link CodeforcesDataSource}) and calculates rating changes based on rank
  */
 public class ContestantRatingPredictor {
     
-    private static final String CODEFORCES_API_URL = "https://codeforces.com/api/user.ratedList?activeOnly=true";
+    private static final String USER_RATING_PATH = "/api/user.rating?handle=";
+    
+    /** Per-handle lookups kept open at once; the API throttles clients that send more */
+    private static final int MAX_LOOKUPS_IN_FLIGHT = 4;
     
     /**
-     * Fetches contestants dynamically from Codeforces API
+     * Fetches contestants through the on-disk {@link RatedListCache}
      * @param limit Number of contestants to fetch
      * @return List of contestants with their current ratings
      */
     public static List<Contestant> fetchContestants(int limit) throws Exception {
-        URL url = new java.net.URI(CODEFORCES_API_URL).toURL();
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-        conn.setRequestMethod("GET");
-        conn.setConnectTimeout(10000);
-        conn.setReadTimeout(10000);
-        
-        BufferedReader br = new BufferedReader(
-            new InputStreamReader(conn.getInputStream())
-        );
-        
-        StringBuilder json = new StringBuilder();
-        String line;
-        while ((line = br.readLine()) != null) {
-            json.append(line);
-        }
-        br.close();
-        
-        Gson gson = new Gson();
-        JsonObject root = gson.fromJson(json.toString(), JsonObject.class);
-        
-        // Check API response status
-        String status = root.get("status").getAsString();
-        if (!"OK".equals(status)) {
-            throw new Exception("API returned error: " + root.get("comment").getAsString());
-        }
-        
-        JsonArray users = root.getAsJsonArray("result");
-        List<Contestant> list = new ArrayList<>();
-        
-        int count = Math.min(limit, users.size());
-        for (int i = 0; i < count; i++) {
-            JsonObject u = users.get(i).getAsJsonObject();
-            String handle = u.get("handle").getAsString();
-            int rating = u.get("rating").getAsInt();
-            
-            // Rank will be assigned later
-            list.add(new Contestant(handle, rating));
+        return RatedListCache.getInstance().get(limit);
+    }
+    
+    /**
+     * {@link #fetchContestants} without blocking the caller
+     */
+    public static CompletableFuture<List<Contestant>> fetchContestantsAsync(int limit) {
+        return RatedListCache.getInstance().getAsync(limit);
+    }
+    
+    /**
+     * Be told what each background refresh of the rated list changed, instead of fetching again
+     */
+    public static void addRatedListListener(RatedListCache.Listener listener) {
+        RatedListCache.getInstance().addListener(listener);
+    }
+    
+    public static void removeRatedListListener(RatedListCache.Listener listener) {
+        RatedListCache.getInstance().removeListener(listener);
+    }
+    
+    /**
+     * Downloads contestants from the Codeforces {@link ContestDataSource}, bypassing the cache
+     * @param limit Number of contestants to fetch
+     */
+    public static CompletableFuture<List<Contestant>> downloadContestants(int limit) {
+        return codeforces().fetchUsers(limit);
+    }
+    
+    /**
+     * Downloads contestants from a user.ratedList URL through the shared {@link RatingSourceClient}
+     * The response is parsed as it arrives and the connection is closed as soon as
+     * {@code limit} users have been read, so memory grows with the limit, not the response
+     * @param ratedListUrl Full URL of the user.ratedList endpoint
+     * @param limit Number of contestants to fetch
+     * @return List of contestants with their current ratings
+     */
+    public static CompletableFuture<List<Contestant>> downloadContestants(String ratedListUrl, int limit) {
+        return RatingSourceClient.getInstance().get(ratedListUrl, body -> parseRatedList(body, limit));
+    }
+    
+    /**
+     * Downloads the whole rated list straight into a {@link RatedUserSnapshot.Builder}
+     */
+    public static CompletableFuture<RatedUserSnapshot.Builder> downloadSnapshot() {
+        RatedUserSnapshot.Builder builder = new RatedUserSnapshot.Builder();
+        return codeforces().streamUsers(Integer.MAX_VALUE, builder::add).thenApply(count -> builder);
+    }
+    
+    /**
+     * Looks up how many rated contests each handle has taken part in, a few requests at a time
+     * @param handles Codeforces handles
+     * @return Contest count per handle, in input order
+     */
+    public static CompletableFuture<List<Integer>> fetchContestCounts(List<String> handles) {
+        List<String> urls = new ArrayList<>(handles.size());
+        String baseUrl = ((CodeforcesDataSource) codeforces()).getBaseUrl();
+        for (String handle : handles) {
+            urls.add(baseUrl + USER_RATING_PATH + URLEncoder.encode(handle, StandardCharsets.UTF_8));
         }
-        
+        return RatingSourceClient.getInstance().getAll(urls, ContestantRatingPredictor::parseContestCount,
+            MAX_LOOKUPS_IN_FLIGHT);
+    }
+    
+    private static ContestDataSource codeforces() {
+        return ContestDataSources.get(CodeforcesDataSource.NAME);
+    }
+    
+    /**
+     * Counts the rating changes in a user.rating response without decoding them
+     */
+    public static int parseContestCount(Reader json) throws Exception {
+        return JsonFeed.count(json, "result");
+    }
+    
+    /**
+     * Streams a user.ratedList response, decoding only the handle and rating of the
+     * first {@code limit} users; the rest of the input is never read
+     * @param json Response body
+     * @param limit Number of contestants to read
+     * @return List of contestants with their current ratings
+     */
+    public static List<Contestant> parseRatedList(Reader json, int limit) throws Exception {
+        List<Contestant> list = new ArrayList<>(Math.max(0, Math.min(limit, 1 << 16)));
+        parseRatedList(json, limit, (handle, rating) -> list.add(new Contestant(handle, rating)));
         return list;
     }
     
+    /**
+     * Streams a user.ratedList response into {@code sink} without building contestants
+     * @param json Response body
+     * @param limit Number of users to read
+     * @param sink Receives each handle and rating in list order
+     * @return Number of users read
+     */
+    public static int parseRatedList(Reader json, int limit, ObjIntConsumer<String> sink) throws Exception {
+        return JsonFeed.readUsers(json, limit, sink, "result");
+    }
+    
     /**
      * Assigns contest ranks to contestants based on problems solved and penalty
      * @param contestants List of contestants
      */
     public static void assignRanks(List<Contestant> contestants) {
-        // Sort by problems solved (descending), then by penalty (ascending)
-        contestants.sort((a, b) -> {
-            if (a.getProblemsSolved() != b.getProblemsSolved()) {
-                return b.getProblemsSolved() - a.getProblemsSolved();
-            }
-            return a.getPenalty() - b.getPenalty();
-        });
-        
-        for (int i = 0; i < contestants.size(); i++) {
-            contestants.get(i).setRank(i + 1);
-        }
+        ParticipantBatch batch = ParticipantBatch.fromContestants(contestants);
+        assignRanks(batch);
+        batch.applyToContestants(contestants);
+    }
+    
+    /**
+     * Assigns ranks to every row of a batch by problems solved (descending), then penalty (ascending)
+     * @param batch Contestants in columnar form
+     */
+    public static void assignRanks(ParticipantBatch batch) {
+        StandingsSort.sortByStanding(batch);
+        StandingsSort.assignSequentialRanks(batch);
     }
     
     /**
@@ -133,41 +193,73 @@ public class ContestantRatingPredictor {
      * @param contestants List of contestants
      */
     public static void computeRatingChanges(List<Contestant> contestants) {
-        if (contestants.isEmpty()) return;
+        ParticipantBatch batch = ParticipantBatch.fromContestants(contestants);
+        computeRatingChanges(batch);
+        batch.applyToContestants(contestants);
+    }
+    
+    /**
+     * Computes the delta of every row of a batch from its rank; rows with rank 0 get no change
+     * @param batch Contestants in columnar form with ranks assigned
+     */
+    public static void computeRatingChanges(ParticipantBatch batch) {
+        int totalParticipants = batch.size();
+        if (totalParticipants == 0) return;
         
-        int totalParticipants = contestants.size();
+        int[] ratings = batch.getRatings();
+        int[] ranks = batch.getRanks();
+        int[] deltas = batch.getDeltas();
+        int[] newRatings = batch.getNewRatings();
+        int[] performances = batch.getPerformances();
         
         // Calculate average rating
-        double avgRating = contestants.stream()
-            .mapToInt(Contestant::getOldRating)
-            .average()
-            .orElse(1500.0);
+        double avgRating = (double) ParallelRatings.sum(ratings, totalParticipants) / totalParticipants;
         
-        // Calculate performance and delta for each contestant
-        for (Contestant contestant : contestants) {
-            if (contestant.getRank() == 0) {
-                contestant.setDelta(0);
-                continue;
+        // Calculate performance and delta for each contestant; large contests run in parallel
+        ParallelRatings.forEachRow(totalParticipants, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                rateRow(i, ratings, ranks, deltas, newRatings, performances, totalParticipants, avgRating);
             }
-            
-            int performance = calculatePerformance(
-                contestant.getRank(), 
-                totalParticipants, 
-                avgRating
-            );
+        });
+    }
+    
+    /**
+     * Recomputes the delta of selected rows only, e.g. the rows a StandingsTree update re-ranked
+     * The field and its average are unchanged by solve/penalty edits, so other rows keep their deltas
+     * @param batch Contestants in columnar form with ranks assigned
+     * @param rows Rows to recompute
+     */
+    public static void computeRatingChanges(ParticipantBatch batch, int[] rows) {
+        int totalParticipants = batch.size();
+        if (totalParticipants == 0) return;
+
+        int[] ratings = batch.getRatings();
+        int[] ranks = batch.getRanks();
+        int[] deltas = batch.getDeltas();
+        int[] newRatings = batch.getNewRatings();
+        int[] performances = batch.getPerformances();
+        double avgRating = (double) ParallelRatings.sum(ratings, totalParticipants) / totalParticipants;
+
+        for (int row : rows) {
+            rateRow(row, ratings, ranks, deltas, newRatings, performances, totalParticipants, avgRating);
+        }
+    }
+
+    private static void rateRow(int row, int[] ratings, int[] ranks, int[] deltas, int[] newRatings,
+                                int[] performances, int totalParticipants, double avgRating) {
+        if (ranks[row] == 0) {
+            deltas[row] = 0;
+            performances[row] = ratings[row];
+        } else {
+            int performance = calculatePerformance(ranks[row], totalParticipants, avgRating);
+            performances[row] = performance;
             
             // Assume average contest participation of 10 (can be customized)
-            int contestCount = 10;
-            int delta = calculateRatingChange(
-                contestant.getOldRating(), 
-                performance, 
-                contestCount
-            );
-            
-            contestant.setDelta(delta);
+            deltas[row] = calculateRatingChange(ratings[row], performance, RatingEngine.DEFAULT_CONTEST_COUNT);
         }
+        newRatings[row] = ratings[row] + deltas[row];
     }
-    
+
     /**
      * Updates ratings for all contestants based on their deltas
      * @param contestants List of contestants
@@ -179,6 +271,21 @@ public class ContestantRatingPredictor {
         }
     }
     
+    /**
+     * Updates the new-rating column of a batch from its deltas
+     * @param batch Contestants in columnar form
+     */
+    public static void updateRatings(ParticipantBatch batch) {
+        int[] ratings = batch.getRatings();
+        int[] deltas = batch.getDeltas();
+        int[] newRatings = batch.getNewRatings();
+        ParallelRatings.forEachRow(batch.size(), (from, to) -> {
+            for (int i = from; i < to; i++) {
+                newRatings[i] = ratings[i] + deltas[i];
+            }
+        });
+    }
+    
     /**
      * Complete rating prediction pipeline
      * Fetches contestants, assigns ranks, calculates rating changes using AtCoder formula
@@ -196,8 +303,18 @@ public class ContestantRatingPredictor {
      * @param contestants List of contestants with assigned ranks
      */
     public static void predictRatings(List<Contestant> contestants) {
-        assignRanks(contestants);
-        computeRatingChanges(contestants);
-        updateRatings(contestants);
+        ParticipantBatch batch = ParticipantBatch.fromContestants(contestants);
+        predictRatings(batch);
+        batch.applyToContestants(contestants);
+    }
+    
+    /**
+     * Predict ratings for every row of a batch: assign ranks, compute deltas, update ratings
+     * @param batch Contestants in columnar form
+     */
+    public static void predictRatings(ParticipantBatch batch) {
+        assignRanks(batch);
+        computeRatingChanges(batch);
+        updateRatings(batch);
     }
 }
@@ -0,0 +1,88 @@
+package com.contestpredictor.util;
+
+import com.contestpredictor.model.ParticipantBatch;
+
+/**
+ * Simple Elo-based standings formula: 20 points per place between the expected rank
+ * (from an {@link EloSeedTable}) and the actual rank, capped at 150 either way
+ */
+public class EloRatingEngine implements RatingEngine {
+
+    public static final String NAME = "elo";
+
+    private static final int POINTS_PER_PLACE = 20;
+    private static final int MAX_CHANGE = 150;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void calculateRatingChanges(ParticipantBatch batch) {
+        int n = batch.size();
+        int[] ratings = batch.getRatings();
+        int[] ranks = batch.getRanks();
+        int[] deltas = batch.getDeltas();
+        int[] newRatings = batch.getNewRatings();
+        int[] performances = batch.getPerformances();
+        EloSeedTable seedTable = EloSeedTable.build(ratings, n);
+
+        ParallelRatings.forEachRow(n, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                int expectedRank = (int) Math.round(seedTable.expectedRank(ratings[i]));
+                deltas[i] = ratingChange(expectedRank, ranks[i]);
+                newRatings[i] = ratings[i] + deltas[i];
+                performances[i] = newRatings[i];
+            }
+        });
+    }
+
+    /**
+     * Expected ranks depend only on ratings, which solve/penalty edits leave alone,
+     * so only the re-ranked rows are recomputed
+     */
+    @Override
+    public int[] calculateRatingChanges(ParticipantBatch batch, int[] rows) {
+        int[] ratings = batch.getRatings();
+        int[] ranks = batch.getRanks();
+        int[] deltas = batch.getDeltas();
+        int[] newRatings = batch.getNewRatings();
+        int[] performances = batch.getPerformances();
+        EloSeedTable seedTable = EloSeedTable.build(ratings, batch.size());
+
+        for (int row : rows) {
+            int expectedRank = (int) Math.round(seedTable.expectedRank(ratings[row]));
+            deltas[row] = ratingChange(expectedRank, ranks[row]);
+            newRatings[row] = ratings[row] + deltas[row];
+            performances[row] = newRatings[row];
+        }
+        return rows;
+    }
+
+    @Override
+    public int predictDelta(int rating, int contestCount, int rank, int totalParticipants) {
+        double expectedRank = 1 + Math.max(totalParticipants - 1, 0) * EloWinProbability.of(rating - DEFAULT_FIELD_AVERAGE);
+        return ratingChange((int) Math.round(expectedRank), rank);
+    }
+
+    @Override
+    public void predictDeltas(int rating, int contestCount, int totalParticipants, int[] deltas) {
+        double expectedRank = 1 + Math.max(totalParticipants - 1, 0) * EloWinProbability.of(rating - DEFAULT_FIELD_AVERAGE);
+        int roundedExpectedRank = (int) Math.round(expectedRank);
+        for (int rank = 1; rank <= totalParticipants; rank++) {
+            deltas[rank - 1] = ratingChange(roundedExpectedRank, rank);
+        }
+    }
+
+    @Override
+    public int predictPerformance(int rating, int rank, int totalParticipants) {
+        return rating + predictDelta(rating, DEFAULT_CONTEST_COUNT, rank, totalParticipants);
+    }
+
+    private static int ratingChange(int expectedRank, int actualRank) {
+        // Rating change based on performance, capped
+        int ratingChange = (expectedRank - actualRank) * POINTS_PER_PLACE;
+        return Math.max(-MAX_CHANGE, Math.min(MAX_CHANGE, ratingChange));
+    }
+}
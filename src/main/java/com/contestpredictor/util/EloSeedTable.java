@@ -0,0 +1,216 @@
+package com.contestpredictor.util;
+
+/**
+ * Expected rank ("seed") lookup built from a rating histogram
+ *
+ * seed(r) = 1 + sum over every participant p of P(p beats a player rated r), where
+ * P(p beats r) = 1 / (1 + 10^((r - rating(p)) / 400)).
+ *
+ * Instead of summing over every pair (O(n^2)), the ratings are bucketed into an integer
+ * histogram and the histogram is convolved once with the Elo kernel, giving the seed of
+ * every integer rating in the query range in O(n + R log R) where R is the rating span.
+ *
+ * Accuracy: small histograms are summed directly and match the pairwise loop to the last
+ * few ulps. Large ones go through a double precision FFT whose absolute error stays below
+ * 1e-6 ranks for contests up to 1M participants, so a rounded expected rank can only differ
+ * from the pairwise result when the exact value lies within 1e-6 of a .5 boundary.
+ */
+public final class EloSeedTable {
+
+    /** Histogram x query sizes up to this are summed directly instead of through the FFT */
+    private static final long DIRECT_SUM_LIMIT = 1L << 22;
+
+    private final int lowRating;
+    private final double[] seeds;
+
+    private EloSeedTable(int lowRating, double[] seeds) {
+        this.lowRating = lowRating;
+        this.seeds = seeds;
+    }
+
+    /**
+     * Build a table answering queries for every rating held by the participants
+     * @param ratings Participant ratings
+     * @param count Number of leading entries of ratings to use
+     */
+    public static EloSeedTable build(int[] ratings, int count) {
+        if (count <= 0) {
+            return new EloSeedTable(0, new double[] {1.0});
+        }
+        int min = ratings[0];
+        int max = ratings[0];
+        for (int i = 1; i < count; i++) {
+            if (ratings[i] < min) min = ratings[i];
+            if (ratings[i] > max) max = ratings[i];
+        }
+        return build(ratings, count, min, max);
+    }
+
+    /**
+     * Build a table answering queries for every integer rating in [lowRating, highRating]
+     * @param ratings Participant ratings
+     * @param count Number of leading entries of ratings to use
+     * @param lowRating Lowest rating that will be queried
+     * @param highRating Highest rating that will be queried
+     */
+    public static EloSeedTable build(int[] ratings, int count, int lowRating, int highRating) {
+        if (highRating < lowRating) {
+            throw new IllegalArgumentException("Empty query range: " + lowRating + ".." + highRating);
+        }
+        int queryLength = highRating - lowRating + 1;
+        double[] seeds = new double[queryLength];
+        java.util.Arrays.fill(seeds, 1.0);
+        if (count <= 0) {
+            return new EloSeedTable(lowRating, seeds);
+        }
+
+        // Rating histogram
+        int histMin = ratings[0];
+        int histMax = ratings[0];
+        for (int i = 1; i < count; i++) {
+            if (ratings[i] < histMin) histMin = ratings[i];
+            if (ratings[i] > histMax) histMax = ratings[i];
+        }
+        int histLength = histMax - histMin + 1;
+        double[] histogram = new double[histLength];
+        for (int i = 0; i < count; i++) {
+            histogram[ratings[i] - histMin]++;
+        }
+
+        // kernel[j] = P(someone rated v beats r) for r - v = lowRating - histMax + j
+        int kernelLength = queryLength + histLength - 1;
+        int kernelOffset = lowRating - histMax;
+        double[] kernel = new double[kernelLength];
+        for (int j = 0; j < kernelLength; j++) {
+            kernel[j] = EloWinProbability.of(kernelOffset + j);
+        }
+
+        if (countNonZero(histogram) * (long) queryLength <= DIRECT_SUM_LIMIT) {
+            convolveDirect(histogram, kernel, seeds);
+        } else {
+            convolveFft(histogram, kernel, seeds);
+        }
+        return new EloSeedTable(lowRating, seeds);
+    }
+
+    /**
+     * Seed of a player rated {@code rating} against the whole field, self included
+     */
+    public double seed(int rating) {
+        int index = rating - lowRating;
+        if (index < 0 || index >= seeds.length) {
+            throw new IllegalArgumentException("Rating " + rating + " outside table range "
+                + lowRating + ".." + (lowRating + seeds.length - 1));
+        }
+        return seeds[index];
+    }
+
+    /**
+     * Expected rank of a field member rated {@code rating}, i.e. the seed with the
+     * participant's own half-win against itself removed
+     */
+    public double expectedRank(int rating) {
+        return seed(rating) - 0.5;
+    }
+
+    public int getLowRating() {
+        return lowRating;
+    }
+
+    public int getHighRating() {
+        return lowRating + seeds.length - 1;
+    }
+
+    private static long countNonZero(double[] histogram) {
+        long nonZero = 0;
+        for (double h : histogram) {
+            if (h != 0) nonZero++;
+        }
+        return nonZero;
+    }
+
+    /**
+     * seeds[t] += sum_i histogram[i] * kernel[t + H - 1 - i], skipping empty buckets
+     */
+    private static void convolveDirect(double[] histogram, double[] kernel, double[] seeds) {
+        int shift = histogram.length - 1;
+        for (int i = 0; i < histogram.length; i++) {
+            double h = histogram[i];
+            if (h == 0) continue;
+            int base = shift - i;
+            for (int t = 0; t < seeds.length; t++) {
+                seeds[t] += h * kernel[base + t];
+            }
+        }
+    }
+
+    private static void convolveFft(double[] histogram, double[] kernel, double[] seeds) {
+        int needed = histogram.length + kernel.length - 1;
+        int size = Integer.highestOneBit(needed);
+        if (size < needed) size <<= 1;
+
+        double[] aRe = new double[size];
+        double[] aIm = new double[size];
+        double[] bRe = new double[size];
+        double[] bIm = new double[size];
+        System.arraycopy(histogram, 0, aRe, 0, histogram.length);
+        System.arraycopy(kernel, 0, bRe, 0, kernel.length);
+
+        fft(aRe, aIm, false);
+        fft(bRe, bIm, false);
+        for (int i = 0; i < size; i++) {
+            double re = aRe[i] * bRe[i] - aIm[i] * bIm[i];
+            double im = aRe[i] * bIm[i] + aIm[i] * bRe[i];
+            aRe[i] = re;
+            aIm[i] = im;
+        }
+        fft(aRe, aIm, true);
+
+        int shift = histogram.length - 1;
+        for (int t = 0; t < seeds.length; t++) {
+            seeds[t] += aRe[t + shift];
+        }
+    }
+
+    /**
+     * In-place iterative radix-2 FFT; the inverse transform is scaled by 1/n
+     */
+    private static void fft(double[] re, double[] im, boolean inverse) {
+        int n = re.length;
+        for (int i = 1, j = 0; i < n; i++) {
+            int bit = n >> 1;
+            for (; (j & bit) != 0; bit >>= 1) {
+                j ^= bit;
+            }
+            j ^= bit;
+            if (i < j) {
+                double t = re[i]; re[i] = re[j]; re[j] = t;
+                t = im[i]; im[i] = im[j]; im[j] = t;
+            }
+        }
+        for (int len = 2; len <= n; len <<= 1) {
+            double angle = 2 * Math.PI / len * (inverse ? 1 : -1);
+            int half = len >> 1;
+            for (int k = 0; k < half; k++) {
+                // Twiddles computed directly rather than by recurrence to keep the error flat
+                double wRe = Math.cos(angle * k);
+                double wIm = Math.sin(angle * k);
+                for (int i = k; i < n; i += len) {
+                    int j = i + half;
+                    double xRe = re[j] * wRe - im[j] * wIm;
+                    double xIm = re[j] * wIm + im[j] * wRe;
+                    re[j] = re[i] - xRe;
+                    im[j] = im[i] - xIm;
+                    re[i] += xRe;
+                    im[i] += xIm;
+                }
+            }
+        }
+        if (inverse) {
+            for (int i = 0; i < n; i++) {
+                re[i] /= n;
+                im[i] /= n;
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.contestpredictor.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs many asynchronous fetches with a bounded number in flight
+ *
+ * {@code maxInFlight} lanes each take the next key as soon as their previous fetch finishes,
+ * so a slow response never holds up the others and a source is never sent more than
+ * {@code maxInFlight} requests at once. Shared by {@link RatingSourceClient#getAll} and the
+ * batch methods of {@link ContestDataSource}.
+ */
+public final class FetchScheduler {
+
+    private FetchScheduler() {
+    }
+
+    /**
+     * Fetch every key
+     * @return The results in key order; fails with the first error
+     */
+    public static <K, V> CompletableFuture<List<V>> fetchAll(List<K> keys, Function<K, CompletableFuture<V>> fetch,
+                                                             int maxInFlight) {
+        Object[] results = new Object[keys.size()];
+        AtomicInteger next = new AtomicInteger();
+        int lanes = Math.max(1, Math.min(maxInFlight, keys.size()));
+        CompletableFuture<?>[] running = new CompletableFuture<?>[lanes];
+        for (int lane = 0; lane < lanes; lane++) {
+            running[lane] = runLane(keys, fetch, results, next);
+        }
+        return CompletableFuture.allOf(running).thenApply(done -> {
+            List<V> list = new ArrayList<>(results.length);
+            for (Object result : results) {
+                @SuppressWarnings("unchecked")
+                V value = (V) result;
+                list.add(value);
+            }
+            return list;
+        });
+    }
+
+    /**
+     * Fetch keys one after another until none are left
+     */
+    private static <K, V> CompletableFuture<Void> runLane(List<K> keys, Function<K, CompletableFuture<V>> fetch,
+                                                          Object[] results, AtomicInteger next) {
+        int index = next.getAndIncrement();
+        if (index >= keys.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return fetch.apply(keys.get(index)).thenCompose(value -> {
+            results[index] = value;
+            return runLane(keys, fetch, results, next);
+        });
+    }
+}
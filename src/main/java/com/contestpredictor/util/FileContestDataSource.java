@@ -0,0 +1,90 @@
+package com.contestpredictor.util;
+
+import com.contestpredictor.model.Participant;
+import com.contestpredictor.model.RatingChange;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Feeds read from files, for platforms without a client and for working offline
+ *
+ * Layout under the directory, each file a feed in the Codeforces envelope
+ * ({@code {"status":"OK","result":...}}) so recorded API responses can be dropped in as they are:
+ * {@code users.json}, {@code standings/<contestId>.json} (rows under result.rows) and
+ * {@code rating-changes/<contestId>.json}. Records may also use the flat fields described in
+ * {@link JsonFeed}.
+ */
+public class FileContestDataSource implements ContestDataSource {
+
+    private static final ExecutorService IO = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "contest-feed-io");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String name;
+    private final Path directory;
+
+    public FileContestDataSource(String name, Path directory) {
+        this.name = name;
+        this.directory = directory;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public int getMaxInFlight() {
+        return Math.max(2, Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    public CompletableFuture<Integer> streamUsers(int limit, ObjIntConsumer<String> sink) {
+        return read(directory.resolve("users.json"), json -> JsonFeed.readUsers(json, limit, sink, "result"));
+    }
+
+    @Override
+    public CompletableFuture<Integer> streamStandings(String contestId, int from, int count, Consumer<Participant> sink) {
+        return read(standingsFile(contestId),
+            json -> JsonFeed.stream(json, Math.max(0, from - 1), count, JsonFeed::readStanding, sink, "result", "rows"));
+    }
+
+    /**
+     * Recorded standings of a contest; StandingsImporter reads it in one pass instead of by page
+     */
+    public Path standingsFile(String contestId) {
+        return directory.resolve("standings").resolve(contestId + ".json");
+    }
+
+    @Override
+    public CompletableFuture<List<RatingChange>> fetchRatingChanges(String contestId) {
+        return read(directory.resolve("rating-changes").resolve(contestId + ".json"),
+            json -> JsonFeed.readList(json, Integer.MAX_VALUE, reader -> JsonFeed.readRatingChange(reader, contestId), "result"));
+    }
+
+    private static <T> CompletableFuture<T> read(Path file, RatingSourceClient.BodyParser<T> parser) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (Reader json = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                return parser.parse(json);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, IO);
+    }
+}
@@ -0,0 +1,49 @@
+package com.contestpredictor.util;
+
+/**
+ * Stable sorting of primitive row indices, so columnar data can be ordered without boxing
+ */
+public final class IndexSort {
+
+    /**
+     * Compares two rows by index
+     */
+    public interface IndexComparator {
+        int compare(int a, int b);
+    }
+
+    private IndexSort() {
+    }
+
+    /**
+     * Stable merge sort of the first {@code length} entries of {@code indices}
+     * @param indices Row indices to reorder in place
+     * @param length Number of leading entries to sort
+     * @param comparator Row comparator
+     * @param scratch Work array at least {@code length} long
+     */
+    public static void stableSort(int[] indices, int length, IndexComparator comparator, int[] scratch) {
+        int[] src = indices;
+        int[] dst = scratch;
+        for (int width = 1; width < length; width <<= 1) {
+            for (int lo = 0; lo < length; lo += width << 1) {
+                int mid = Math.min(lo + width, length);
+                int hi = Math.min(lo + (width << 1), length);
+                int i = lo;
+                int j = mid;
+                int k = lo;
+                while (i < mid && j < hi) {
+                    dst[k++] = comparator.compare(src[j], src[i]) < 0 ? src[j++] : src[i++];
+                }
+                while (i < mid) dst[k++] = src[i++];
+                while (j < hi) dst[k++] = src[j++];
+            }
+            int[] swap = src;
+            src = dst;
+            dst = swap;
+        }
+        if (src != indices) {
+            System.arraycopy(src, 0, indices, 0, length);
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.contestpredictor.util;
+
+import com.contestpredictor.model.Participant;
+import com.contestpredictor.model.RatingChange;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Streaming decode pipeline shared by every {@link ContestDataSource}
+ *
+ * A feed is a JSON document with the records in an array at a field path, e.g. "result" for
+ * {@code {"status":"OK","result":[...]}} or "result", "rows" for Codeforces standings; an
+ * empty path means the document is the array. Records are decoded one at a time with
+ * Gson's JsonReader and reading stops at the limit, so the rest of the input is never parsed.
+ * A top-level "status" other than OK fails the read with the feed's "comment"; a document
+ * with no array at the path fails too, even when its status is OK.
+ *
+ * The record decoders accept both the Codeforces shapes and flat records
+ * ({@code handle, rating, rank, solved, penalty, oldRating, newRating}) so hand-written
+ * fixture files for other platforms go through the same code.
+ */
+public final class JsonFeed {
+
+    /**
+     * Decodes one record; the reader is positioned at its first token
+     */
+    public interface RecordReader<T> {
+        T read(JsonReader reader) throws IOException;
+    }
+
+    /**
+     * Consumes one record from the reader
+     */
+    private interface RecordHandler {
+        void handle(JsonReader reader) throws IOException;
+    }
+
+    private JsonFeed() {
+    }
+
+    /**
+     * Decode up to {@code limit} records of the array at {@code path}
+     */
+    public static <T> List<T> readList(Reader json, int limit, RecordReader<T> record, String... path) throws Exception {
+        List<T> list = new ArrayList<>(Math.max(0, Math.min(limit, 1 << 16)));
+        read(json, 0, limit, reader -> list.add(record.read(reader)), path);
+        return list;
+    }
+
+    /**
+     * Stream up to {@code limit} users (handle and rating) of the array at {@code path} into a sink
+     * @return Number of users read
+     */
+    public static int readUsers(Reader json, int limit, ObjIntConsumer<String> sink, String... path) throws Exception {
+        return read(json, 0, limit, reader -> readUser(reader, sink), path);
+    }
+
+    /**
+     * Stream records {@code skip + 1} to {@code skip + limit} of the array at {@code path} into a sink;
+     * the records before them are skipped without decoding
+     * @return Number of records passed to the sink
+     */
+    public static <T> int stream(Reader json, int skip, int limit, RecordReader<T> record, Consumer<? super T> sink,
+                                 String... path) throws Exception {
+        return read(json, skip, limit, reader -> sink.accept(record.read(reader)), path);
+    }
+
+    /**
+     * Number of records in the array at {@code path}, skipped without decoding
+     */
+    public static int count(Reader json, String... path) throws Exception {
+        return read(json, 0, Integer.MAX_VALUE, JsonReader::skipValue, path);
+    }
+
+    private static int read(Reader json, int skip, int limit, RecordHandler handler, String... path) throws Exception {
+        JsonReader reader = new JsonReader(json);
+        Walk walk = new Walk(skip, limit, handler, path);
+        walk.descend(reader, 0);
+        if (walk.stopped) {
+            return walk.count; // stop here; the remaining records are never parsed
+        }
+        if (walk.status != null && !"OK".equals(walk.status)) {
+            throw new Exception("API returned error: " + walk.comment);
+        }
+        if (path.length > 0 && !walk.found) {
+            throw new Exception("API returned no " + String.join(".", path));
+        }
+        return walk.count;
+    }
+
+    /**
+     * Position within one read: follows the path down to the array and counts records
+     */
+    private static final class Walk {
+        private final int skip;
+        private final int limit;
+        private final RecordHandler handler;
+        private final String[] path;
+        private int count;
+        private boolean stopped;
+        private boolean found;
+        private String status;
+        private String comment;
+
+        Walk(int skip, int limit, RecordHandler handler, String[] path) {
+            this.skip = skip;
+            this.limit = limit;
+            this.handler = handler;
+            this.path = path;
+        }
+
+        void descend(JsonReader reader, int depth) throws IOException {
+            if (depth == path.length) {
+                found = true;
+                reader.beginArray();
+                for (int skipped = 0; skipped < skip && reader.hasNext(); skipped++) {
+                    reader.skipValue();
+                }
+                while (count < limit && reader.hasNext()) {
+                    handler.handle(reader);
+                    count++;
+                }
+                if (count >= limit) {
+                    stopped = true;
+                    return;
+                }
+                reader.endArray();
+                return;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (depth == 0 && "status".equals(name)) {
+                    status = reader.nextString();
+                } else if (depth == 0 && "comment".equals(name)) {
+                    comment = reader.nextString();
+                } else if (path[depth].equals(name) && (status == null || "OK".equals(status))) {
+                    descend(reader, depth + 1);
+                    if (stopped) {
+                        return;
+                    }
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+    }
+
+    private static void readUser(JsonReader reader, ObjIntConsumer<String> sink) throws IOException {
+        String handle = null;
+        int rating = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ("handle".equals(name)) {
+                handle = reader.nextString();
+            } else if ("rating".equals(name)) {
+                rating = reader.nextInt();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        sink.accept(handle, rating);
+    }
+
+    /**
+     * A standings row: Codeforces {@code party/rank/penalty/problemResults} or flat
+     * {@code handle/rating/rank/solved/penalty}; the rating is 0 when the feed has none
+     */
+    public static Participant readStanding(JsonReader reader) throws IOException {
+        String handle = null;
+        int rating = 0;
+        int rank = 0;
+        int solved = 0;
+        int penalty = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            switch (name) {
+                case "handle":
+                    handle = reader.nextString();
+                    break;
+                case "party":
+                    handle = readParty(reader);
+                    break;
+                case "rating":
+                    rating = reader.nextInt();
+                    break;
+                case "rank":
+                    rank = reader.nextInt();
+                    break;
+                case "solved":
+                    solved = reader.nextInt();
+                    break;
+                case "penalty":
+                    penalty = reader.nextInt();
+                    break;
+                case "problemResults":
+                    solved = countSolved(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new Participant(handle, rating, solved, penalty, rank);
+    }
+
+    /**
+     * Team name if there is one, otherwise the member handles joined with ", "
+     */
+    private static String readParty(JsonReader reader) throws IOException {
+        String teamName = null;
+        StringBuilder members = new StringBuilder();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ("teamName".equals(name)) {
+                teamName = reader.nextString();
+            } else if ("members".equals(name)) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        if ("handle".equals(reader.nextName())) {
+                            if (members.length() > 0) members.append(", ");
+                            members.append(reader.nextString());
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return teamName != null ? teamName : members.toString();
+    }
+
+    private static int countSolved(JsonReader reader) throws IOException {
+        int solved = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if ("points".equals(reader.nextName()) && reader.peek() == JsonToken.NUMBER) {
+                    if (reader.nextDouble() > 0) solved++;
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        reader.endArray();
+        return solved;
+    }
+
+    /**
+     * A rating change: {@code handle, contestId, rank, oldRating, newRating}
+     * @param contestId Contest the feed belongs to, used when the record does not name it
+     */
+    public static RatingChange readRatingChange(JsonReader reader, String contestId) throws IOException {
+        String handle = null;
+        String contest = contestId;
+        int rank = 0;
+        int oldRating = 0;
+        int newRating = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            switch (name) {
+                case "handle":
+                    handle = reader.nextString();
+                    break;
+                case "contestId":
+                    contest = reader.nextString(); // numbers are read as their text
+                    break;
+                case "rank":
+                    rank = reader.nextInt();
+                    break;
+                case "oldRating":
+                    oldRating = reader.nextInt();
+                    break;
+                case "newRating":
+                    newRating = reader.nextInt();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new RatingChange(handle, contest, rank, oldRating, newRating);
+    }
+}
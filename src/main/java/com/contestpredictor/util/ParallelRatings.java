@@ -0,0 +1,159 @@
+package com.contestpredictor.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork/join execution of the per-row rating passes for very large contests
+ *
+ * Contests with at least {@link #getThreshold()} rows split the row range across a
+ * ForkJoinPool; smaller ones run on the calling thread. Rows are computed independently and
+ * reductions are exact integer sums, so both modes produce bit-identical results.
+ * The threshold defaults to 50,000 and can be set with -Dcontestpredictor.parallel.threshold
+ * (Integer.MAX_VALUE forces sequential mode).
+ */
+public final class ParallelRatings {
+
+    public static final int DEFAULT_THRESHOLD = 50_000;
+
+    /** Smallest slice a task is split into */
+    private static final int MIN_LEAF_SIZE = 2_048;
+
+    private static volatile int threshold = Integer.getInteger("contestpredictor.parallel.threshold", DEFAULT_THRESHOLD);
+    private static volatile ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * Work on the half-open row range [from, to)
+     */
+    public interface RowRange {
+        void apply(int from, int to);
+    }
+
+    private ParallelRatings() {
+    }
+
+    public static int getThreshold() {
+        return threshold;
+    }
+
+    public static void setThreshold(int rows) {
+        threshold = rows;
+    }
+
+    public static ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public static void setPool(ForkJoinPool forkJoinPool) {
+        pool = forkJoinPool;
+    }
+
+    /**
+     * Whether a contest of this size runs in parallel
+     */
+    public static boolean isParallel(int rows) {
+        return rows >= threshold;
+    }
+
+    /**
+     * Run {@code body} over rows [0, rows), split across the pool for large contests
+     */
+    public static void forEachRow(int rows, RowRange body) {
+        if (!isParallel(rows)) {
+            body.apply(0, rows);
+            return;
+        }
+        ForkJoinPool forkJoinPool = pool;
+        forkJoinPool.invoke(new RowAction(body, 0, rows, leafSize(rows, forkJoinPool)));
+    }
+
+    /**
+     * Run {@code body} over [0, count) in slices of at most chunkSize spread across the pool,
+     * whatever the threshold; for passes where each item is a whole contest's worth of work
+     */
+    public static void forEachChunk(int count, int chunkSize, RowRange body) {
+        if (count <= chunkSize) {
+            body.apply(0, count);
+            return;
+        }
+        pool.invoke(new RowAction(body, 0, count, Math.max(1, chunkSize)));
+    }
+
+    /**
+     * Exact sum of values[0..rows)
+     */
+    public static long sum(int[] values, int rows) {
+        if (!isParallel(rows)) {
+            return sum(values, 0, rows);
+        }
+        ForkJoinPool forkJoinPool = pool;
+        return forkJoinPool.invoke(new SumTask(values, 0, rows, leafSize(rows, forkJoinPool)));
+    }
+
+    private static long sum(int[] values, int from, int to) {
+        long total = 0;
+        for (int i = from; i < to; i++) {
+            total += values[i];
+        }
+        return total;
+    }
+
+    private static int leafSize(int rows, ForkJoinPool forkJoinPool) {
+        return Math.max(MIN_LEAF_SIZE, rows / (forkJoinPool.getParallelism() * 8));
+    }
+
+    private static final class RowAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final RowRange body;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+
+        RowAction(RowRange body, int from, int to, int leafSize) {
+            this.body = body;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= leafSize) {
+                body.apply(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RowAction(body, from, mid, leafSize), new RowAction(body, mid, to, leafSize));
+        }
+    }
+
+    private static final class SumTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] values;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+
+        SumTask(int[] values, int from, int to, int leafSize) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= leafSize) {
+                return sum(values, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            SumTask left = new SumTask(values, from, mid, leafSize);
+            left.fork();
+            long right = new SumTask(values, mid, to, leafSize).compute();
+            return left.join() + right;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.contestpredictor.util;
+
+import com.contestpredictor.model.ParticipantBatch;
+
+/**
+ * The Predictor screen's formula: percentile performance around the field average, half the
+ * gap as delta, scaled by experience volatility and rating-tier K-factor, capped per tier
+ */
+public class PercentileRatingEngine implements RatingEngine {
+
+    public static final String NAME = "percentile";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void calculateRatingChanges(ParticipantBatch batch) {
+        int n = batch.size();
+        if (n == 0) return;
+
+        int[] ratings = batch.getRatings();
+        int[] ranks = batch.getRanks();
+        double avgRating = (double) ParallelRatings.sum(ratings, n) / n;
+        ParallelRatings.forEachRow(n, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                rateRow(batch, i, n, avgRating);
+            }
+        });
+    }
+
+    @Override
+    public int[] calculateRatingChanges(ParticipantBatch batch, int[] rows) {
+        int n = batch.size();
+        if (n == 0) return rows;
+
+        double avgRating = (double) ParallelRatings.sum(batch.getRatings(), n) / n;
+        for (int row : rows) {
+            rateRow(batch, row, n, avgRating);
+        }
+        return rows;
+    }
+
+    @Override
+    public int predictDelta(int rating, int contestCount, int rank, int totalParticipants) {
+        return calculateRatingChange(rating, calculatePerformance(rank, totalParticipants, DEFAULT_FIELD_AVERAGE), contestCount);
+    }
+
+    @Override
+    public int predictPerformance(int rating, int rank, int totalParticipants) {
+        return (int) calculatePerformance(rank, totalParticipants, DEFAULT_FIELD_AVERAGE);
+    }
+
+    private static void rateRow(ParticipantBatch batch, int row, int totalParticipants, double avgRating) {
+        int rating = batch.getRatings()[row];
+        double performance = calculatePerformance(batch.getRanks()[row], totalParticipants, avgRating);
+        int delta = calculateRatingChange(rating, performance, DEFAULT_CONTEST_COUNT);
+        batch.getPerformances()[row] = (int) performance;
+        batch.getDeltas()[row] = delta;
+        batch.getNewRatings()[row] = rating + delta;
+    }
+
+    /**
+     * Calculate performance rating based on rank
+     * Uses percentile-based formula inspired by competitive programming platforms
+     */
+    private static double calculatePerformance(int rank, int totalParticipants, double avgRating) {
+        double percentile = (double) (totalParticipants - rank + 1) / totalParticipants;
+        percentile = Math.max(0.005, Math.min(0.995, percentile));
+        return avgRating + 400.0 * Math.log10(percentile / (1.0 - percentile));
+    }
+
+    /**
+     * Calculate rating change using Elo-style algorithm
+     * Considers current rating, performance, and participation history
+     */
+    private static int calculateRatingChange(int currentRating, double performance, int contestsParticipated) {
+        double delta = (performance - currentRating) / 2.0;
+        
+        // Volatility factor (higher for newer participants)
+        double volatility = contestsParticipated < 5 ? 1.5 : contestsParticipated < 10 ? 1.25 : contestsParticipated < 20 ? 1.1 : 1.0;
+        delta *= volatility;
+        
+        // K-factor based on rating tier
+        double kFactor = currentRating >= 2400 ? 16.0 : currentRating >= 2000 ? 20.0 : currentRating >= 1600 ? 24.0 : currentRating >= 1200 ? 28.0 : 32.0;
+        delta *= (kFactor / 32.0);
+        
+        // Cap maximum change based on rating tier
+        int maxChange = currentRating >= 2400 ? 150 : currentRating >= 2000 ? 180 : currentRating >= 1600 ? 220 : currentRating >= 1200 ? 250 : 300;
+        int finalChange = (int) Math.round(delta);
+        
+        return Math.abs(finalChange) > maxChange ? (finalChange > 0 ? maxChange : -maxChange) : finalChange;
+    }
+}
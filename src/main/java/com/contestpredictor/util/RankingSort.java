@@ -0,0 +1,137 @@
+package com.contestpredictor.util;
+
+/**
+ * Ranking by (problems solved desc, penalty asc) with an LSD radix sort on a packed key
+ *
+ * Both fields are packed into one long whose unsigned order is the standing order, and the keys
+ * are sorted a digit at a time with counting passes over primitive arrays: no comparator calls,
+ * no boxing, O(n) per pass. Digits are 16 bits for large inputs and 8 bits below 65536 rows so
+ * the histograms stay small; digits that are the same for every key are skipped, so typical
+ * standings (small solve counts, penalties under 65536) need two or three passes. The sort is
+ * stable: tied rows keep their input order.
+ */
+public final class RankingSort {
+
+    /** Inputs this short are insertion sorted */
+    private static final int INSERTION_SORT_LIMIT = 32;
+
+    /** Inputs at least this long use 16-bit digits */
+    private static final int WIDE_DIGIT_LIMIT = 1 << 16;
+
+    private RankingSort() {
+    }
+
+    /**
+     * Key whose unsigned order is problems solved descending, then penalty ascending
+     */
+    public static long standingKey(int problemsSolved, int penalty) {
+        long high = ~(problemsSolved ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+        long low = (penalty ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+        return high << 32 | low;
+    }
+
+    /**
+     * Stable sort of rows 0..length-1 into standing order
+     * @param solved Problems solved per row
+     * @param penalties Penalty per row
+     * @param length Number of rows
+     * @param order Receives the rows in standing order
+     * @return Packed keys in standing order (keys[i] belongs to order[i])
+     */
+    public static long[] sortByStanding(int[] solved, int[] penalties, int length, int[] order) {
+        long[] keys = new long[length];
+        for (int i = 0; i < length; i++) {
+            keys[i] = standingKey(solved[i], penalties[i]);
+            order[i] = i;
+        }
+        sort(keys, order, length, new long[length], new int[length]);
+        return keys;
+    }
+
+    /**
+     * Stable LSD radix sort of keys (unsigned) carrying a row payload along
+     * @param keys Keys to sort in place
+     * @param rows Payload moved with the keys, e.g. row indices
+     * @param length Number of leading entries to sort
+     * @param keyScratch Work array at least {@code length} long
+     * @param rowScratch Work array at least {@code length} long
+     */
+    public static void sort(long[] keys, int[] rows, int length, long[] keyScratch, int[] rowScratch) {
+        if (length <= INSERTION_SORT_LIMIT) {
+            insertionSort(keys, rows, length);
+            return;
+        }
+
+        int digitBits = length < WIDE_DIGIT_LIMIT ? 8 : 16;
+        int radix = 1 << digitBits;
+        int mask = radix - 1;
+        int passes = Long.SIZE / digitBits;
+
+        // One pass over the keys builds the histogram of every digit
+        int[][] counts = new int[passes][radix];
+        for (int i = 0; i < length; i++) {
+            long key = keys[i];
+            for (int pass = 0; pass < passes; pass++) {
+                counts[pass][(int) (key >>> (pass * digitBits)) & mask]++;
+            }
+        }
+
+        long[] srcKeys = keys;
+        int[] srcRows = rows;
+        long[] dstKeys = keyScratch;
+        int[] dstRows = rowScratch;
+        for (int pass = 0; pass < passes; pass++) {
+            int[] count = counts[pass];
+            int shift = pass * digitBits;
+            if (count[(int) (srcKeys[0] >>> shift) & mask] == length) {
+                continue; // every key has the same digit here
+            }
+            int offset = 0;
+            for (int digit = 0; digit < radix; digit++) {
+                int c = count[digit];
+                count[digit] = offset;
+                offset += c;
+            }
+            for (int i = 0; i < length; i++) {
+                long key = srcKeys[i];
+                int slot = count[(int) (key >>> shift) & mask]++;
+                dstKeys[slot] = key;
+                dstRows[slot] = srcRows[i];
+            }
+            long[] swapKeys = srcKeys;
+            srcKeys = dstKeys;
+            dstKeys = swapKeys;
+            int[] swapRows = srcRows;
+            srcRows = dstRows;
+            dstRows = swapRows;
+        }
+        if (srcKeys != keys) {
+            System.arraycopy(srcKeys, 0, keys, 0, length);
+            System.arraycopy(srcRows, 0, rows, 0, length);
+        }
+    }
+
+    private static void insertionSort(long[] keys, int[] rows, int length) {
+        for (int i = 1; i < length; i++) {
+            long key = keys[i];
+            int row = rows[i];
+            int j = i - 1;
+            while (j >= 0 && Long.compareUnsigned(keys[j], key) > 0) {
+                keys[j + 1] = keys[j];
+                rows[j + 1] = rows[j];
+                j--;
+            }
+            keys[j + 1] = key;
+            rows[j + 1] = row;
+        }
+    }
+
+    /**
+     * ranks[order[i]] = i + 1
+     */
+    public static void assignSequentialRanks(int[] order, int length, int[] ranks) {
+        for (int position = 0; position < length; position++) {
+            ranks[order[position]] = position + 1;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.contestpredictor.util;
+
+import com.contestpredictor.model.Contestant;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * On-disk cache of the Codeforces rated list
+ *
+ * The last full list is kept as a memory-mapped {@link RatedUserSnapshot} of handles and
+ * ratings plus the fetch time. Reads are served from the snapshot; once it is older than the TTL
+ * a refresh starts in the background and the stale list is served until it completes. With no
+ * snapshot yet the requested users are downloaded directly and the full list is cached in the
+ * background. In offline mode the network is never used.
+ *
+ * Every refresh diffs the downloaded list against the cached one ({@link RatedListDelta}). An
+ * unchanged list only has the fetch time in the file rewritten; otherwise the snapshot is
+ * replaced and registered {@link Listener}s receive the delta to apply to whatever they built
+ * from the list. Configured with system properties:
+ * {@code contestpredictor.cache.dir} (default {@code cache}), {@code contestpredictor.cache.ttl.minutes}
+ * (default 60) and {@code contestpredictor.offline}.
+ */
+public final class RatedListCache {
+
+    public static final String DIR_PROPERTY = "contestpredictor.cache.dir";
+    public static final String TTL_PROPERTY = "contestpredictor.cache.ttl.minutes";
+    public static final String OFFLINE_PROPERTY = "contestpredictor.offline";
+
+    private static final String SNAPSHOT_FILE = "rated-list.bin";
+
+    private static RatedListCache instance;
+
+    private final Path file;
+    private final Duration ttl;
+    private final boolean offline;
+    private final Source source;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile RatedUserSnapshot snapshot;
+    private ExecutorService refresher;
+
+    /**
+     * Where fresh data comes from
+     */
+    public interface Source {
+        /**
+         * The first {@code limit} rated users
+         */
+        CompletableFuture<List<Contestant>> fetch(int limit);
+
+        /**
+         * Every rated user, ready to be written as a snapshot
+         */
+        default CompletableFuture<RatedUserSnapshot.Builder> fetchAll() {
+            return fetch(Integer.MAX_VALUE).thenApply(RatedUserSnapshot.Builder::of);
+        }
+    }
+
+    /**
+     * Told about every refresh that inserted, changed or removed users, on the thread that ran the refresh
+     */
+    public interface Listener {
+        /**
+         * @param delta Users inserted, changed and removed since the previous snapshot
+         *              (all users inserted when there was none)
+         * @param current The new snapshot, already serving reads
+         */
+        void onRatedListChanged(RatedListDelta delta, RatedUserSnapshot current);
+    }
+
+    public RatedListCache(Path directory, Duration ttl, boolean offline, Source source) {
+        this.file = directory.resolve(SNAPSHOT_FILE);
+        this.ttl = ttl;
+        this.offline = offline;
+        this.source = source;
+    }
+
+    /**
+     * Cache configured from system properties in front of the Codeforces API
+     */
+    public static synchronized RatedListCache getInstance() {
+        if (instance == null) {
+            instance = new RatedListCache(
+                Paths.get(System.getProperty(DIR_PROPERTY, "cache")),
+                Duration.ofMinutes(Long.getLong(TTL_PROPERTY, 60L)),
+                Boolean.getBoolean(OFFLINE_PROPERTY),
+                new Source() {
+                    @Override
+                    public CompletableFuture<List<Contestant>> fetch(int limit) {
+                        return ContestantRatingPredictor.downloadContestants(limit);
+                    }
+
+                    @Override
+                    public CompletableFuture<RatedUserSnapshot.Builder> fetchAll() {
+                        return ContestantRatingPredictor.downloadSnapshot();
+                    }
+                });
+        }
+        return instance;
+    }
+
+    public boolean isOffline() {
+        return offline;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Map the snapshot on a pool thread so the first fetch does not wait for it; never downloads
+     */
+    public CompletableFuture<RatedUserSnapshot> preload() {
+        return CompletableFuture.supplyAsync(this::snapshot);
+    }
+
+    /**
+     * The first {@code limit} rated users, from the snapshot when there is one
+     * @throws Exception If the download fails, or in offline mode with no snapshot
+     */
+    public List<Contestant> get(int limit) throws Exception {
+        try {
+            return getAsync(limit).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    /**
+     * {@link #get} without blocking the caller; the snapshot is mapped on a pool thread
+     * if it is not mapped yet
+     */
+    public CompletableFuture<List<Contestant>> getAsync(int limit) {
+        RatedUserSnapshot current = snapshot;
+        if (current == null) {
+            return CompletableFuture.supplyAsync(this::snapshot)
+                .thenCompose(loaded -> serve(loaded, limit));
+        }
+        return serve(current, limit);
+    }
+
+    private CompletableFuture<List<Contestant>> serve(RatedUserSnapshot current, int limit) {
+        if (offline) {
+            if (current == null) {
+                return CompletableFuture.failedFuture(
+                    new Exception("Offline mode and no cached rated list at " + file));
+            }
+            return CompletableFuture.completedFuture(new ArrayList<>(current.contestants(limit)));
+        }
+        if (current == null) {
+            return source.fetch(limit).whenComplete((contestants, error) -> {
+                if (error == null) {
+                    refreshInBackground();
+                }
+            });
+        }
+        if (isStale(current)) {
+            refreshInBackground();
+        }
+        return CompletableFuture.completedFuture(new ArrayList<>(current.contestants(limit)));
+    }
+
+    public boolean isStale(RatedUserSnapshot current) {
+        return System.currentTimeMillis() - current.getFetchedAt() > ttl.toMillis();
+    }
+
+    /**
+     * The cached snapshot, mapped from disk on first use; null if there is none or it is unreadable
+     */
+    public RatedUserSnapshot snapshot() {
+        RatedUserSnapshot current = snapshot;
+        if (current == null && Files.isRegularFile(file)) {
+            try {
+                current = RatedUserSnapshot.open(file);
+                snapshot = current;
+            } catch (IOException e) {
+                System.err.println("Ignoring unreadable rated list cache " + file + ": " + e.getMessage());
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Download the full list now and apply it to the snapshot
+     * @return What changed since the previous snapshot
+     */
+    public RatedListDelta refresh() throws Exception {
+        if (offline) {
+            throw new Exception("Offline mode: not refreshing the rated list");
+        }
+        RatedUserSnapshot.Builder builder;
+        try {
+            builder = source.fetchAll().join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+        RatedUserSnapshot previous = snapshot();
+        RatedListDelta delta = RatedListDelta.diff(previous, builder);
+        if (previous != null && delta.isEmpty() && !delta.isReordered()) {
+            snapshot = touch(previous);
+            return delta;
+        }
+        RatedUserSnapshot fresh = write(builder);
+        snapshot = fresh;
+        if (delta.isEmpty()) {
+            return delta; // only the order of equally rated users changed
+        }
+        for (Listener listener : listeners) {
+            try {
+                listener.onRatedListChanged(delta, fresh);
+            } catch (RuntimeException e) {
+                System.err.println("Rated list listener failed: " + e.getMessage());
+            }
+        }
+        return delta;
+    }
+
+    /**
+     * Start a refresh on the background thread unless one is already running
+     * @return The running refresh, or null if one was already in progress
+     */
+    public Future<?> refreshInBackground() {
+        if (offline || !refreshing.compareAndSet(false, true)) {
+            return null;
+        }
+        return refresher().submit(() -> {
+            try {
+                refresh();
+            } catch (Exception e) {
+                System.err.println("Background refresh of the rated list failed: " + e.getMessage());
+            } finally {
+                refreshing.set(false);
+            }
+        });
+    }
+
+    private synchronized ExecutorService refresher() {
+        if (refresher == null) {
+            refresher = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "rated-list-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return refresher;
+    }
+
+    private synchronized RatedUserSnapshot touch(RatedUserSnapshot current) throws IOException {
+        return current.touch(System.currentTimeMillis());
+    }
+
+    private synchronized RatedUserSnapshot write(RatedUserSnapshot.Builder builder) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), SNAPSHOT_FILE, ".tmp");
+        builder.write(temp, System.currentTimeMillis());
+        try {
+            // Readers see either the old snapshot or the new one, never a partial file; an old
+            // mapping keeps reading the replaced file until it is collected
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Windows refuses to replace a file that is still mapped; serve the new copy for now
+            System.err.println("Could not replace " + file + ", using " + temp + " until restart: " + e.getMessage());
+            temp.toFile().deleteOnExit();
+            return RatedUserSnapshot.open(temp);
+        }
+        return RatedUserSnapshot.open(file);
+    }
+}
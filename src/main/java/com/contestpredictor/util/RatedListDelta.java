@@ -0,0 +1,270 @@
+package com.contestpredictor.util;
+
+import com.contestpredictor.model.Contestant;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * What changed in the rated list between two refreshes, keyed by handle
+ *
+ * Users new to the list are inserted, users whose rating moved are changed and users no longer
+ * listed are removed. The list is sorted by rating, so between refreshes most users only move by
+ * the few places others overtook them. A first pass compares each row with the previous rows
+ * near the offset the last match had, or failing that near the same place among the previous
+ * users with the same rating (found by binary search); only the rows it cannot place (users
+ * whose rating moved them, newcomers) are looked up in a hash index of the previous rows
+ * nobody matched. An unsorted list is still diffed correctly, just through the index.
+ * Handles are compared as bytes, so rows present in both lists are never decoded; only the
+ * users in the delta become objects. Consumers apply it to whatever they built from the list
+ * instead of rebuilding from scratch (see {@link RatedListCache.Listener}).
+ */
+public final class RatedListDelta {
+
+    /** Offsets either side of the last one tried before a row is left to the hash index */
+    private static final int WINDOW = 8;
+
+    /**
+     * A user whose rating changed
+     */
+    public static final class Change {
+        private final String handle;
+        private final int oldRating;
+        private final int newRating;
+
+        Change(String handle, int oldRating, int newRating) {
+            this.handle = handle;
+            this.oldRating = oldRating;
+            this.newRating = newRating;
+        }
+
+        public String getHandle() {
+            return handle;
+        }
+
+        public int getOldRating() {
+            return oldRating;
+        }
+
+        public int getNewRating() {
+            return newRating;
+        }
+
+        public int getDelta() {
+            return newRating - oldRating;
+        }
+
+        @Override
+        public String toString() {
+            return handle + ": " + oldRating + " -> " + newRating;
+        }
+    }
+
+    private final List<Contestant> inserted;
+    private final List<Change> changed;
+    private final List<Contestant> removed;
+    private final boolean reordered;
+    private final int previousSize;
+    private final int currentSize;
+
+    private RatedListDelta(List<Contestant> inserted, List<Change> changed, List<Contestant> removed,
+                           boolean reordered, int previousSize, int currentSize) {
+        this.inserted = Collections.unmodifiableList(inserted);
+        this.changed = Collections.unmodifiableList(changed);
+        this.removed = Collections.unmodifiableList(removed);
+        this.reordered = reordered;
+        this.previousSize = previousSize;
+        this.currentSize = currentSize;
+    }
+
+    /**
+     * Diff a freshly downloaded list against the cached snapshot
+     * @param previous Cached snapshot, or null when there is none (every user is then inserted)
+     * @param current Freshly downloaded list
+     */
+    public static RatedListDelta diff(RatedUserSnapshot previous, RatedUserSnapshot.Builder current) {
+        int previousSize = previous == null ? 0 : previous.size();
+        int currentSize = current.size();
+        List<Contestant> inserted = new ArrayList<>();
+        List<Change> changed = new ArrayList<>();
+        List<Contestant> removed = new ArrayList<>();
+        boolean reordered = false;
+
+        // Previous row of every current row, or -1
+        int[] match = new int[currentSize];
+        boolean[] seen = new boolean[previousSize];
+        int unmatched = 0;
+        int shift = 0;
+        int tieStart = 0; // first current row with the rating of row i
+        for (int i = 0; i < currentSize; i++) {
+            if (i > 0 && current.ratingAt(i) != current.ratingAt(i - 1)) {
+                tieStart = i;
+            }
+            int row = near(previous, previousSize, seen, current, i, i + shift);
+            if (row < 0 && previousSize > 0) {
+                int anchor = firstRatedAtMost(previous, current.ratingAt(i)) + (i - tieStart);
+                if (anchor != i + shift) {
+                    row = near(previous, previousSize, seen, current, i, anchor);
+                }
+            }
+            match[i] = row;
+            if (row < 0) {
+                unmatched++;
+            } else {
+                seen[row] = true;
+                shift = row - i;
+            }
+        }
+        if (unmatched > 0) {
+            int[] slots = index(previous, previousSize, seen);
+            for (int i = 0; i < currentSize; i++) {
+                if (match[i] < 0) {
+                    int row = lookup(slots, previous, current, i);
+                    if (row >= 0) {
+                        match[i] = row;
+                        seen[row] = true;
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < currentSize; i++) {
+            int row = match[i];
+            if (row < 0) {
+                inserted.add(new Contestant(current.handleAt(i), current.ratingAt(i)));
+                continue;
+            }
+            reordered |= row != i;
+            if (previous.ratingAt(row) != current.ratingAt(i)) {
+                changed.add(new Change(current.handleAt(i), previous.ratingAt(row), current.ratingAt(i)));
+            }
+        }
+        for (int row = 0; row < previousSize; row++) {
+            if (!seen[row]) {
+                removed.add(new Contestant(previous.handleAt(row), previous.ratingAt(row)));
+            }
+        }
+        return new RatedListDelta(inserted, changed, removed, reordered || previousSize != currentSize,
+            previousSize, currentSize);
+    }
+
+    /**
+     * Unmatched previous row with the handle of current row {@code i} within {@link #WINDOW} of {@code guess}, or -1
+     */
+    private static int near(RatedUserSnapshot previous, int previousSize, boolean[] seen,
+                            RatedUserSnapshot.Builder current, int i, int guess) {
+        for (int step = 0; step <= 2 * WINDOW; step++) {
+            int row = guess + ((step & 1) == 0 ? step >> 1 : -((step + 1) >> 1));
+            if (row >= 0 && row < previousSize && !seen[row] && current.handleEquals(i, previous, row)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * First row rated {@code rating} or lower in a list sorted by rating, best first
+     */
+    private static int firstRatedAtMost(RatedUserSnapshot previous, int rating) {
+        int low = 0;
+        int high = previous.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (previous.ratingAt(mid) > rating) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Open addressing over the previous rows not matched yet: a slot holds row + 1, 0 is empty
+     */
+    private static int[] index(RatedUserSnapshot previous, int previousSize, boolean[] seen) {
+        int size = 0;
+        for (int row = 0; row < previousSize; row++) {
+            if (!seen[row]) {
+                size++;
+            }
+        }
+        int[] slots = new int[Integer.highestOneBit(Math.max(2, size * 2 - 1)) << 1];
+        int mask = slots.length - 1;
+        for (int row = 0; row < previousSize; row++) {
+            if (seen[row]) {
+                continue;
+            }
+            int slot = mix(previous.handleHash(row)) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = row + 1;
+        }
+        return slots;
+    }
+
+    /**
+     * Previous row with the handle of current row {@code i}, or -1
+     */
+    private static int lookup(int[] slots, RatedUserSnapshot previous, RatedUserSnapshot.Builder current, int i) {
+        int mask = slots.length - 1;
+        for (int slot = mix(current.handleHash(i)) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            if (current.handleEquals(i, previous, slots[slot] - 1)) {
+                return slots[slot] - 1;
+            }
+        }
+        return -1;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /** Users new to the list, with their ratings, in list order */
+    public List<Contestant> getInserted() {
+        return inserted;
+    }
+
+    /** Users whose rating changed, in list order */
+    public List<Change> getChanged() {
+        return changed;
+    }
+
+    /** Users no longer listed, with their last ratings */
+    public List<Contestant> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * Whether a user moved to a different position or the length changed; an empty delta that is
+     * not reordered means the two lists are identical
+     */
+    public boolean isReordered() {
+        return reordered;
+    }
+
+    public boolean isEmpty() {
+        return inserted.isEmpty() && changed.isEmpty() && removed.isEmpty();
+    }
+
+    /** Inserted, changed and removed users together */
+    public int size() {
+        return inserted.size() + changed.size() + removed.size();
+    }
+
+    public int getPreviousSize() {
+        return previousSize;
+    }
+
+    public int getCurrentSize() {
+        return currentSize;
+    }
+
+    @Override
+    public String toString() {
+        return "+" + inserted.size() + " ~" + changed.size() + " -" + removed.size()
+            + " (" + previousSize + " -> " + currentSize + " users)";
+    }
+}
@@ -0,0 +1,288 @@
+package com.contestpredictor.util;
+
+import com.contestpredictor.model.Contestant;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Rated users in a fixed-layout binary file, read through a MappedByteBuffer
+ *
+ * Layout (little-endian): magic, version, fetch time (long), user count n, handle blob length;
+ * then n ratings, n + 1 offsets into the blob, and the blob of UTF-8 handles back to back.
+ * Opening maps the file and checks the header, so a list of any size is available in about
+ * a millisecond; handles are decoded only when a row is read. Files are written by {@link Builder}.
+ * Handles can be hashed and compared in place, so {@link RatedListDelta} diffs two lists
+ * without decoding the rows they share.
+ */
+public final class RatedUserSnapshot {
+
+    private static final int MAGIC = 0x52545553; // "RTUS"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 4;
+    private static final int FETCHED_AT_OFFSET = 8;
+
+    private final Path file;
+    private final long fetchedAt;
+    private final int count;
+    private final IntBuffer ratings;
+    private final IntBuffer offsets;
+    private final ByteBuffer blob;
+
+    private RatedUserSnapshot(Path file, long fetchedAt, int count, IntBuffer ratings, IntBuffer offsets,
+                              ByteBuffer blob) {
+        this.file = file;
+        this.fetchedAt = fetchedAt;
+        this.count = count;
+        this.ratings = ratings;
+        this.offsets = offsets;
+        this.blob = blob;
+    }
+
+    /**
+     * Map a snapshot file
+     * @throws IOException If the file cannot be read or is not a complete snapshot
+     */
+    public static RatedUserSnapshot open(Path file) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        mapped.order(ByteOrder.LITTLE_ENDIAN);
+        if (mapped.capacity() < HEADER_BYTES || mapped.getInt(0) != MAGIC) {
+            throw new IOException("not a rated user snapshot");
+        }
+        if (mapped.getInt(4) != VERSION) {
+            throw new IOException("unsupported snapshot version " + mapped.getInt(4));
+        }
+        long fetchedAt = mapped.getLong(FETCHED_AT_OFFSET);
+        int count = mapped.getInt(16);
+        int blobLength = mapped.getInt(20);
+        long expected = HEADER_BYTES + 4L * count + 4L * (count + 1) + blobLength;
+        if (count < 0 || blobLength < 0 || expected != mapped.capacity()) {
+            throw new IOException("truncated snapshot: " + mapped.capacity() + " bytes, expected " + expected);
+        }
+
+        int ratingsAt = HEADER_BYTES;
+        int offsetsAt = ratingsAt + 4 * count;
+        int blobAt = offsetsAt + 4 * (count + 1);
+        return new RatedUserSnapshot(file, fetchedAt, count,
+            slice(mapped, ratingsAt, 4 * count).asIntBuffer(),
+            slice(mapped, offsetsAt, 4 * (count + 1)).asIntBuffer(),
+            slice(mapped, blobAt, blobLength));
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int from, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(from).limit(from + length);
+        return view.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Rewrite only the fetch time of this snapshot's file, for a refresh that found the list unchanged
+     * @return The snapshot mapped again with the new fetch time
+     */
+    public RatedUserSnapshot touch(long fetchedAt) throws IOException {
+        ByteBuffer time = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(0, fetchedAt);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            while (time.hasRemaining()) {
+                channel.write(time, FETCHED_AT_OFFSET + time.position());
+            }
+            channel.force(false);
+        }
+        return open(file);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /** Fetch time in epoch milliseconds */
+    public long getFetchedAt() {
+        return fetchedAt;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int ratingAt(int index) {
+        return ratings.get(index);
+    }
+
+    public String handleAt(int index) {
+        int from = offsets.get(index);
+        byte[] bytes = new byte[offsets.get(index + 1) - from];
+        ByteBuffer view = blob.duplicate();
+        view.position(from);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Hash of a row's handle bytes, equal to {@link Builder#handleHash} for the same handle
+     */
+    int handleHash(int index) {
+        int hash = 1;
+        for (int i = offsets.get(index), end = offsets.get(index + 1); i < end; i++) {
+            hash = 31 * hash + blob.get(i);
+        }
+        return hash;
+    }
+
+    /**
+     * Whether a row's handle is the UTF-8 bytes {@code bytes[from, to)}
+     */
+    boolean handleEquals(int index, byte[] bytes, int from, int to) {
+        int start = offsets.get(index);
+        if (offsets.get(index + 1) - start != to - from) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            if (blob.get(start + i - from) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lazy view of the first {@code limit} users; every get decodes the row into a new Contestant,
+     * so copy the list before changing the contestants in it
+     */
+    public List<Contestant> contestants(int limit) {
+        int size = Math.max(0, Math.min(limit, count));
+        return new AbstractList<Contestant>() {
+            @Override
+            public Contestant get(int index) {
+                if (index < 0 || index >= size) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+                }
+                return new Contestant(handleAt(index), ratingAt(index));
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Collects rated users and writes them as a snapshot file
+     */
+    public static final class Builder {
+        private int[] ratings = new int[1024];
+        private int[] offsets = new int[1025];
+        private byte[] blob = new byte[16 * 1024];
+        private int count;
+
+        /**
+         * Every user of a user.ratedList response, streamed straight into a builder
+         */
+        public static Builder fromRatedList(Reader json) throws Exception {
+            Builder builder = new Builder();
+            ContestantRatingPredictor.parseRatedList(json, Integer.MAX_VALUE, builder::add);
+            return builder;
+        }
+
+        public static Builder of(List<Contestant> contestants) {
+            Builder builder = new Builder();
+            for (Contestant contestant : contestants) {
+                builder.add(contestant.getHandle(), contestant.getOldRating());
+            }
+            return builder;
+        }
+
+        public Builder add(String handle, int rating) {
+            byte[] bytes = handle.getBytes(StandardCharsets.UTF_8);
+            if (count == ratings.length) {
+                ratings = Arrays.copyOf(ratings, count * 2);
+                offsets = Arrays.copyOf(offsets, count * 2 + 1);
+            }
+            int end = offsets[count];
+            if (end + bytes.length > blob.length) {
+                blob = Arrays.copyOf(blob, Math.max(blob.length * 2, end + bytes.length));
+            }
+            System.arraycopy(bytes, 0, blob, end, bytes.length);
+            ratings[count] = rating;
+            offsets[++count] = end + bytes.length;
+            return this;
+        }
+
+        public int size() {
+            return count;
+        }
+
+        public int ratingAt(int index) {
+            return ratings[index];
+        }
+
+        public String handleAt(int index) {
+            return new String(blob, offsets[index], offsets[index + 1] - offsets[index], StandardCharsets.UTF_8);
+        }
+
+        int handleHash(int index) {
+            int hash = 1;
+            for (int i = offsets[index], end = offsets[index + 1]; i < end; i++) {
+                hash = 31 * hash + blob[i];
+            }
+            return hash;
+        }
+
+        boolean handleEquals(int index, RatedUserSnapshot snapshot, int row) {
+            return snapshot.handleEquals(row, blob, offsets[index], offsets[index + 1]);
+        }
+
+        /**
+         * The first {@code limit} users collected so far as new Contestant objects
+         */
+        public List<Contestant> first(int limit) {
+            int size = Math.max(0, Math.min(limit, count));
+            List<Contestant> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(new Contestant(handleAt(i), ratings[i]));
+            }
+            return list;
+        }
+
+        /**
+         * Write the snapshot, replacing {@code file}
+         */
+        public void write(Path file, long fetchedAt) throws IOException {
+            int blobLength = offsets[count];
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + 4 * count + 4 * (count + 1))
+                .order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putLong(fetchedAt).putInt(count).putInt(blobLength);
+            header.asIntBuffer().put(ratings, 0, count);
+            header.position(HEADER_BYTES + 4 * count);
+            header.asIntBuffer().put(offsets, 0, count + 1);
+            header.position(0);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                writeFully(channel, header);
+                writeFully(channel, ByteBuffer.wrap(blob, 0, blobLength));
+                channel.force(false);
+            }
+        }
+
+        private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.contestpredictor.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Predicted rating change for every rank 1..N of one participant
+ *
+ * The whole curve is computed in one pass over a primitive array
+ * ({@link RatingEngine#predictDeltas}) and cached per (engine, rating, contests, N) in a small
+ * LRU cache, so the predictor can plot it and answer "which rank do I need for +50?" by binary
+ * search without recomputing anything.
+ */
+public final class RatingCurve {
+
+    /** Curves kept in the cache; a 100k-participant curve is 400 KB */
+    private static final int CACHE_SIZE = 16;
+
+    private static final Map<String, RatingCurve> CACHE = new LinkedHashMap<String, RatingCurve>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, RatingCurve> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private final int rating;
+    private final int totalParticipants;
+    private final int[] deltas;
+    private final boolean nonIncreasing;
+
+    private RatingCurve(int rating, int totalParticipants, int[] deltas) {
+        this.rating = rating;
+        this.totalParticipants = totalParticipants;
+        this.deltas = deltas;
+        boolean monotone = true;
+        for (int i = 1; i < deltas.length && monotone; i++) {
+            monotone = deltas[i] <= deltas[i - 1];
+        }
+        this.nonIncreasing = monotone;
+    }
+
+    /**
+     * Curve of a participant in a contest of totalParticipants, from the cache when available
+     * @param engine Engine making the predictions
+     * @param rating Current rating
+     * @param contestCount Contests the participant has taken part in
+     * @param totalParticipants Number of participants (N)
+     */
+    public static RatingCurve of(RatingEngine engine, int rating, int contestCount, int totalParticipants) {
+        if (totalParticipants <= 0) {
+            throw new IllegalArgumentException("Total participants must be positive: " + totalParticipants);
+        }
+        String key = engine.getName() + ":" + rating + ":" + contestCount + ":" + totalParticipants;
+        synchronized (CACHE) {
+            RatingCurve cached = CACHE.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        int[] deltas = new int[totalParticipants];
+        engine.predictDeltas(rating, contestCount, totalParticipants, deltas);
+        RatingCurve curve = new RatingCurve(rating, totalParticipants, deltas);
+        synchronized (CACHE) {
+            CACHE.put(key, curve);
+        }
+        return curve;
+    }
+
+    public int getRating() {
+        return rating;
+    }
+
+    public int getTotalParticipants() {
+        return totalParticipants;
+    }
+
+    /**
+     * Predicted rating change at a rank (1-based)
+     */
+    public int deltaAt(int rank) {
+        if (rank < 1 || rank > totalParticipants) {
+            throw new IllegalArgumentException("Rank " + rank + " outside 1.." + totalParticipants);
+        }
+        return deltas[rank - 1];
+    }
+
+    /**
+     * Worst (largest) rank that still gains at least targetDelta
+     * @return The rank, or 0 if even first place falls short
+     */
+    public int worstRankFor(int targetDelta) {
+        if (!nonIncreasing) {
+            for (int rank = totalParticipants; rank >= 1; rank--) {
+                if (deltas[rank - 1] >= targetDelta) return rank;
+            }
+            return 0;
+        }
+        // Deltas never grow with rank: find the last index with delta >= target
+        int low = 0;
+        int high = totalParticipants;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (deltas[mid] >= targetDelta) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * At most maxPoints ranks, evenly spread over 1..N and always including both ends,
+     * for plotting large curves without one chart node per rank
+     */
+    public int[] sampleRanks(int maxPoints) {
+        int points = Math.max(2, Math.min(maxPoints, totalParticipants));
+        if (totalParticipants == 1) {
+            return new int[] {1};
+        }
+        int[] ranks = new int[points];
+        for (int i = 0; i < points; i++) {
+            ranks[i] = 1 + (int) ((long) i * (totalParticipants - 1) / (points - 1));
+        }
+        return ranks;
+    }
+
+    /**
+     * Drop every cached curve, e.g. after the engine configuration changed
+     */
+    public static void clearCache() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+}
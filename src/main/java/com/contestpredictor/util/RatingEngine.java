@@ -0,0 +1,114 @@
+package com.contestpredictor.util;
+
+import com.contestpredictor.model.Participant;
+import com.contestpredictor.model.ParticipantBatch;
+import java.util.List;
+
+/**
+ * A rating algorithm that turns contest results into rating changes
+ *
+ * Implementations are registered in {@link RatingEngines} and looked up by name, so every
+ * screen computes ratings through the same interface and engines can be swapped by configuration.
+ */
+public interface RatingEngine {
+
+    /** Contests assumed for participants whose history is unknown */
+    int DEFAULT_CONTEST_COUNT = 10;
+
+    /** Field average assumed when a prediction is made without the other participants */
+    int DEFAULT_FIELD_AVERAGE = 1400;
+
+    /**
+     * Short identifier of the algorithm
+     */
+    String getName();
+
+    /**
+     * Rank every row by problems solved (desc) then penalty (asc) and fill in its rank,
+     * new rating, delta and performance; the batch's order column ends up in standing order
+     * @param batch Participants in columnar form
+     */
+    default void calculateRatings(ParticipantBatch batch) {
+        StandingsSort.sortByStanding(batch);
+        StandingsSort.assignSequentialRanks(batch);
+        calculateRatingChanges(batch);
+    }
+
+    /**
+     * Whether {@link #calculateRatings(ParticipantBatch)} gives tied rows a shared rank instead of
+     * sequential ones; such engines cannot be fed the sequential ranks of a {@link StandingsTree}
+     * update and are re-ranked in full after an edit
+     */
+    default boolean sharesTiedRanks() {
+        return false;
+    }
+
+    /**
+     * Fill in new rating, delta and performance of every row from the ranks already in the batch
+     * @param batch Ranked participants in columnar form
+     */
+    void calculateRatingChanges(ParticipantBatch batch);
+
+    /**
+     * Refresh selected rows after they were re-ranked within an unchanged field
+     * (see {@link StandingsTree}); engines whose rows depend on each other recompute everything
+     * @param batch Ranked participants in columnar form
+     * @param rows Rows whose rank changed
+     * @return Rows whose new rating, delta or performance may have changed
+     */
+    default int[] calculateRatingChanges(ParticipantBatch batch, int[] rows) {
+        calculateRatingChanges(batch);
+        int[] all = new int[batch.size()];
+        for (int row = 0; row < all.length; row++) {
+            all[row] = row;
+        }
+        return all;
+    }
+
+    /**
+     * Rating change of one participant from a place alone, for screens that have no field;
+     * the other participants are assumed to average {@link #DEFAULT_FIELD_AVERAGE}
+     * @param rating Current rating
+     * @param contestCount Contests the participant has taken part in
+     * @param rank Place in the contest
+     * @param totalParticipants Number of participants
+     */
+    int predictDelta(int rating, int contestCount, int rank, int totalParticipants);
+
+    /**
+     * Performance rating shown alongside {@link #predictDelta}
+     */
+    int predictPerformance(int rating, int rank, int totalParticipants);
+
+    /**
+     * {@link #predictDelta} for every rank at once: deltas[rank - 1] for rank 1..totalParticipants
+     * Engines override this to hoist work shared by all ranks out of the loop
+     * @param deltas Receives the curve, at least totalParticipants long
+     */
+    default void predictDeltas(int rating, int contestCount, int totalParticipants, int[] deltas) {
+        for (int rank = 1; rank <= totalParticipants; rank++) {
+            deltas[rank - 1] = predictDelta(rating, contestCount, rank, totalParticipants);
+        }
+    }
+
+    /**
+     * List adapter: runs the batch computation, writes rank, predicted rating and rating
+     * change back and leaves the list in standing order
+     * @param participants Participants with current rating, problems solved and penalty
+     */
+    default void calculateRatings(List<Participant> participants) {
+        ParticipantBatch batch = ParticipantBatch.fromParticipants(participants);
+        calculateRatings(batch);
+        batch.applyTo(participants);
+    }
+
+    /**
+     * List adapter for participants whose ranks are already assigned; the list order is kept
+     * @param rankedParticipants Participants with current rating and rank
+     */
+    default void calculateRatingChanges(List<Participant> rankedParticipants) {
+        ParticipantBatch batch = ParticipantBatch.fromParticipants(rankedParticipants);
+        calculateRatingChanges(batch);
+        batch.applyTo(rankedParticipants);
+    }
+}
@@ -0,0 +1,79 @@
+package com.contestpredictor.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Registry of rating engines, chosen by configuration
+ *
+ * Each screen asks for its engine with {@link #forScreen}. The choice is read from the system
+ * property {@code contestpredictor.rating.engine.<screen>}, then {@code contestpredictor.rating.engine}
+ * (all screens), then the screen's own default, so
+ * {@code -Dcontestpredictor.rating.engine=codeforces} runs every screen on the Codeforces engine.
+ */
+public final class RatingEngines {
+
+    public static final String PROPERTY = "contestpredictor.rating.engine";
+
+    /** Screen keys used with {@link #forScreen} */
+    public static final String SCREEN_PREDICTOR = "predictor";
+    public static final String SCREEN_RATING_PREDICTOR = "ratingpredictor";
+    public static final String SCREEN_CONTEST_SEARCH = "contestsearch";
+    public static final String SCREEN_STANDINGS = "standings";
+    public static final String SCREEN_CONTESTS = "contests";
+    public static final String SCREEN_REPLAY = "replay";
+
+    private static final Map<String, RatingEngine> ENGINES = new LinkedHashMap<>();
+
+    static {
+        register(new ClassicRatingEngine());
+        register(new AtCoderRatingEngine());
+        register(new EloRatingEngine());
+        register(new PercentileRatingEngine());
+        register(new CodeforcesRatingEngine());
+    }
+
+    private RatingEngines() {
+    }
+
+    /**
+     * Add or replace an engine under its {@link RatingEngine#getName()}
+     */
+    public static synchronized void register(RatingEngine engine) {
+        ENGINES.put(engine.getName(), engine);
+    }
+
+    /**
+     * Engine registered under the given name
+     * @throws IllegalArgumentException if no engine has that name
+     */
+    public static synchronized RatingEngine get(String name) {
+        RatingEngine engine = ENGINES.get(name);
+        if (engine == null) {
+            throw new IllegalArgumentException("Unknown rating engine '" + name + "', expected one of " + ENGINES.keySet());
+        }
+        return engine;
+    }
+
+    public static synchronized Set<String> names() {
+        return Collections.unmodifiableSet(new java.util.LinkedHashSet<>(ENGINES.keySet()));
+    }
+
+    /**
+     * Engine configured for a screen, falling back to the screen's default engine
+     * An unknown configured name is reported and the default is used instead
+     * @param screen One of the SCREEN_ keys
+     * @param defaultEngine Name of the engine the screen uses when nothing is configured
+     */
+    public static RatingEngine forScreen(String screen, String defaultEngine) {
+        String name = System.getProperty(PROPERTY + "." + screen, System.getProperty(PROPERTY, defaultEngine));
+        try {
+            return get(name);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Rating engine for " + screen + ": " + e.getMessage() + "; using " + defaultEngine);
+            return get(defaultEngine);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.contestpredictor.util;
+
+import com.contestpredictor.model.ParticipantBatch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Monte Carlo forecast of the rating change of every participant of an upcoming contest
+ *
+ * Each trial draws a performance per participant, ranks the field by it and rates the outcome
+ * with a {@link RatingEngine}. Performances are rating + Gumbel noise scaled by 400 / ln 10,
+ * which reproduces the Elo win probability for every pair. Every trial has its own
+ * SplittableRandom, split from the seed in trial order before any work starts, and writes to
+ * its own slots, so results are identical for a given seed however the trials are scheduled
+ * across the ForkJoinPool. {@link #cancel()} stops a run between trials.
+ */
+public final class RatingForecast {
+
+    public static final int DEFAULT_TRIALS = 2_000;
+
+    /** Gumbel scale that turns independent draws into Elo pairwise win probabilities */
+    private static final double PERFORMANCE_SCALE = 400.0 / Math.log(10);
+
+    private final RatingEngine engine;
+    private final int trials;
+    private final long seed;
+    private volatile boolean cancelled;
+
+    /**
+     * Distribution of one participant's rating change over all trials
+     */
+    public static final class Outcome {
+        private final String username;
+        private final int rating;
+        private final double mean;
+        private final int p10;
+        private final int p25;
+        private final int median;
+        private final int p75;
+        private final int p90;
+        private final double probabilityOfGain;
+
+        Outcome(String username, int rating, double mean, int p10, int p25, int median, int p75, int p90,
+                double probabilityOfGain) {
+            this.username = username;
+            this.rating = rating;
+            this.mean = mean;
+            this.p10 = p10;
+            this.p25 = p25;
+            this.median = median;
+            this.p75 = p75;
+            this.p90 = p90;
+            this.probabilityOfGain = probabilityOfGain;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public int getRating() {
+            return rating;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public int getP10() {
+            return p10;
+        }
+
+        public int getP25() {
+            return p25;
+        }
+
+        public int getMedian() {
+            return median;
+        }
+
+        public int getP75() {
+            return p75;
+        }
+
+        public int getP90() {
+            return p90;
+        }
+
+        /** Share of trials with a positive rating change */
+        public double getProbabilityOfGain() {
+            return probabilityOfGain;
+        }
+    }
+
+    /**
+     * @param engine Engine rating each simulated outcome
+     * @param trials Number of simulated contests
+     * @param seed Seed; the same seed gives the same forecast
+     */
+    public RatingForecast(RatingEngine engine, int trials, long seed) {
+        if (trials <= 0) {
+            throw new IllegalArgumentException("Trials must be positive: " + trials);
+        }
+        this.engine = engine;
+        this.trials = trials;
+        this.seed = seed;
+    }
+
+    /**
+     * Stop a running forecast; {@link #run} then throws CancellationException
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Simulate the contest and summarise each participant's rating change
+     * @param usernames Participants of the contest
+     * @param ratings Current rating per participant
+     * @return One outcome per participant, in input order
+     * @throws CancellationException If {@link #cancel()} was called
+     */
+    public List<Outcome> run(List<String> usernames, int[] ratings) {
+        int n = usernames.size();
+        if (n == 0) {
+            return new ArrayList<>();
+        }
+        if ((long) n * trials > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(n + " participants x " + trials + " trials is too large");
+        }
+
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[trials];
+        for (int trial = 0; trial < trials; trial++) {
+            streams[trial] = root.split();
+        }
+
+        // deltas[i * trials + trial]: each participant's results are contiguous for the summary pass
+        int[] deltas = new int[n * trials];
+        int chunkSize = Math.max(1, trials / (ParallelRatings.getPool().getParallelism() * 8));
+        ParallelRatings.forEachChunk(trials, chunkSize, (from, to) -> {
+            ParticipantBatch batch = new ParticipantBatch(n);
+            for (int i = 0; i < n; i++) {
+                batch.add(usernames.get(i), ratings[i], 0, 0, 0);
+            }
+            long[] keys = new long[n];
+            int[] order = new int[n];
+            long[] keyScratch = new long[n];
+            int[] rowScratch = new int[n];
+            for (int trial = from; trial < to; trial++) {
+                if (cancelled) {
+                    throw new CancellationException("Forecast cancelled");
+                }
+                simulate(streams[trial], ratings, n, keys, order, keyScratch, rowScratch);
+                System.arraycopy(order, 0, batch.getOrder(), 0, n);
+                RankingSort.assignSequentialRanks(order, n, batch.getRanks());
+                engine.calculateRatingChanges(batch);
+                int[] trialDeltas = batch.getDeltas();
+                for (int i = 0; i < n; i++) {
+                    deltas[i * trials + trial] = trialDeltas[i];
+                }
+            }
+        });
+
+        Outcome[] outcomes = new Outcome[n];
+        ParallelRatings.forEachChunk(n, Math.max(1, n / (ParallelRatings.getPool().getParallelism() * 8)), (from, to) -> {
+            for (int i = from; i < to; i++) {
+                if (cancelled) {
+                    throw new CancellationException("Forecast cancelled");
+                }
+                outcomes[i] = summarise(usernames.get(i), ratings[i], deltas, i * trials);
+            }
+        });
+        return Arrays.asList(outcomes);
+    }
+
+    /**
+     * Draw every participant's performance and sort the field into order, best first
+     */
+    private static void simulate(SplittableRandom random, int[] ratings, int n, long[] keys, int[] order,
+                                 long[] keyScratch, int[] rowScratch) {
+        for (int i = 0; i < n; i++) {
+            double u = random.nextDouble();
+            while (u == 0.0) {
+                u = random.nextDouble();
+            }
+            double performance = ratings[i] - PERFORMANCE_SCALE * Math.log(-Math.log(u));
+            keys[i] = descendingKey(performance);
+            order[i] = i;
+        }
+        RankingSort.sort(keys, order, n, keyScratch, rowScratch);
+    }
+
+    /**
+     * Key whose unsigned order is the performance descending
+     */
+    private static long descendingKey(double performance) {
+        long bits = Double.doubleToLongBits(performance);
+        long ascending = bits ^ ((bits >> 63) | Long.MIN_VALUE);
+        return ~ascending;
+    }
+
+    private Outcome summarise(String username, int rating, int[] deltas, int offset) {
+        Arrays.sort(deltas, offset, offset + trials);
+        long sum = 0;
+        int gains = 0;
+        for (int k = offset; k < offset + trials; k++) {
+            sum += deltas[k];
+            if (deltas[k] > 0) gains++;
+        }
+        return new Outcome(username, rating, (double) sum / trials,
+            percentile(deltas, offset, 10), percentile(deltas, offset, 25), percentile(deltas, offset, 50),
+            percentile(deltas, offset, 75), percentile(deltas, offset, 90), (double) gains / trials);
+    }
+
+    /**
+     * Nearest-rank percentile of a sorted slice
+     */
+    private int percentile(int[] sorted, int offset, int percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * trials);
+        return sorted[offset + Math.max(rank, 1) - 1];
+    }
+}
@@ -1,9 +1,8 @@
 package com.contestpredictor.util;
 
 import com.contestpredictor.model.Participant;
+import com.contestpredictor.model.ParticipantBatch;
 import java.util.List;
-import java.util.Collections;
-import java.util.Comparator;
 
 /**
  * Rating prediction algorithm based on AtCoder-style rating system
@@ -16,52 +15,91 @@ public class RatingPredictor {
      * @param participants List of participants with their performance data
      */
     public static void calculateRatings(List<Participant> participants) {
-        // Sort participants by performance (problems solved desc, then penalty asc)
-        Collections.sort(participants, new Comparator<Participant>() {
-            @Override
-            public int compare(Participant p1, Participant p2) {
-                if (p1.getProblemsSolved() != p2.getProblemsSolved()) {
-                    return p2.getProblemsSolved() - p1.getProblemsSolved();
-                }
-                return p1.getTotalPenalty() - p2.getTotalPenalty();
+        ParticipantBatch batch = ParticipantBatch.fromParticipants(participants);
+        calculateRatings(batch);
+        batch.applyTo(participants);
+    }
+
+    /**
+     * Calculate predicted ratings for every row of a batch
+     * Ranks rows by problems solved (desc) then penalty (asc) and fills ranks, new ratings and deltas
+     * @param batch Participants in columnar form
+     */
+    public static void calculateRatings(ParticipantBatch batch) {
+        int n = batch.size();
+        if (n == 0) return;
+
+        // Sort participants by performance (problems solved desc, then penalty asc) and assign ranks
+        StandingsSort.sortByStanding(batch);
+        StandingsSort.assignSequentialRanks(batch);
+
+        calculateRatingChanges(batch);
+    }
+
+    /**
+     * Calculate predicted ratings for every row of a batch from the ranks already assigned
+     * @param batch Ranked participants in columnar form
+     */
+    public static void calculateRatingChanges(ParticipantBatch batch) {
+        int n = batch.size();
+        if (n == 0) return;
+
+        int[] ratings = batch.getRatings();
+        int[] solved = batch.getSolved();
+        int[] ranks = batch.getRanks();
+        int[] newRatings = batch.getNewRatings();
+        int[] deltas = batch.getDeltas();
+        int[] performances = batch.getPerformances();
+
+        // Calculate average rating (exact integer sum, so identical in parallel mode)
+        double avgRating = (double) ParallelRatings.sum(ratings, n) / n;
+
+        // Calculate predicted ratings; rows are independent, large contests run in parallel
+        ParallelRatings.forEachRow(n, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                rateRow(i, ratings, solved, ranks, newRatings, deltas, performances, n, avgRating);
             }
         });
+    }
 
-        // Assign ranks
-        for (int i = 0; i < participants.size(); i++) {
-            participants.get(i).setRank(i + 1);
-        }
-
-        // Calculate average rating
-        double avgRating = 0;
-        for (Participant p : participants) {
-            avgRating += p.getCurrentRating();
+    /**
+     * Recalculate selected rows only, e.g. the rows a StandingsTree update re-ranked
+     * @param batch Ranked participants in columnar form
+     * @param rows Rows to recalculate
+     */
+    public static void calculateRatingChanges(ParticipantBatch batch, int[] rows) {
+        int n = batch.size();
+        if (n == 0) return;
+
+        double avgRating = (double) ParallelRatings.sum(batch.getRatings(), n) / n;
+        for (int row : rows) {
+            rateRow(row, batch.getRatings(), batch.getSolved(), batch.getRanks(), batch.getNewRatings(),
+                batch.getDeltas(), batch.getPerformances(), n, avgRating);
         }
-        avgRating /= participants.size();
+    }
 
-        // Calculate predicted ratings
-        for (Participant p : participants) {
-            int predictedRating = calculateIndividualRating(p, participants.size(), avgRating);
-            p.setPredictedRating(predictedRating);
-            p.setRatingChange(predictedRating - p.getCurrentRating());
-        }
+    private static void rateRow(int row, int[] ratings, int[] solved, int[] ranks, int[] newRatings, int[] deltas,
+                                int[] performances, int totalParticipants, double avgRating) {
+        double performance = calculatePerformance(ranks[row], totalParticipants, avgRating);
+        int predictedRating = calculateIndividualRating(ratings[row], performance, ranks[row], solved[row],
+            totalParticipants, avgRating);
+        performances[row] = (int) Math.round(performance);
+        newRatings[row] = predictedRating;
+        deltas[row] = predictedRating - ratings[row];
     }
 
     /**
      * Calculate individual rating using improved Codeforces/AtCoder-inspired formula
-     * @param participant The participant
+     * @param currentRating Participant's current rating
+     * @param performance Performance rating for the rank, see {@link #calculatePerformance}
+     * @param rank Participant's rank
+     * @param problemsSolved Problems the participant solved
      * @param totalParticipants Total number of participants
      * @param avgRating Average rating of all participants
      * @return Predicted new rating
      */
-    private static int calculateIndividualRating(Participant participant, int totalParticipants, double avgRating) {
-        int currentRating = participant.getCurrentRating();
-        int rank = participant.getRank();
-        int problemsSolved = participant.getProblemsSolved();
-
-        // Calculate performance rating from actual rank
-        double performance = calculatePerformance(rank, totalParticipants, avgRating);
-
+    public static int calculateIndividualRating(int currentRating, double performance, int rank, int problemsSolved,
+                                                int totalParticipants, double avgRating) {
         // Calculate rating change using Elo-based system
         double delta = (performance - currentRating) / 2.0;
 
@@ -124,47 +162,18 @@ public class RatingPredictor {
         return 300;
     }
 
-    /**
-     * Calculate seed (Codeforces-style expected rank)
-     */
-    @SuppressWarnings("unused")
-    private static double calculateSeed(int rating, double avgRating, int totalParticipants) {
-        double seed = 1.0;
-        for (int i = 0; i < totalParticipants; i++) {
-            // Simulate rating distribution
-            double otherRating = avgRating + (Math.random() - 0.5) * 600;
-            seed += 1.0 / (1.0 + Math.pow(10.0, (otherRating - rating) / 400.0));
-        }
-        return seed;
-    }
-
-    /**
-     * Calculate the rating you "need" to achieve a specific rank
-     */
-    @SuppressWarnings("unused")
-    private static double calculateNeedRating(int rank, int totalParticipants, double avgRating) {
-        double percentile = (double)(totalParticipants - rank + 1) / (double)totalParticipants;
-        
-        // Convert percentile to rating using logistic function
-        if (percentile > 0.995) percentile = 0.995;
-        if (percentile < 0.005) percentile = 0.005;
-        
-        double needRating = avgRating + 400.0 * Math.log10(percentile / (1.0 - percentile));
-        return needRating;
-    }
-
     /**
      * Calculate expected rank based on rating
      */
     private static double calculateExpectedRank(int rating, double avgRating, int totalParticipants) {
-        double expectedPerformance = 1.0 / (1.0 + Math.pow(10, (avgRating - rating) / 400.0));
+        double expectedPerformance = EloWinProbability.of(avgRating - rating);
         return totalParticipants * (1.0 - expectedPerformance) + 1;
     }
 
     /**
      * Calculate performance rating from rank
      */
-    private static double calculatePerformance(int rank, int totalParticipants, double avgRating) {
+    public static double calculatePerformance(int rank, int totalParticipants, double avgRating) {
         double percentile = (double) (totalParticipants - rank + 1) / totalParticipants;
         
         // Bound percentile to avoid infinity
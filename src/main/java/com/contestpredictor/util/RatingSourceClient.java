@@ -0,0 +1,279 @@
+package com.contestpredictor.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Shared asynchronous HTTP client for external rating sources (the Codeforces API)
+ *
+ * One java.net.http.HttpClient is reused for every request, so connections are kept alive
+ * between calls. Requests accept gzip and the body is handed to a streaming parser as it
+ * arrives. A request that cannot connect, times out, or gets 429 or 5xx is retried up to
+ * {@code maxAttempts} times with exponential backoff and jitter. A failure while parsing the
+ * body is not retried. Every finished request is counted and reported to the timing listener.
+ */
+public final class RatingSourceClient {
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    public static final Duration DEFAULT_BACKOFF = Duration.ofMillis(500);
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+
+    private static RatingSourceClient instance;
+
+    private final HttpClient client;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Duration timeout;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private volatile Consumer<Timing> timingListener;
+
+    /**
+     * Reads a response body; the stream is closed afterwards, dropping whatever was not read
+     */
+    public interface BodyParser<T> {
+        T parse(Reader body) throws Exception;
+    }
+
+    /**
+     * How one request went, over all of its attempts
+     */
+    public static final class Timing {
+        private final String url;
+        private final int status;
+        private final int attempts;
+        private final long elapsedNanos;
+        private final boolean success;
+
+        Timing(String url, int status, int attempts, long elapsedNanos, boolean success) {
+            this.url = url;
+            this.status = status;
+            this.attempts = attempts;
+            this.elapsedNanos = elapsedNanos;
+            this.success = success;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        /** HTTP status of the last attempt, 0 if it got no response */
+        public int getStatus() {
+            return status;
+        }
+
+        public int getAttempts() {
+            return attempts;
+        }
+
+        public long getElapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        @Override
+        public String toString() {
+            return url + " -> " + (status == 0 ? "no response" : status) + " in " + getElapsedMillis()
+                + " ms (" + attempts + (attempts == 1 ? " attempt)" : " attempts)");
+        }
+    }
+
+    /**
+     * A response that is worth another attempt
+     */
+    private static final class RetryableStatusException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        RetryableStatusException(int status) {
+            super("HTTP " + status);
+        }
+    }
+
+    public RatingSourceClient(int maxAttempts, Duration backoff, Duration timeout) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("Attempts must be positive: " + maxAttempts);
+        }
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.timeout = timeout;
+        this.client = HttpClient.newBuilder()
+            .connectTimeout(timeout)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+    }
+
+    public static synchronized RatingSourceClient getInstance() {
+        if (instance == null) {
+            instance = new RatingSourceClient(DEFAULT_MAX_ATTEMPTS, DEFAULT_BACKOFF, DEFAULT_TIMEOUT);
+        }
+        return instance;
+    }
+
+    /**
+     * Receive a {@link Timing} for every finished request; null to stop
+     */
+    public void setTimingListener(Consumer<Timing> listener) {
+        this.timingListener = listener;
+    }
+
+    /**
+     * GET a URL and parse the body
+     * @return The parsed body; fails with the last error once the attempts are used up
+     */
+    public <T> CompletableFuture<T> get(String url, BodyParser<T> parser) {
+        URI uri;
+        try {
+            uri = new URI(url);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        requests.increment();
+        return attempt(uri, parser, 1, System.nanoTime());
+    }
+
+    /**
+     * GET many URLs with at most {@code maxInFlight} requests open at a time
+     * @return The parsed bodies in URL order; fails with the first error
+     */
+    public <T> CompletableFuture<List<T>> getAll(List<String> urls, BodyParser<T> parser, int maxInFlight) {
+        return FetchScheduler.fetchAll(urls, url -> get(url, parser), maxInFlight);
+    }
+
+    private <T> CompletableFuture<T> attempt(URI uri, BodyParser<T> parser, int attempt, long started) {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+            .timeout(timeout)
+            .header("Accept-Encoding", "gzip")
+            .GET()
+            .build();
+        int[] status = new int[1];
+        boolean[] parsing = new boolean[1];
+        // Dependent stages run on the client's executor, so the body is parsed as it streams in
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+            .thenApply(response -> {
+                status[0] = response.statusCode();
+                if (status[0] == 429 || status[0] >= 500) {
+                    closeQuietly(response.body());
+                    throw new CompletionException(new RetryableStatusException(status[0]));
+                }
+                parsing[0] = true;
+                return parse(response, parser);
+            })
+            .handle((value, error) -> {
+                if (error == null) {
+                    finish(uri, status[0], attempt, started, true);
+                    return CompletableFuture.completedFuture(value);
+                }
+                Throwable cause = unwrap(error);
+                if (!parsing[0] && attempt < maxAttempts && cause instanceof IOException) {
+                    retries.increment();
+                    return CompletableFuture.supplyAsync(() -> null, CompletableFuture.delayedExecutor(
+                            backoffMillis(attempt), TimeUnit.MILLISECONDS))
+                        .thenCompose(ignored -> attempt(uri, parser, attempt + 1, started));
+                }
+                finish(uri, status[0], attempt, started, false);
+                return CompletableFuture.<T>failedFuture(cause);
+            })
+            .thenCompose(future -> future);
+    }
+
+    private static <T> T parse(HttpResponse<InputStream> response, BodyParser<T> parser) {
+        try (InputStream raw = response.body();
+             Reader reader = new InputStreamReader(decode(response, raw), StandardCharsets.UTF_8)) {
+            return parser.parse(reader);
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private static InputStream decode(HttpResponse<?> response, InputStream body) throws IOException {
+        boolean gzip = response.headers().firstValue("Content-Encoding")
+            .map(encoding -> encoding.equalsIgnoreCase("gzip"))
+            .orElse(false);
+        return gzip ? new GZIPInputStream(body) : body;
+    }
+
+    /**
+     * Exponential backoff with up to 50% random jitter so parallel retries spread out
+     */
+    private long backoffMillis(int attempt) {
+        long base = backoff.toMillis() << Math.min(attempt - 1, 16);
+        return base + ThreadLocalRandom.current().nextLong(base / 2 + 1);
+    }
+
+    private void finish(URI uri, int status, int attempts, long started, boolean success) {
+        long elapsed = System.nanoTime() - started;
+        totalNanos.add(elapsed);
+        if (!success) {
+            failures.increment();
+        }
+        Consumer<Timing> listener = timingListener;
+        if (listener != null) {
+            listener.accept(new Timing(uri.toString(), status, attempts, elapsed, success));
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    private static void closeQuietly(InputStream body) {
+        try {
+            body.close();
+        } catch (IOException e) {
+            // Nothing to do; the connection is dropped either way
+        }
+    }
+
+    /**
+     * Requests started since creation or the last {@link #resetStats()}
+     */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * Total time of finished requests, from the first attempt to the parsed body
+     */
+    public long getTotalMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalNanos.sum());
+    }
+
+    public void resetStats() {
+        for (LongAdder counter : Arrays.asList(requests, retries, failures, totalNanos)) {
+            counter.reset();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.contestpredictor.util;
+
+import com.contestpredictor.model.ParticipantBatch;
+
+/**
+ * Standing order and rank assignment for a ParticipantBatch
+ */
+public final class StandingsSort {
+
+    private StandingsSort() {
+    }
+
+    /**
+     * Fill the batch's order column with rows sorted by problems solved (desc) then
+     * penalty (asc), keeping the original row order for ties
+     * @return The order column
+     */
+    public static int[] sortByStanding(ParticipantBatch batch) {
+        int[] order = batch.getOrder();
+        RankingSort.sortByStanding(batch.getSolved(), batch.getPenalties(), batch.size(), order);
+        return order;
+    }
+
+    /**
+     * Assign rank = position + 1 following the batch's order column
+     */
+    public static void assignSequentialRanks(ParticipantBatch batch) {
+        RankingSort.assignSequentialRanks(batch.getOrder(), batch.size(), batch.getRanks());
+    }
+
+    /**
+     * Assign ranks following the batch's order column, tied rows (same problems solved and
+     * penalty) sharing the rank of the first of them
+     */
+    public static void assignSharedRanks(ParticipantBatch batch) {
+        int[] order = batch.getOrder();
+        int[] ranks = batch.getRanks();
+        int[] solved = batch.getSolved();
+        int[] penalties = batch.getPenalties();
+        int rank = 1;
+        for (int position = 0; position < batch.size(); position++) {
+            int row = order[position];
+            if (position > 0) {
+                int previous = order[position - 1];
+                if (solved[row] != solved[previous] || penalties[row] != penalties[previous]) {
+                    rank = position + 1;
+                }
+            }
+            ranks[row] = rank;
+        }
+    }
+}
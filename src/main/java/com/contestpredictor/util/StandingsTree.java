@@ -0,0 +1,297 @@
+package com.contestpredictor.util;
+
+import com.contestpredictor.model.ParticipantBatch;
+
+import java.util.Random;
+
+/**
+ * Order-statistic tree over the rows of a ranked ParticipantBatch
+ *
+ * Rows are kept in standing order (problems solved desc, penalty asc) in a treap whose nodes
+ * carry subtree sizes, so a single edit moves one row in O(log n) instead of re-sorting the
+ * whole contest. Only the rows between the old and new position change rank; they are
+ * rewritten in the batch's rank and order columns and reported back to the caller so it can
+ * recompute and redisplay just those rows. Ties keep the order they had when the tree was built.
+ * Ranks are written sequentially (position + 1), so engines that share tied ranks
+ * ({@link RatingEngine#sharesTiedRanks}) have to re-rank in full instead.
+ */
+public final class StandingsTree {
+
+    private static final int NIL = -1;
+
+    private final ParticipantBatch batch;
+    private final int[] left;
+    private final int[] right;
+    private final int[] sizes;
+    private final int[] priorities;
+    private final int[] sequence;
+    private int root = NIL;
+
+    // Results of split()
+    private int splitLeft;
+    private int splitRight;
+
+    /**
+     * Rows whose rank changed after an update, in standing order
+     */
+    public static final class Change {
+        private final int oldPosition;
+        private final int newPosition;
+        private final int[] rows;
+
+        Change(int oldPosition, int newPosition, int[] rows) {
+            this.oldPosition = oldPosition;
+            this.newPosition = newPosition;
+            this.rows = rows;
+        }
+
+        /** 0-based position of the edited row before the update */
+        public int getOldPosition() {
+            return oldPosition;
+        }
+
+        /** 0-based position of the edited row after the update */
+        public int getNewPosition() {
+            return newPosition;
+        }
+
+        /** First position whose row changed */
+        public int getFirstPosition() {
+            return Math.min(oldPosition, newPosition);
+        }
+
+        /** Last position whose row changed */
+        public int getLastPosition() {
+            return Math.max(oldPosition, newPosition);
+        }
+
+        /** Rows now at positions first..last, the edited row included */
+        public int[] getRows() {
+            return rows;
+        }
+    }
+
+    /**
+     * Build the tree in O(n) from a batch whose order column already holds the standings
+     * (see {@link StandingsSort#sortByStanding})
+     */
+    public StandingsTree(ParticipantBatch batch) {
+        this.batch = batch;
+        int n = batch.size();
+        left = new int[n];
+        right = new int[n];
+        sizes = new int[n];
+        priorities = new int[n];
+        sequence = new int[n];
+
+        Random random = new Random(n);
+        int[] order = batch.getOrder();
+        int[] stack = new int[n];
+        int top = 0;
+        // Cartesian tree over the sorted rows: in-order = standing order, heap on priority
+        for (int position = 0; position < n; position++) {
+            int row = order[position];
+            sequence[row] = position;
+            priorities[row] = random.nextInt();
+            left[row] = NIL;
+            right[row] = NIL;
+            int last = NIL;
+            while (top > 0 && priorities[stack[top - 1]] < priorities[row]) {
+                last = stack[--top];
+            }
+            left[row] = last;
+            if (top > 0) {
+                right[stack[top - 1]] = row;
+            }
+            stack[top++] = row;
+        }
+        root = top > 0 ? stack[0] : NIL;
+        computeSizes(root);
+    }
+
+    public int size() {
+        return root == NIL ? 0 : sizes[root];
+    }
+
+    /**
+     * 0-based standing position of a row
+     */
+    public int positionOf(int row) {
+        int position = 0;
+        int node = root;
+        while (node != row) {
+            if (before(row, node)) {
+                node = left[node];
+            } else {
+                position += size(left[node]) + 1;
+                node = right[node];
+            }
+        }
+        return position + size(left[row]);
+    }
+
+    /**
+     * Row at a 0-based standing position
+     */
+    public int rowAt(int position) {
+        if (position < 0 || position >= size()) {
+            throw new IndexOutOfBoundsException("Position " + position + " of " + size());
+        }
+        int node = root;
+        while (true) {
+            int leftSize = size(left[node]);
+            if (position < leftSize) {
+                node = left[node];
+            } else if (position == leftSize) {
+                return node;
+            } else {
+                position -= leftSize + 1;
+                node = right[node];
+            }
+        }
+    }
+
+    /**
+     * Set a row's problems solved and penalty and move it to its new standing
+     * The ranks and order entries of every row between the old and new position are rewritten
+     * @return The rows whose rank changed
+     */
+    public Change update(int row, int problemsSolved, int penalty) {
+        int oldPosition = positionOf(row);
+        root = remove(root, row);
+        batch.getSolved()[row] = problemsSolved;
+        batch.getPenalties()[row] = penalty;
+        left[row] = NIL;
+        right[row] = NIL;
+        sizes[row] = 1;
+        root = insert(root, row);
+        int newPosition = positionOf(row);
+
+        int first = Math.min(oldPosition, newPosition);
+        int last = Math.max(oldPosition, newPosition);
+        int[] rows = new int[last - first + 1];
+        collect(root, 0, first, last, rows);
+
+        int[] ranks = batch.getRanks();
+        int[] order = batch.getOrder();
+        for (int i = 0; i < rows.length; i++) {
+            ranks[rows[i]] = first + i + 1;
+            order[first + i] = rows[i];
+        }
+        return new Change(oldPosition, newPosition, rows);
+    }
+
+    private boolean before(int a, int b) {
+        int[] solved = batch.getSolved();
+        if (solved[a] != solved[b]) {
+            return solved[a] > solved[b];
+        }
+        int[] penalties = batch.getPenalties();
+        if (penalties[a] != penalties[b]) {
+            return penalties[a] < penalties[b];
+        }
+        return sequence[a] < sequence[b];
+    }
+
+    private int size(int node) {
+        return node == NIL ? 0 : sizes[node];
+    }
+
+    private void updateSize(int node) {
+        sizes[node] = size(left[node]) + size(right[node]) + 1;
+    }
+
+    private int computeSizes(int node) {
+        if (node == NIL) return 0;
+        sizes[node] = computeSizes(left[node]) + computeSizes(right[node]) + 1;
+        return sizes[node];
+    }
+
+    private int insert(int node, int row) {
+        if (node == NIL) {
+            return row;
+        }
+        if (priorities[row] > priorities[node]) {
+            split(node, row);
+            left[row] = splitLeft;
+            right[row] = splitRight;
+            updateSize(row);
+            return row;
+        }
+        if (before(row, node)) {
+            left[node] = insert(left[node], row);
+        } else {
+            right[node] = insert(right[node], row);
+        }
+        updateSize(node);
+        return node;
+    }
+
+    private int remove(int node, int row) {
+        if (node == row) {
+            return merge(left[node], right[node]);
+        }
+        if (before(row, node)) {
+            left[node] = remove(left[node], row);
+        } else {
+            right[node] = remove(right[node], row);
+        }
+        updateSize(node);
+        return node;
+    }
+
+    /**
+     * Split a subtree into the rows standing before {@code row} (splitLeft) and after it (splitRight)
+     */
+    private void split(int node, int row) {
+        if (node == NIL) {
+            splitLeft = NIL;
+            splitRight = NIL;
+            return;
+        }
+        if (before(node, row)) {
+            split(right[node], row);
+            right[node] = splitLeft;
+            updateSize(node);
+            splitLeft = node;
+        } else {
+            split(left[node], row);
+            left[node] = splitRight;
+            updateSize(node);
+            splitRight = node;
+        }
+    }
+
+    /**
+     * Join two subtrees where every row of {@code a} stands before every row of {@code b}
+     */
+    private int merge(int a, int b) {
+        if (a == NIL) return b;
+        if (b == NIL) return a;
+        if (priorities[a] > priorities[b]) {
+            right[a] = merge(right[a], b);
+            updateSize(a);
+            return a;
+        }
+        left[b] = merge(a, left[b]);
+        updateSize(b);
+        return b;
+    }
+
+    /**
+     * Copy the rows at positions first..last of a subtree starting at {@code offset} into out
+     */
+    private void collect(int node, int offset, int first, int last, int[] out) {
+        if (node == NIL) return;
+        int position = offset + size(left[node]);
+        if (first < position) {
+            collect(left[node], offset, first, last, out);
+        }
+        if (position >= first && position <= last) {
+            out[position - first] = node;
+        }
+        if (last > position) {
+            collect(right[node], position + 1, first, last, out);
+        }
+    }
+}
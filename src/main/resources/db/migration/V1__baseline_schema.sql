@@ -0,0 +1,112 @@
+-- Tables as created before migrations existed; IF NOT EXISTS so databases from then are adopted as they are
+
+CREATE TABLE IF NOT EXISTS users (
+    username TEXT PRIMARY KEY,
+    password TEXT NOT NULL,
+    full_name TEXT NOT NULL,
+    current_rating INTEGER NOT NULL,
+    contests_participated INTEGER NOT NULL,
+    rating_history TEXT -- Stored as comma-separated values
+);
+
+CREATE TABLE IF NOT EXISTS admins (
+    admin_id TEXT PRIMARY KEY,
+    username TEXT UNIQUE NOT NULL,
+    password TEXT NOT NULL,
+    email TEXT,
+    full_name TEXT NOT NULL,
+    created_at TEXT NOT NULL,
+    is_active INTEGER DEFAULT 1 -- 0 = false, 1 = true
+);
+
+CREATE TABLE IF NOT EXISTS contests (
+    contest_id TEXT PRIMARY KEY,
+    contest_name TEXT NOT NULL,
+    date_time TEXT NOT NULL,
+    duration INTEGER NOT NULL,
+    is_past INTEGER NOT NULL, -- 0 = false, 1 = true
+    created_by_admin TEXT,
+    max_participants INTEGER DEFAULT 1000,
+    registration_open INTEGER DEFAULT 1 -- 0 = false, 1 = true
+);
+
+CREATE TABLE IF NOT EXISTS contest_registrations (
+    id INTEGER PRIMARY KEY AUTOINCREMENT,
+    contest_id TEXT NOT NULL,
+    username TEXT NOT NULL,
+    registered_at TEXT NOT NULL,
+    FOREIGN KEY (contest_id) REFERENCES contests(contest_id),
+    UNIQUE(contest_id, username)
+);
+
+CREATE TABLE IF NOT EXISTS participants (
+    id INTEGER PRIMARY KEY AUTOINCREMENT,
+    contest_id TEXT NOT NULL,
+    username TEXT NOT NULL,
+    current_rating INTEGER NOT NULL,
+    problems_solved INTEGER NOT NULL,
+    total_penalty INTEGER NOT NULL,
+    rank INTEGER NOT NULL,
+    predicted_rating INTEGER NOT NULL,
+    rating_change INTEGER NOT NULL,
+    FOREIGN KEY (contest_id) REFERENCES contests(contest_id)
+);
+
+CREATE TABLE IF NOT EXISTS rating_history (
+    id INTEGER PRIMARY KEY AUTOINCREMENT,
+    contest_id TEXT NOT NULL,
+    username TEXT NOT NULL,
+    old_rating INTEGER NOT NULL,
+    new_rating INTEGER NOT NULL,
+    delta INTEGER NOT NULL,
+    contest_date TEXT NOT NULL,
+    FOREIGN KEY (contest_id) REFERENCES contests(contest_id)
+);
+
+CREATE TABLE IF NOT EXISTS leaderboard_contests (
+    contest_id TEXT PRIMARY KEY,
+    contest_name TEXT NOT NULL,
+    description TEXT,
+    start_date TEXT NOT NULL,
+    end_date TEXT NOT NULL,
+    max_problems INTEGER NOT NULL,
+    is_active INTEGER DEFAULT 1,
+    standings_finalized INTEGER DEFAULT 0,
+    created_by_admin TEXT NOT NULL,
+    created_at TEXT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS leaderboard_registrations (
+    id INTEGER PRIMARY KEY AUTOINCREMENT,
+    contest_id TEXT NOT NULL,
+    username TEXT NOT NULL,
+    registered_at TEXT NOT NULL,
+    FOREIGN KEY (contest_id) REFERENCES leaderboard_contests(contest_id),
+    UNIQUE(contest_id, username)
+);
+
+-- Individual contest standings
+CREATE TABLE IF NOT EXISTS leaderboard_entries (
+    id INTEGER PRIMARY KEY AUTOINCREMENT,
+    contest_id TEXT NOT NULL,
+    username TEXT NOT NULL,
+    rank INTEGER NOT NULL,
+    solve_count INTEGER NOT NULL,
+    total_penalty INTEGER NOT NULL,
+    total_time INTEGER NOT NULL,
+    status TEXT DEFAULT 'Completed',
+    FOREIGN KEY (contest_id) REFERENCES leaderboard_contests(contest_id),
+    UNIQUE(contest_id, username)
+);
+
+-- Aggregate across all finalized leaderboard contests
+CREATE TABLE IF NOT EXISTS combined_leaderboard (
+    id INTEGER PRIMARY KEY AUTOINCREMENT,
+    username TEXT UNIQUE NOT NULL,
+    total_solves INTEGER NOT NULL,
+    total_penalty INTEGER NOT NULL,
+    overall_rank INTEGER NOT NULL,
+    contests_participated INTEGER NOT NULL,
+    status TEXT DEFAULT 'Active',
+    last_updated TEXT
+);
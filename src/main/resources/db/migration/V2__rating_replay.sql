@@ -0,0 +1,21 @@
+-- Rating history is looked up by contest and by user when an edit is propagated (see RatingReplay)
+CREATE INDEX IF NOT EXISTS idx_rating_history_contest ON rating_history(contest_id);
+CREATE INDEX IF NOT EXISTS idx_rating_history_user ON rating_history(username);
+
+-- Replay checkpoints: replayed rating of every participant after a contest
+CREATE TABLE IF NOT EXISTS rating_checkpoints (
+    id INTEGER PRIMARY KEY AUTOINCREMENT,
+    engine TEXT NOT NULL,
+    contest_id TEXT NOT NULL,
+    contest_date TEXT NOT NULL,
+    created_at TEXT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS rating_checkpoint_entries (
+    checkpoint_id INTEGER NOT NULL,
+    username TEXT NOT NULL,
+    rating INTEGER NOT NULL,
+    contests INTEGER NOT NULL,
+    PRIMARY KEY (checkpoint_id, username),
+    FOREIGN KEY (checkpoint_id) REFERENCES rating_checkpoints(id)
+);
@@ -0,0 +1,20 @@
+-- Indexes for the hot reads, so each is one index search returning rows already in order
+-- instead of a table scan and a sort
+
+-- Contest standings: WHERE contest_id = ? ORDER BY rank
+CREATE INDEX IF NOT EXISTS idx_participants_contest_rank ON participants(contest_id, rank);
+
+-- Single participant lookups and solve count updates: WHERE contest_id = ? AND username = ?
+CREATE INDEX IF NOT EXISTS idx_participants_contest_user ON participants(contest_id, username);
+
+-- Leaderboard standings: WHERE contest_id = ? ORDER BY rank
+CREATE INDEX IF NOT EXISTS idx_leaderboard_entries_contest_rank ON leaderboard_entries(contest_id, rank);
+
+-- Registered users in sign-up order; username makes the index covering, so the table is not read
+CREATE INDEX IF NOT EXISTS idx_contest_registrations_contest_time
+    ON contest_registrations(contest_id, registered_at, username);
+CREATE INDEX IF NOT EXISTS idx_leaderboard_registrations_contest_time
+    ON leaderboard_registrations(contest_id, registered_at, username);
+
+-- Combined leaderboard: ORDER BY overall_rank
+CREATE INDEX IF NOT EXISTS idx_combined_leaderboard_rank ON combined_leaderboard(overall_rank);
@@ -0,0 +1,105 @@
+package com.contestpredictor.data;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The hot DAO reads search the V3 indexes and get their rows in order, without a table scan
+ * or a sort. The queries are the ones DatabaseManager and LeaderboardDatabase run.
+ */
+class QueryPlanTest {
+
+    @TempDir
+    Path dir;
+
+    private Connection connection;
+
+    @BeforeEach
+    void migrate() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite:" + dir.resolve("plans.db"));
+        SchemaMigrations.migrate(connection);
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void contestStandingsUseContestRankIndex() throws SQLException {
+        // DatabaseManager.loadParticipantsForContest
+        assertSearches("participants", "idx_participants_contest_rank",
+                QueryPlan.explain(connection, "SELECT username, current_rating, problems_solved, total_penalty, rank, "
+                        + "predicted_rating, rating_change FROM participants WHERE contest_id = ? ORDER BY rank ASC", "CF918"));
+    }
+
+    @Test
+    void participantLookupUsesContestUserIndex() throws SQLException {
+        // DatabaseManager.hasParticipant and the solve count updates
+        assertSearches("participants", "idx_participants_contest_user",
+                QueryPlan.explain(connection, "SELECT 1 FROM participants WHERE contest_id = ? AND username = ?", "CF918", "tourist"));
+        assertSearches("participants", "idx_participants_contest_user",
+                QueryPlan.explain(connection, "UPDATE participants SET problems_solved = ?, total_penalty = ? "
+                        + "WHERE contest_id = ? AND username = ? AND (problems_solved <> ? OR total_penalty <> ?)"));
+    }
+
+    @Test
+    void leaderboardStandingsUseContestRankIndex() throws SQLException {
+        // LeaderboardDatabase.getContestStandings
+        assertSearches("leaderboard_entries", "idx_leaderboard_entries_contest_rank",
+                QueryPlan.explain(connection, "SELECT * FROM leaderboard_entries WHERE contest_id = ? ORDER BY rank ASC", "LB1"));
+    }
+
+    @Test
+    void registrationsUseCoveringContestTimeIndexes() throws SQLException {
+        // DatabaseManager.getRegisteredUsers
+        QueryPlan contest = QueryPlan.explain(connection,
+                "SELECT username FROM contest_registrations WHERE contest_id = ? ORDER BY registered_at", "CF918");
+        assertSearches("contest_registrations", "idx_contest_registrations_contest_time", contest);
+        assertTrue(contest.isCovering(), contest.toString());
+
+        // LeaderboardDatabase.getRegisteredUsersForContest
+        QueryPlan leaderboard = QueryPlan.explain(connection,
+                "SELECT username FROM leaderboard_registrations WHERE contest_id = ? ORDER BY registered_at", "LB1");
+        assertSearches("leaderboard_registrations", "idx_leaderboard_registrations_contest_time", leaderboard);
+        assertTrue(leaderboard.isCovering(), leaderboard.toString());
+    }
+
+    @Test
+    void combinedLeaderboardReadsInRankOrder() throws SQLException {
+        // LeaderboardDatabase.getCombinedLeaderboard: every row is read, but in index order
+        QueryPlan plan = QueryPlan.explain(connection, "SELECT * FROM combined_leaderboard ORDER BY overall_rank ASC");
+        assertTrue(plan.usesIndex("idx_combined_leaderboard_rank"), plan.toString());
+        assertFalse(plan.scans("combined_leaderboard"), plan.toString());
+        assertFalse(plan.sorts(), plan.toString());
+    }
+
+    @Test
+    void standingsScanAndSortWithoutV3() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("DROP INDEX idx_participants_contest_rank");
+            stmt.execute("DROP INDEX idx_participants_contest_user");
+        }
+        QueryPlan plan = QueryPlan.explain(connection,
+                "SELECT * FROM participants WHERE contest_id = ? ORDER BY rank ASC", "CF918");
+        assertFalse(plan.usesIndex("idx_participants_contest_rank"), plan.toString());
+        assertTrue(plan.sorts(), plan.toString());
+    }
+
+    private static void assertSearches(String table, String index, QueryPlan plan) {
+        assertTrue(plan.usesIndex(index), "expected " + index + ":\n" + plan);
+        assertFalse(plan.scans(table), "full scan:\n" + plan);
+        assertFalse(plan.sorts(), "temp B-tree:\n" + plan);
+    }
+}
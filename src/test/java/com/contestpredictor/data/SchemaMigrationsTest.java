@@ -0,0 +1,100 @@
+package com.contestpredictor.data;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Migrating a new database, migrating it again, and splitting scripts into statements
+ */
+class SchemaMigrationsTest {
+
+    @TempDir
+    Path dir;
+
+    private Connection connection;
+
+    @BeforeEach
+    void open() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite:" + dir.resolve("migrations.db"));
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void migratesNewDatabaseToLatestVersion() throws SQLException {
+        List<SchemaMigrations.Migration> migrations = SchemaMigrations.migrations();
+        List<SchemaMigrations.Migration> applied = SchemaMigrations.migrate(connection);
+
+        assertEquals(migrations.size(), applied.size());
+        int latest = migrations.get(migrations.size() - 1).getVersion();
+        assertEquals(latest, SchemaMigrations.currentVersion(connection));
+        assertEquals(migrations.size(), count("SELECT COUNT(*) FROM schema_version"));
+        assertEquals(1, count("SELECT COUNT(*) FROM sqlite_master WHERE type = 'index' AND name = 'idx_participants_contest_rank'"));
+        assertTrue(connection.getAutoCommit());
+    }
+
+    @Test
+    void migratingAgainAppliesNothing() throws SQLException {
+        SchemaMigrations.migrate(connection);
+        int versions = count("SELECT COUNT(*) FROM schema_version");
+
+        assertEquals(Collections.emptyList(), SchemaMigrations.migrate(connection));
+        assertEquals(versions, count("SELECT COUNT(*) FROM schema_version"));
+    }
+
+    @Test
+    void splitsStatementsAtSemicolons() {
+        assertEquals(Arrays.asList("CREATE TABLE a (x INTEGER)", "CREATE TABLE b (y INTEGER)"),
+                SchemaMigrations.statements("CREATE TABLE a (x INTEGER);\nCREATE TABLE b (y INTEGER);\n"));
+    }
+
+    @Test
+    void keepsSemicolonsAndDashesInsideQuotes() {
+        assertEquals(Arrays.asList("INSERT INTO t VALUES ('a;b', 'c--d')", "CREATE TABLE \"odd;name\" (x)"),
+                SchemaMigrations.statements("INSERT INTO t VALUES ('a;b', 'c--d');\nCREATE TABLE \"odd;name\" (x);"));
+    }
+
+    @Test
+    void dropsComments() {
+        assertEquals(Arrays.asList("CREATE TABLE a (x INTEGER)", "CREATE INDEX i ON a(x)"),
+                SchemaMigrations.statements("-- Tables; and indexes\nCREATE TABLE a (x INTEGER); -- trailing; note\n"
+                        + "-- only a comment\nCREATE INDEX i ON a(x);"));
+    }
+
+    @Test
+    void keepsTrailingStatementWithoutSemicolon() {
+        assertEquals(Arrays.asList("CREATE TABLE a (x INTEGER)", "CREATE TABLE b (y INTEGER)"),
+                SchemaMigrations.statements("CREATE TABLE a (x INTEGER);\nCREATE TABLE b (y INTEGER)"));
+    }
+
+    @Test
+    void ignoresEmptyStatements() {
+        assertEquals(Collections.emptyList(), SchemaMigrations.statements(" ;\n;-- nothing here\n"));
+    }
+
+    private int count(String sql) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.contestpredictor.util;
+
+import com.contestpredictor.model.ParticipantBatch;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * CodeforcesRatingEngine against the published algorithm summed pair by pair: seeds, binary
+ * search for the needed rating and both inflation corrections
+ */
+class CodeforcesRatingEngineTest {
+
+    private static final int MIN_RATING = 1;
+    private static final int MAX_RATING = 8000;
+
+    @Test
+    void smallFieldsMatchPairwiseAlgorithm() {
+        Random random = new Random(3);
+        for (int round = 0; round < 200; round++) {
+            assertMatchesReference(randomBatch(random, 2 + random.nextInt(60), round % 2 == 0), "round " + round);
+        }
+    }
+
+    @Test
+    void largeFieldsMatchPairwiseAlgorithm() {
+        // Over ~520 distinct ratings the seed table goes through the FFT
+        Random random = new Random(5);
+        for (int round = 0; round < 6; round++) {
+            assertMatchesReference(randomBatch(random, 1000 + random.nextInt(2000), round % 2 == 0), "round " + round);
+        }
+    }
+
+    @Test
+    void parallelRowsMatchPairwiseAlgorithm() {
+        int threshold = ParallelRatings.getThreshold();
+        ParallelRatings.setThreshold(2);
+        try {
+            Random random = new Random(9);
+            for (int round = 0; round < 3; round++) {
+                assertMatchesReference(randomBatch(random, 2000 + random.nextInt(1000), round % 2 == 0), "round " + round);
+            }
+        } finally {
+            ParallelRatings.setThreshold(threshold);
+        }
+    }
+
+    @Test
+    void singleParticipantKeepsRating() {
+        ParticipantBatch batch = new ParticipantBatch(1);
+        batch.add("solo", 1700, 3, 40, 0);
+        new CodeforcesRatingEngine().calculateRatings(batch);
+
+        assertArrayEquals(new int[] {1}, Arrays.copyOf(batch.getRanks(), 1));
+        assertArrayEquals(new int[] {0}, Arrays.copyOf(batch.getDeltas(), 1));
+        assertArrayEquals(new int[] {1700}, Arrays.copyOf(batch.getNewRatings(), 1));
+    }
+
+    private static void assertMatchesReference(ParticipantBatch batch, String message) {
+        int n = batch.size();
+        int[] ratings = Arrays.copyOf(batch.getRatings(), n);
+        int[] solved = Arrays.copyOf(batch.getSolved(), n);
+        int[] penalties = Arrays.copyOf(batch.getPenalties(), n);
+        Reference expected = new Reference(ratings, solved, penalties);
+
+        new CodeforcesRatingEngine().calculateRatings(batch);
+
+        String context = message + " n=" + n;
+        assertArrayEquals(expected.ranks, Arrays.copyOf(batch.getRanks(), n), context);
+        assertArrayEquals(expected.performances, Arrays.copyOf(batch.getPerformances(), n), context);
+        assertArrayEquals(expected.deltas, Arrays.copyOf(batch.getDeltas(), n), context);
+        for (int i = 0; i < n; i++) {
+            expected.deltas[i] += ratings[i];
+        }
+        assertArrayEquals(expected.deltas, Arrays.copyOf(batch.getNewRatings(), n), context);
+    }
+
+    /**
+     * Random field; with ties, ratings, problems solved and penalties come from a few values each
+     */
+    private static ParticipantBatch randomBatch(Random random, int n, boolean ties) {
+        ParticipantBatch batch = new ParticipantBatch(n);
+        for (int i = 0; i < n; i++) {
+            int rating = ties ? 1200 + 100 * random.nextInt(8) : 300 + random.nextInt(3200);
+            int penalty = ties ? 10 * random.nextInt(4) : random.nextInt(5000);
+            batch.add("user" + i, rating, random.nextInt(ties ? 4 : 10), penalty, 0);
+        }
+        return batch;
+    }
+
+    /**
+     * The algorithm as Codeforces publishes it, every seed a sum over the whole field
+     */
+    private static final class Reference {
+        final int[] ranks;
+        final int[] performances;
+        final int[] deltas;
+
+        Reference(int[] ratings, int[] solved, int[] penalties) {
+            int n = ratings.length;
+            List<Integer> standing = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                standing.add(i);
+            }
+            standing.sort(Comparator.<Integer>comparingInt(i -> -solved[i]).thenComparingInt(i -> penalties[i]));
+
+            // Tied rows share the rank of the group's first position and are rated at its last
+            ranks = new int[n];
+            int[] places = new int[n];
+            for (int first = 0; first < n; ) {
+                int end = first;
+                while (end + 1 < n && solved[standing.get(end + 1)] == solved[standing.get(first)]
+                        && penalties[standing.get(end + 1)] == penalties[standing.get(first)]) {
+                    end++;
+                }
+                for (int position = first; position <= end; position++) {
+                    ranks[standing.get(position)] = first + 1;
+                    places[standing.get(position)] = end + 1;
+                }
+                first = end + 1;
+            }
+
+            // Seeds of candidate ratings are shared by every search, so keep the ones computed
+            double[] candidateSeeds = new double[MAX_RATING];
+            Arrays.fill(candidateSeeds, Double.NaN);
+            performances = new int[n];
+            deltas = new int[n];
+            long sum = 0;
+            for (int i = 0; i < n; i++) {
+                double seed = 1;
+                for (int j = 0; j < n; j++) {
+                    if (j != i) {
+                        seed += winProbability(ratings[j], ratings[i]);
+                    }
+                }
+                double midRank = Math.sqrt(places[i] * seed);
+                int left = MIN_RATING;
+                int right = MAX_RATING;
+                while (right - left > 1) {
+                    int mid = (left + right) / 2;
+                    if (Double.isNaN(candidateSeeds[mid])) {
+                        double candidateSeed = 1;
+                        for (int j = 0; j < n; j++) {
+                            candidateSeed += winProbability(ratings[j], mid);
+                        }
+                        candidateSeeds[mid] = candidateSeed;
+                    }
+                    if (candidateSeeds[mid] < midRank) {
+                        right = mid;
+                    } else {
+                        left = mid;
+                    }
+                }
+                performances[i] = left;
+                deltas[i] = (left - ratings[i]) / 2;
+                sum += deltas[i];
+            }
+
+            int inc = (int) (-sum / n - 1);
+            for (int i = 0; i < n; i++) {
+                deltas[i] += inc;
+            }
+
+            // List.sort is stable, so equal ratings stay in standing order
+            List<Integer> byRating = new ArrayList<>(standing);
+            byRating.sort(Comparator.<Integer>comparingInt(i -> -ratings[i]));
+            int zeroSumCount = Math.min((int) (4 * Math.round(Math.sqrt(n))), n);
+            int topSum = 0;
+            for (int k = 0; k < zeroSumCount; k++) {
+                topSum += deltas[byRating.get(k)];
+            }
+            int topInc = Math.min(Math.max(-topSum / zeroSumCount, -10), 0);
+            for (int i = 0; i < n; i++) {
+                deltas[i] += topInc;
+            }
+        }
+
+        /**
+         * Probability that a player rated {@code a} beats one rated {@code b}
+         */
+        private static double winProbability(int a, int b) {
+            return 1.0 / (1.0 + Math.pow(10.0, (b - a) / 400.0));
+        }
+    }
+}
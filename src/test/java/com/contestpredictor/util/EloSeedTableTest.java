@@ -0,0 +1,144 @@
+package com.contestpredictor.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * EloSeedTable against summing the Elo win probability over every participant, on both sides
+ * of the switch from the direct convolution to the FFT (rating buckets x query range = 2^22)
+ */
+class EloSeedTableTest {
+
+    /** Query range width used around the switch-over; 1024 buckets x 4096 ratings is exactly 2^22 */
+    private static final int QUERY_LENGTH = 4096;
+    private static final int LOW_RATING = 1;
+
+    /** Direct sums match to a few ulps, the FFT to the documented 1e-6 */
+    private static final double DIRECT_TOLERANCE = 1e-9;
+    private static final double FFT_TOLERANCE = 1e-6;
+
+    @Test
+    void directSumMatchesPairwise() {
+        Random random = new Random(17);
+        for (int round = 0; round < 50; round++) {
+            int[] ratings = randomRatings(random, 1 + random.nextInt(300), 1 + random.nextInt(round % 2 == 0 ? 10 : 3000));
+            int low = 200 + random.nextInt(1000);
+            int high = low + random.nextInt(3000);
+            assertMatchesPairwise(ratings, EloSeedTable.build(ratings, ratings.length, low, high), DIRECT_TOLERANCE);
+        }
+    }
+
+    @Test
+    void bothSidesOfSwitchMatchPairwise() {
+        Random random = new Random(23);
+        int high = LOW_RATING + QUERY_LENGTH - 1;
+        // 1024 distinct ratings is the last direct table, 1025 the first FFT one
+        int[] direct = distinctRatings(random, 1024, 3);
+        int[] fft = distinctRatings(random, 1025, 3);
+
+        assertMatchesPairwise(direct, EloSeedTable.build(direct, direct.length, LOW_RATING, high), DIRECT_TOLERANCE);
+        assertMatchesPairwise(fft, EloSeedTable.build(fft, fft.length, LOW_RATING, high), FFT_TOLERANCE);
+    }
+
+    @Test
+    void directAndFftAgreeOnSameField() {
+        Random random = new Random(29);
+        int[] ratings = distinctRatings(random, 1024, 4);
+        // One more queried rating pushes the same histogram over the switch
+        EloSeedTable direct = EloSeedTable.build(ratings, ratings.length, LOW_RATING, LOW_RATING + QUERY_LENGTH - 1);
+        EloSeedTable fft = EloSeedTable.build(ratings, ratings.length, LOW_RATING, LOW_RATING + QUERY_LENGTH);
+
+        assertMatchesPairwise(ratings, fft, FFT_TOLERANCE);
+        for (int rating = direct.getLowRating(); rating <= direct.getHighRating(); rating++) {
+            assertEquals(direct.seed(rating), fft.seed(rating), FFT_TOLERANCE, "rating " + rating);
+        }
+    }
+
+    @Test
+    void expectedRankDropsOwnHalfWin() {
+        int[] ratings = {1500, 1500, 1700, 1200};
+        EloSeedTable table = EloSeedTable.build(ratings, ratings.length);
+
+        assertEquals(1200, table.getLowRating());
+        assertEquals(1700, table.getHighRating());
+        // Against an equal opponent, itself and two others
+        double expected = 1 + 0.5 + pairwiseWin(1700, 1500) + pairwiseWin(1200, 1500);
+        assertEquals(expected, table.expectedRank(1500), DIRECT_TOLERANCE);
+        assertEquals(table.seed(1500) - 0.5, table.expectedRank(1500), 0);
+    }
+
+    @Test
+    void emptyFieldSeedsOne() {
+        EloSeedTable table = EloSeedTable.build(new int[0], 0, 1000, 1010);
+        for (int rating = 1000; rating <= 1010; rating++) {
+            assertEquals(1.0, table.seed(rating), 0);
+        }
+    }
+
+    @Test
+    void rejectsRatingsOutsideRange() {
+        EloSeedTable table = EloSeedTable.build(new int[] {1400, 1600}, 2, 1000, 2000);
+
+        assertThrows(IllegalArgumentException.class, () -> table.seed(999));
+        assertThrows(IllegalArgumentException.class, () -> table.seed(2001));
+        assertThrows(IllegalArgumentException.class, () -> EloSeedTable.build(new int[] {1400}, 1, 2000, 1000));
+    }
+
+    private static void assertMatchesPairwise(int[] ratings, EloSeedTable table, double tolerance) {
+        for (int rating = table.getLowRating(); rating <= table.getHighRating(); rating++) {
+            double seed = 1;
+            for (int other : ratings) {
+                seed += pairwiseWin(other, rating);
+            }
+            assertEquals(seed, table.seed(rating), tolerance, "rating " + rating + " n=" + ratings.length);
+        }
+    }
+
+    /**
+     * Probability that a player rated {@code a} beats one rated {@code b}
+     */
+    private static double pairwiseWin(int a, int b) {
+        return 1.0 / (1.0 + Math.pow(10.0, (b - a) / 400.0));
+    }
+
+    private static int[] randomRatings(Random random, int count, int spread) {
+        int[] ratings = new int[count];
+        for (int i = 0; i < count; i++) {
+            ratings[i] = 800 + random.nextInt(spread);
+        }
+        return ratings;
+    }
+
+    /**
+     * Exactly {@code distinct} different ratings, each held by 1 to {@code maxCopies} participants
+     */
+    private static int[] distinctRatings(Random random, int distinct, int maxCopies) {
+        int[] copies = new int[distinct];
+        int count = 0;
+        for (int i = 0; i < distinct; i++) {
+            copies[i] = 1 + random.nextInt(maxCopies);
+            count += copies[i];
+        }
+        int[] ratings = new int[count];
+        int next = 0;
+        int rating = 300;
+        for (int i = 0; i < distinct; i++) {
+            rating += 1 + random.nextInt(3);
+            for (int c = 0; c < copies[i]; c++) {
+                ratings[next++] = rating;
+            }
+        }
+        // Participants arrive in no particular order
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = ratings[i];
+            ratings[i] = ratings[j];
+            ratings[j] = t;
+        }
+        return ratings;
+    }
+}
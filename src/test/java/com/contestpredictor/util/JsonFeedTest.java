@@ -0,0 +1,112 @@
+package com.contestpredictor.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Limits, API errors and missing arrays through the public JsonFeed readers
+ */
+class JsonFeedTest {
+
+    private static final String RATED_LIST = "{\"status\":\"OK\",\"result\":["
+            + "{\"handle\":\"tourist\",\"rating\":3800,\"rank\":\"legendary grandmaster\"},"
+            + "{\"handle\":\"Пётр\",\"rating\":2100},"
+            + "{\"country\":\"Japan\",\"handle\":\"日本\",\"rating\":1500}]}";
+
+    /** Valid up to the first records, then not JSON at all */
+    private static final String BROKEN_AFTER_FIRST = "{\"status\":\"OK\",\"result\":["
+            + "{\"handle\":\"tourist\",\"rating\":3800}, this is not json";
+
+    @Test
+    void limitZeroReadsNoRecords() throws Exception {
+        List<String> users = new ArrayList<>();
+        assertEquals(0, JsonFeed.readUsers(new StringReader(RATED_LIST), 0, (h, r) -> users.add(h), "result"));
+        assertTrue(users.isEmpty());
+
+        // Nothing past the start of the array is parsed
+        assertEquals(0, JsonFeed.readUsers(new StringReader(BROKEN_AFTER_FIRST), 0, (h, r) -> users.add(h), "result"));
+        assertTrue(users.isEmpty());
+    }
+
+    @Test
+    void limitOneStopsAfterFirstRecord() throws Exception {
+        assertEquals(Collections.singletonList("tourist=3800"), users(RATED_LIST, 1));
+        assertEquals(Collections.singletonList("tourist=3800"), users(BROKEN_AFTER_FIRST, 1));
+    }
+
+    @Test
+    void largeLimitReadsEveryRecord() throws Exception {
+        List<String> expected = Arrays.asList("tourist=3800", "Пётр=2100", "日本=1500");
+        assertEquals(expected, users(RATED_LIST, Integer.MAX_VALUE));
+        assertEquals(expected, users(RATED_LIST, 3));
+        assertEquals(3, JsonFeed.count(new StringReader(RATED_LIST), "result"));
+        assertThrows(Exception.class, () -> users(BROKEN_AFTER_FIRST, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void streamSkipsLeadingRecords() throws Exception {
+        List<String> handles = new ArrayList<>();
+        int read = JsonFeed.stream(new StringReader(RATED_LIST), 1, 5, reader -> JsonFeed.readStanding(reader).getUsername(),
+                handles::add, "result");
+
+        assertEquals(2, read);
+        assertEquals(Arrays.asList("Пётр", "日本"), handles);
+    }
+
+    @Test
+    void nonOkStatusFailsWithComment() {
+        Exception error = assertThrows(Exception.class, () -> users(
+                "{\"status\":\"FAILED\",\"comment\":\"handles: User with handle nobody not found\"}", 10));
+        assertEquals("API returned error: handles: User with handle nobody not found", error.getMessage());
+
+        // A result after a failed status is not decoded
+        List<String> decoded = new ArrayList<>();
+        error = assertThrows(Exception.class, () -> JsonFeed.readUsers(new StringReader(
+                "{\"status\":\"FAILED\",\"comment\":\"Call limit exceeded\",\"result\":[{\"handle\":\"a\",\"rating\":1}]}"),
+                10, (h, r) -> decoded.add(h), "result"));
+        assertEquals("API returned error: Call limit exceeded", error.getMessage());
+        assertTrue(decoded.isEmpty());
+
+        // Status after the records still fails the read
+        error = assertThrows(Exception.class, () -> users(
+                "{\"result\":[{\"handle\":\"a\",\"rating\":1}],\"status\":\"FAILED\",\"comment\":\"late\"}", 10));
+        assertEquals("API returned error: late", error.getMessage());
+    }
+
+    @Test
+    void missingResultPathFails() {
+        Exception error = assertThrows(Exception.class, () -> users("{\"status\":\"OK\"}", 10));
+        assertEquals("API returned no result", error.getMessage());
+
+        error = assertThrows(Exception.class, () -> users("{\"users\":[]}", 10));
+        assertEquals("API returned no result", error.getMessage());
+
+        error = assertThrows(Exception.class, () -> JsonFeed.count(
+                new StringReader("{\"status\":\"OK\",\"result\":{\"contest\":{}}}"), "result", "rows"));
+        assertEquals("API returned no result.rows", error.getMessage());
+    }
+
+    @Test
+    void emptyPathReadsTopLevelArray() throws Exception {
+        List<String> users = new ArrayList<>();
+        JsonFeed.readUsers(new StringReader("[{\"handle\":\"a\",\"rating\":1200},{\"handle\":\"\",\"rating\":0}]"),
+                Integer.MAX_VALUE, (h, r) -> users.add(h + "=" + r));
+
+        assertEquals(Arrays.asList("a=1200", "=0"), users);
+    }
+
+    private static List<String> users(String json, int limit) throws Exception {
+        List<String> users = new ArrayList<>();
+        JsonFeed.readUsers(new StringReader(json), limit, (handle, rating) -> users.add(handle + "=" + rating), "result");
+        return users;
+    }
+}
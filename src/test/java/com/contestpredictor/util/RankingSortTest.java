@@ -0,0 +1,80 @@
+package com.contestpredictor.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * RankingSort against a stable sort with a Comparator, at the sizes where it switches strategy
+ */
+class RankingSortTest {
+
+    private static final Comparator<int[]> STANDING = Comparator.<int[]>comparingInt(row -> -row[0])
+            .thenComparingInt(row -> row[1]);
+
+    @Test
+    void matchesComparatorSort() {
+        Random random = new Random(11);
+        // Insertion sort, 8-bit digits and 16-bit digits
+        for (int n : new int[] {0, 1, 2, 31, 32, 33, 1000, 65535, 65536, 100_000}) {
+            for (int maxPenalty : new int[] {1, 300, 1 << 20, Integer.MAX_VALUE}) {
+                int[] solved = new int[n];
+                int[] penalties = new int[n];
+                for (int i = 0; i < n; i++) {
+                    solved[i] = random.nextInt(12);
+                    penalties[i] = random.nextInt(maxPenalty);
+                }
+                int[] order = new int[n];
+                long[] keys = RankingSort.sortByStanding(solved, penalties, n, order);
+
+                int[] expected = comparatorSort(solved, penalties);
+                assertArrayEquals(expected, order, "n=" + n + " maxPenalty=" + maxPenalty);
+                for (int position = 0; position < n; position++) {
+                    assertEquals(RankingSort.standingKey(solved[order[position]], penalties[order[position]]), keys[position]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void keyOrderIsStandingOrder() {
+        int[][] rows = {
+            {Integer.MAX_VALUE, 0}, {100, 0}, {100, 1}, {100, Integer.MAX_VALUE},
+            {1, 0}, {0, 0}, {0, Integer.MAX_VALUE}, {-1, 0},
+        };
+        for (int i = 1; i < rows.length; i++) {
+            long before = RankingSort.standingKey(rows[i - 1][0], rows[i - 1][1]);
+            long after = RankingSort.standingKey(rows[i][0], rows[i][1]);
+            assertTrue(Long.compareUnsigned(before, after) < 0, i + ": " + before + " vs " + after);
+        }
+    }
+
+    @Test
+    void sequentialRanksKeepTiesInInputOrder() {
+        int[] solved = {3, 5, 3, 5, 1, 3};
+        int[] penalties = {10, 20, 10, 20, 0, 30};
+        int[] order = new int[6];
+        RankingSort.sortByStanding(solved, penalties, 6, order);
+
+        int[] ranks = new int[6];
+        RankingSort.assignSequentialRanks(order, 6, ranks);
+        assertArrayEquals(new int[] {3, 1, 4, 2, 6, 5}, ranks);
+    }
+
+    private static int[] comparatorSort(int[] solved, int[] penalties) {
+        List<int[]> rows = new ArrayList<>();
+        for (int i = 0; i < solved.length; i++) {
+            rows.add(new int[] {solved[i], penalties[i], i});
+        }
+        // List.sort is stable, so ties keep their input order as RankingSort must
+        rows.sort(STANDING);
+        return rows.stream().mapToInt(row -> row[2]).toArray();
+    }
+}
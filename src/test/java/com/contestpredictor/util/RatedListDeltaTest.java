@@ -0,0 +1,221 @@
+package com.contestpredictor.util;
+
+import com.contestpredictor.model.Contestant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * RatedListDelta against a diff through two hash maps, which is what it must agree with
+ */
+class RatedListDeltaTest {
+
+    @TempDir
+    Path dir;
+
+    private int snapshots;
+
+    @Test
+    void everyUserIsInsertedWithoutSnapshot() {
+        RatedUserSnapshot.Builder current = list("a", 2000, "b", 1900);
+        RatedListDelta delta = RatedListDelta.diff(null, current);
+
+        assertEquals(Arrays.asList("a=2000", "b=1900"), users(delta.getInserted()));
+        assertTrue(delta.getChanged().isEmpty());
+        assertTrue(delta.getRemoved().isEmpty());
+    }
+
+    @Test
+    void everyUserIsInsertedAfterEmptyList() throws IOException {
+        RatedListDelta delta = RatedListDelta.diff(snapshot(list()), list("a", 2000, "b", 1900));
+
+        assertEquals(Arrays.asList("a=2000", "b=1900"), users(delta.getInserted()));
+        assertTrue(delta.getRemoved().isEmpty());
+        assertEquals(0, delta.getPreviousSize());
+        assertEquals(2, delta.getCurrentSize());
+    }
+
+    @Test
+    void everyUserIsRemovedForEmptyList() throws IOException {
+        RatedListDelta delta = RatedListDelta.diff(snapshot(list("a", 2000, "b", 1900)), list());
+
+        assertTrue(delta.getInserted().isEmpty());
+        assertEquals(Arrays.asList("a=2000", "b=1900"), users(delta.getRemoved()));
+    }
+
+    @Test
+    void unchangedListIsEmpty() throws IOException {
+        RatedUserSnapshot.Builder builder = list("a", 2000, "b", 1900, "c", 1900, "d", 1500);
+        RatedListDelta delta = RatedListDelta.diff(snapshot(builder), builder);
+
+        assertTrue(delta.isEmpty());
+        assertFalse(delta.isReordered());
+    }
+
+    @Test
+    void duplicateRatingsReshuffledWithinTie() throws IOException {
+        RatedUserSnapshot previous = snapshot(list("a", 1500, "b", 1500, "c", 1500, "d", 1500));
+        RatedListDelta delta = RatedListDelta.diff(previous, list("d", 1500, "b", 1500, "a", 1500, "c", 1500));
+
+        assertTrue(delta.isEmpty());
+        assertTrue(delta.isReordered());
+    }
+
+    @Test
+    void userMovesAcrossTieGroup() throws IOException {
+        List<Object> before = new ArrayList<>();
+        List<Object> after = new ArrayList<>();
+        before.addAll(Arrays.asList("top", 1800));
+        after.addAll(Arrays.asList("climber", 1800, "top", 1800));
+        for (int i = 0; i < 40; i++) {
+            before.addAll(Arrays.asList("tied" + i, 1600));
+        }
+        before.addAll(Arrays.asList("climber", 1400, "last", 1200));
+        for (int i = 0; i < 40; i++) {
+            after.addAll(Arrays.asList("tied" + i, 1600));
+        }
+        after.addAll(Arrays.asList("last", 1200));
+        RatedUserSnapshot previous = snapshot(list(before.toArray()));
+        RatedUserSnapshot.Builder current = list(after.toArray());
+
+        RatedListDelta delta = RatedListDelta.diff(previous, current);
+        assertEquals(Collections.singletonList("climber: 1400 -> 1800"), changes(delta));
+        assertTrue(delta.getInserted().isEmpty());
+        assertTrue(delta.getRemoved().isEmpty());
+        assertMatchesMaps(previous, current, delta);
+    }
+
+    @Test
+    void removalsAtBothEnds() throws IOException {
+        RatedUserSnapshot previous = snapshot(list("first", 3000, "a", 2000, "b", 1900, "c", 1900, "final", 800));
+        RatedListDelta delta = RatedListDelta.diff(previous, list("a", 2000, "b", 1900, "c", 1900));
+
+        assertEquals(Arrays.asList("first=3000", "final=800"), users(delta.getRemoved()));
+        assertTrue(delta.getInserted().isEmpty());
+        assertTrue(delta.getChanged().isEmpty());
+        assertTrue(delta.isReordered());
+    }
+
+    @Test
+    void randomRefreshesMatchMaps() throws IOException {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            int size = random.nextInt(round < 100 ? 40 : 3000);
+            // Few distinct ratings, so there are long runs of ties
+            int spread = 1 + random.nextInt(round % 2 == 0 ? 5 : 400);
+            Map<String, Integer> users = new LinkedHashMap<>();
+            for (int i = 0; i < size; i++) {
+                users.put("user" + i, 1000 + random.nextInt(spread) * 10);
+            }
+            RatedUserSnapshot previous = snapshot(sorted(users, random));
+
+            int edits = random.nextInt(size / 4 + 2);
+            for (int e = 0; e < edits; e++) {
+                int kind = random.nextInt(3);
+                String handle = "user" + random.nextInt(size + 1);
+                if (kind == 0) {
+                    users.remove(handle);
+                } else if (kind == 1) {
+                    users.put("new" + round + "_" + e, 1000 + random.nextInt(spread) * 10);
+                } else if (users.containsKey(handle)) {
+                    users.put(handle, users.get(handle) + (random.nextInt(200) - 100));
+                }
+            }
+            RatedUserSnapshot.Builder current = sorted(users, random);
+            assertMatchesMaps(previous, current, RatedListDelta.diff(previous, current));
+        }
+    }
+
+    private static void assertMatchesMaps(RatedUserSnapshot previous, RatedUserSnapshot.Builder current, RatedListDelta delta) {
+        Map<String, Integer> previousRows = new HashMap<>();
+        for (int row = 0; row < previous.size(); row++) {
+            previousRows.put(previous.handleAt(row), row);
+        }
+        Map<String, Integer> currentRows = new HashMap<>();
+        List<String> inserted = new ArrayList<>();
+        List<String> changed = new ArrayList<>();
+        boolean reordered = previous.size() != current.size();
+        for (int i = 0; i < current.size(); i++) {
+            String handle = current.handleAt(i);
+            currentRows.put(handle, i);
+            Integer row = previousRows.get(handle);
+            if (row == null) {
+                inserted.add(handle + "=" + current.ratingAt(i));
+                continue;
+            }
+            reordered |= row != i;
+            if (previous.ratingAt(row) != current.ratingAt(i)) {
+                changed.add(handle + ": " + previous.ratingAt(row) + " -> " + current.ratingAt(i));
+            }
+        }
+        List<String> removed = new ArrayList<>();
+        for (int row = 0; row < previous.size(); row++) {
+            if (!currentRows.containsKey(previous.handleAt(row))) {
+                removed.add(previous.handleAt(row) + "=" + previous.ratingAt(row));
+            }
+        }
+
+        assertEquals(inserted, users(delta.getInserted()));
+        assertEquals(changed, changes(delta));
+        assertEquals(removed, users(delta.getRemoved()));
+        assertEquals(reordered, delta.isReordered());
+    }
+
+    /**
+     * Users sorted by rating, best first, ties in random order as the API may return them
+     */
+    private static RatedUserSnapshot.Builder sorted(Map<String, Integer> users, Random random) {
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(users.entrySet());
+        Collections.shuffle(entries, random);
+        entries.sort((a, b) -> Integer.compare(b.getValue(), a.getValue()));
+        RatedUserSnapshot.Builder builder = new RatedUserSnapshot.Builder();
+        for (Map.Entry<String, Integer> entry : entries) {
+            builder.add(entry.getKey(), entry.getValue());
+        }
+        return builder;
+    }
+
+    private static RatedUserSnapshot.Builder list(Object... handlesAndRatings) {
+        RatedUserSnapshot.Builder builder = new RatedUserSnapshot.Builder();
+        for (int i = 0; i < handlesAndRatings.length; i += 2) {
+            builder.add((String) handlesAndRatings[i], (Integer) handlesAndRatings[i + 1]);
+        }
+        return builder;
+    }
+
+    private RatedUserSnapshot snapshot(RatedUserSnapshot.Builder builder) throws IOException {
+        Path file = dir.resolve("rated-list-" + (snapshots++) + ".bin");
+        builder.write(file, 0);
+        return RatedUserSnapshot.open(file);
+    }
+
+    private static List<String> users(List<Contestant> contestants) {
+        List<String> users = new ArrayList<>();
+        for (Contestant contestant : contestants) {
+            users.add(contestant.getHandle() + "=" + contestant.getOldRating());
+        }
+        return users;
+    }
+
+    private static List<String> changes(RatedListDelta delta) {
+        List<String> changes = new ArrayList<>();
+        for (RatedListDelta.Change change : delta.getChanged()) {
+            changes.add(change.toString());
+        }
+        return changes;
+    }
+}
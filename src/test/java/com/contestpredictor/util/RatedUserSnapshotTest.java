@@ -0,0 +1,145 @@
+package com.contestpredictor.util;
+
+import com.contestpredictor.model.Contestant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Writing a snapshot with Builder and reading it back, and refusing files that are not
+ * complete snapshots
+ */
+class RatedUserSnapshotTest {
+
+    private static final List<String> HANDLES = Arrays.asList(
+            "tourist", "", "Пётр", "日本語", "naïve_coder", "🙂smile", "", "a");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripKeepsHandlesAndRatings() throws IOException {
+        RatedUserSnapshot.Builder builder = new RatedUserSnapshot.Builder();
+        for (int i = 0; i < HANDLES.size(); i++) {
+            builder.add(HANDLES.get(i), 3800 - 300 * i);
+        }
+        Path file = dir.resolve("rated.bin");
+        builder.write(file, 1_700_000_000_123L);
+
+        RatedUserSnapshot snapshot = RatedUserSnapshot.open(file);
+        assertEquals(1_700_000_000_123L, snapshot.getFetchedAt());
+        assertEquals(HANDLES.size(), snapshot.size());
+        for (int i = 0; i < HANDLES.size(); i++) {
+            assertEquals(HANDLES.get(i), snapshot.handleAt(i));
+            assertEquals(3800 - 300 * i, snapshot.ratingAt(i));
+            assertEquals(builder.handleHash(i), snapshot.handleHash(i), HANDLES.get(i));
+            assertTrue(builder.handleEquals(i, snapshot, i), HANDLES.get(i));
+        }
+        // Both empty handles match each other and nothing else
+        assertTrue(builder.handleEquals(1, snapshot, 6));
+        assertFalse(builder.handleEquals(1, snapshot, 7));
+
+        List<Contestant> first = snapshot.contestants(3);
+        assertEquals(3, first.size());
+        assertEquals("Пётр", first.get(2).getHandle());
+        assertEquals(3200, first.get(2).getOldRating());
+        assertEquals(HANDLES.size(), snapshot.contestants(Integer.MAX_VALUE).size());
+    }
+
+    @Test
+    void manyRowsGrowBuilder() throws IOException {
+        RatedUserSnapshot.Builder builder = new RatedUserSnapshot.Builder();
+        for (int i = 0; i < 5000; i++) {
+            builder.add("участник" + i, i - 100);
+        }
+        Path file = dir.resolve("large.bin");
+        builder.write(file, 7);
+
+        RatedUserSnapshot snapshot = RatedUserSnapshot.open(file);
+        assertEquals(5000, snapshot.size());
+        assertEquals("участник4999", snapshot.handleAt(4999));
+        assertEquals(-100, snapshot.ratingAt(0));
+    }
+
+    @Test
+    void emptyListRoundTrips() throws IOException {
+        Path file = dir.resolve("empty.bin");
+        new RatedUserSnapshot.Builder().write(file, 42);
+
+        RatedUserSnapshot snapshot = RatedUserSnapshot.open(file);
+        assertEquals(0, snapshot.size());
+        assertEquals(42, snapshot.getFetchedAt());
+        assertTrue(snapshot.contestants(10).isEmpty());
+    }
+
+    @Test
+    void touchRewritesOnlyFetchTime() throws IOException {
+        Path file = dir.resolve("touched.bin");
+        RatedUserSnapshot.Builder.of(Arrays.asList(new Contestant("Пётр", 2100), new Contestant("", 1500)))
+                .write(file, 1);
+        byte[] before = Files.readAllBytes(file);
+
+        RatedUserSnapshot touched = RatedUserSnapshot.open(file).touch(99);
+        assertEquals(99, touched.getFetchedAt());
+        assertEquals("Пётр", touched.handleAt(0));
+        assertEquals("", touched.handleAt(1));
+        byte[] after = Files.readAllBytes(file);
+        assertEquals(before.length, after.length);
+        assertTrue(Arrays.equals(before, 16, before.length, after, 16, after.length));
+    }
+
+    @Test
+    void rejectsTruncatedFiles() throws IOException {
+        Path file = dir.resolve("full.bin");
+        RatedUserSnapshot.Builder builder = new RatedUserSnapshot.Builder();
+        for (String handle : HANDLES) {
+            builder.add(handle, 1500);
+        }
+        builder.write(file, 5);
+        byte[] bytes = Files.readAllBytes(file);
+
+        // Cut in the blob, in the offsets, in the header, and nothing but the magic
+        for (int length : new int[] {bytes.length - 1, 40, 20, 4, 0}) {
+            Path cut = dir.resolve("cut-" + length + ".bin");
+            Files.write(cut, Arrays.copyOf(bytes, length));
+            assertThrows(IOException.class, () -> RatedUserSnapshot.open(cut), length + " bytes");
+        }
+        Path longer = dir.resolve("longer.bin");
+        Files.write(longer, Arrays.copyOf(bytes, bytes.length + 1));
+        assertThrows(IOException.class, () -> RatedUserSnapshot.open(longer));
+    }
+
+    @Test
+    void rejectsForeignFiles() throws IOException {
+        Path json = dir.resolve("rated.json");
+        Files.write(json, "{\"status\":\"OK\",\"result\":[{\"handle\":\"tourist\",\"rating\":3800}]}"
+                .getBytes(StandardCharsets.UTF_8));
+        IOException error = assertThrows(IOException.class, () -> RatedUserSnapshot.open(json));
+        assertEquals("not a rated user snapshot", error.getMessage());
+
+        Path file = dir.resolve("future.bin");
+        new RatedUserSnapshot.Builder().add("tourist", 3800).write(file, 1);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(0, 2), 4);
+        }
+        error = assertThrows(IOException.class, () -> RatedUserSnapshot.open(file));
+        assertEquals("unsupported snapshot version 2", error.getMessage());
+
+        assertThrows(IOException.class, () -> RatedUserSnapshot.open(dir.resolve("missing.bin")));
+    }
+}
@@ -0,0 +1,153 @@
+package com.contestpredictor.util;
+
+import com.contestpredictor.model.ParticipantBatch;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A seeded forecast gives the same outcomes however many threads run its trials, and
+ * cancel() stops it between trials
+ */
+class RatingForecastTest {
+
+    private static final int PARTICIPANTS = 60;
+    private static final int TRIALS = 400;
+
+    @Test
+    void sameSeedSameOutcomesAtEveryPoolSize() {
+        List<String> usernames = usernames(PARTICIPANTS);
+        int[] ratings = ratings(PARTICIPANTS);
+
+        List<String> expected = summaries(withPool(1, () ->
+                new RatingForecast(new CodeforcesRatingEngine(), TRIALS, 99).run(usernames, ratings)));
+        for (int threads : new int[] {2, 3, 8}) {
+            List<String> actual = summaries(withPool(threads, () ->
+                    new RatingForecast(new CodeforcesRatingEngine(), TRIALS, 99).run(usernames, ratings)));
+            assertEquals(expected, actual, threads + " threads");
+        }
+
+        List<String> otherSeed = summaries(withPool(4, () ->
+                new RatingForecast(new CodeforcesRatingEngine(), TRIALS, 100).run(usernames, ratings)));
+        assertNotEquals(expected, otherSeed);
+    }
+
+    @Test
+    void outcomesFollowInputOrder() {
+        List<String> usernames = usernames(PARTICIPANTS);
+        int[] ratings = ratings(PARTICIPANTS);
+        List<RatingForecast.Outcome> outcomes = new RatingForecast(new CodeforcesRatingEngine(), TRIALS, 5)
+                .run(usernames, ratings);
+
+        assertEquals(PARTICIPANTS, outcomes.size());
+        for (int i = 0; i < PARTICIPANTS; i++) {
+            RatingForecast.Outcome outcome = outcomes.get(i);
+            assertEquals(usernames.get(i), outcome.getUsername());
+            assertEquals(ratings[i], outcome.getRating());
+            assertTrue(outcome.getP10() <= outcome.getP25() && outcome.getP25() <= outcome.getMedian()
+                    && outcome.getMedian() <= outcome.getP75() && outcome.getP75() <= outcome.getP90(), outcome.getUsername());
+            assertTrue(outcome.getProbabilityOfGain() >= 0 && outcome.getProbabilityOfGain() <= 1);
+        }
+    }
+
+    @Test
+    void cancelBeforeRunThrows() {
+        RatingForecast forecast = new RatingForecast(new CodeforcesRatingEngine(), TRIALS, 1);
+        forecast.cancel();
+
+        assertTrue(forecast.isCancelled());
+        assertThrows(CancellationException.class, () -> forecast.run(usernames(PARTICIPANTS), ratings(PARTICIPANTS)));
+    }
+
+    @Test
+    void cancelStopsRunningTrials() {
+        int threads = 4;
+        AtomicInteger rated = new AtomicInteger();
+        AtomicReference<RatingForecast> running = new AtomicReference<>();
+        // Cancels the forecast from inside its own trials once a few have been rated
+        RatingEngine engine = new CodeforcesRatingEngine() {
+            @Override
+            public void calculateRatingChanges(ParticipantBatch batch) {
+                super.calculateRatingChanges(batch);
+                if (rated.incrementAndGet() == 10) {
+                    running.get().cancel();
+                }
+            }
+        };
+        RatingForecast forecast = new RatingForecast(engine, 100_000, 1);
+        running.set(forecast);
+
+        withPool(threads, () -> assertThrows(CancellationException.class,
+                () -> forecast.run(usernames(PARTICIPANTS), ratings(PARTICIPANTS))));
+        // Trials already past the check when cancel() ran may still finish, one per thread
+        assertTrue(rated.get() <= 10 + threads, rated.get() + " trials rated");
+    }
+
+    @Test
+    void emptyFieldHasNoOutcomes() {
+        assertTrue(new RatingForecast(new CodeforcesRatingEngine(), TRIALS, 1)
+                .run(new ArrayList<>(), new int[0]).isEmpty());
+    }
+
+    @Test
+    void rejectsNonPositiveTrials() {
+        assertThrows(IllegalArgumentException.class, () -> new RatingForecast(new CodeforcesRatingEngine(), 0, 1));
+    }
+
+    private interface PoolWork<T> {
+        T run();
+    }
+
+    private static <T> T withPool(int threads, PoolWork<T> work) {
+        ForkJoinPool previous = ParallelRatings.getPool();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        ParallelRatings.setPool(pool);
+        try {
+            return work.run();
+        } finally {
+            ParallelRatings.setPool(previous);
+            pool.shutdown();
+        }
+    }
+
+    private static List<String> summaries(List<RatingForecast.Outcome> outcomes) {
+        List<String> summaries = new ArrayList<>();
+        for (RatingForecast.Outcome outcome : outcomes) {
+            summaries.add(outcome.getUsername() + " " + outcome.getMean() + " " + Arrays.asList(outcome.getP10(),
+                    outcome.getP25(), outcome.getMedian(), outcome.getP75(), outcome.getP90()) + " " + outcome.getProbabilityOfGain());
+        }
+        return summaries;
+    }
+
+    private static List<String> usernames(int n) {
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            usernames.add("user" + i);
+        }
+        return usernames;
+    }
+
+    /**
+     * Field with a spread of ratings and several exact ties
+     */
+    private static int[] ratings(int n) {
+        Random random = new Random(n);
+        int[] ratings = new int[n];
+        for (int i = 0; i < n; i++) {
+            ratings[i] = i % 5 == 0 ? 1500 : 800 + random.nextInt(2000);
+        }
+        return ratings;
+    }
+}
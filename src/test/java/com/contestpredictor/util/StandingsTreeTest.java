@@ -0,0 +1,96 @@
+package com.contestpredictor.util;
+
+import com.contestpredictor.model.ParticipantBatch;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Edits through StandingsTree against sorting the whole contest again after each one
+ */
+class StandingsTreeTest {
+
+    @Test
+    void singleEditMovesOnlyRowsBetween() {
+        ParticipantBatch batch = batch(new int[][] {{5, 100}, {4, 50}, {4, 90}, {3, 10}, {1, 0}});
+        StandingsTree tree = new StandingsTree(batch);
+
+        StandingsTree.Change change = tree.update(3, 5, 20);
+
+        assertEquals(3, change.getOldPosition());
+        assertEquals(0, change.getNewPosition());
+        assertArrayEquals(new int[] {3, 0, 1, 2}, change.getRows());
+        assertArrayEquals(new int[] {3, 0, 1, 2, 4}, Arrays.copyOf(batch.getOrder(), 5));
+        assertArrayEquals(new int[] {2, 3, 4, 1, 5}, Arrays.copyOf(batch.getRanks(), 5));
+    }
+
+    @Test
+    void randomEditsMatchFullSort() {
+        Random random = new Random(7);
+        for (int round = 0; round < 50; round++) {
+            int n = 1 + random.nextInt(round < 25 ? 20 : 2000);
+            int maxSolved = 1 + random.nextInt(8);
+            int maxPenalty = 1 + random.nextInt(round % 2 == 0 ? 5 : 3000);
+            int[][] rows = new int[n][];
+            for (int i = 0; i < n; i++) {
+                rows[i] = new int[] {random.nextInt(maxSolved), random.nextInt(maxPenalty)};
+            }
+            ParticipantBatch batch = batch(rows);
+            StandingsTree tree = new StandingsTree(batch);
+            // Ties keep the order the rows had when the tree was built
+            int[] sequence = new int[n];
+            for (int position = 0; position < n; position++) {
+                sequence[batch.getOrder()[position]] = position;
+            }
+
+            for (int edit = 0; edit < 100; edit++) {
+                int row = random.nextInt(n);
+                StandingsTree.Change change = tree.update(row, random.nextInt(maxSolved), random.nextInt(maxPenalty));
+
+                int[] expected = fullSort(batch, sequence);
+                assertArrayEquals(expected, Arrays.copyOf(batch.getOrder(), n));
+                for (int position = 0; position < n; position++) {
+                    assertEquals(position + 1, batch.getRanks()[expected[position]]);
+                    assertEquals(expected[position], tree.rowAt(position));
+                    assertEquals(position, tree.positionOf(expected[position]));
+                }
+                assertEquals(row, expected[change.getNewPosition()]);
+                assertArrayEquals(Arrays.copyOfRange(expected, change.getFirstPosition(), change.getLastPosition() + 1),
+                        change.getRows());
+            }
+        }
+    }
+
+    private static int[] fullSort(ParticipantBatch batch, int[] sequence) {
+        int[] solved = batch.getSolved();
+        int[] penalties = batch.getPenalties();
+        List<Integer> rows = new ArrayList<>();
+        for (int row = 0; row < batch.size(); row++) {
+            rows.add(row);
+        }
+        rows.sort(Comparator.<Integer>comparingInt(row -> -solved[row])
+                .thenComparingInt(row -> penalties[row])
+                .thenComparingInt(row -> sequence[row]));
+        return rows.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Batch of {solved, penalty} rows, sorted and ranked as the screens do before building a tree
+     */
+    private static ParticipantBatch batch(int[][] rows) {
+        ParticipantBatch batch = new ParticipantBatch(rows.length);
+        for (int i = 0; i < rows.length; i++) {
+            batch.add("user" + i, 1500, rows[i][0], rows[i][1], 0);
+        }
+        StandingsSort.sortByStanding(batch);
+        StandingsSort.assignSequentialRanks(batch);
+        return batch;
+    }
+}